@@ -0,0 +1,135 @@
+package benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import util.MappedPlyScanner;
+import util.PlyScanner;
+
+/**
+ * Measures the throughput of the ASCII number readers of a
+ * {@link PlyScanner}. Every invocation decodes a whole file of random
+ * integers or floating point numbers, separated by spaces and newlines.
+ * 
+ * @author Niels Billen
+ * @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AsciiScannerBenchmark {
+	/**
+	 * The number of values in the decoded files.
+	 */
+	private static final int COUNT = 1000000;
+
+	/**
+	 * Whether the files are memory mapped or read through a channel.
+	 */
+	@Param({ "true", "false" })
+	public boolean mapped;
+
+	/**
+	 * The file with the integers.
+	 */
+	private Path integers;
+
+	/**
+	 * The file with the floating point numbers.
+	 */
+	private Path doubles;
+
+	/**
+	 * Writes the files with random values.
+	 * 
+	 * @throws IOException
+	 */
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		Random random = new Random(42);
+		integers = Files.createTempFile("plylib-integers", ".txt");
+		try (BufferedWriter writer = Files.newBufferedWriter(integers,
+				StandardCharsets.US_ASCII)) {
+			for (int i = 0; i < COUNT; ++i) {
+				writer.write(Integer.toString(random.nextInt()));
+				writer.write(i % 8 == 7 ? '\n' : ' ');
+			}
+		}
+		doubles = Files.createTempFile("plylib-doubles", ".txt");
+		try (BufferedWriter writer = Files.newBufferedWriter(doubles,
+				StandardCharsets.US_ASCII)) {
+			for (int i = 0; i < COUNT; ++i) {
+				writer.write(Float.toString((float) random.nextGaussian()));
+				writer.write(i % 8 == 7 ? '\n' : ' ');
+			}
+		}
+	}
+
+	/**
+	 * Deletes the files.
+	 * 
+	 * @throws IOException
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(integers);
+		Files.deleteIfExists(doubles);
+	}
+
+	/**
+	 * Decodes the integers.
+	 */
+	@Benchmark
+	public void nextAsciiLong(Throughput throughput, Blackhole blackhole)
+			throws IOException {
+		try (PlyScanner scanner = open(integers)) {
+			for (int i = 0; i < COUNT; ++i)
+				blackhole.consume(scanner.nextAsciiLong());
+		}
+		throughput.add(Files.size(integers), COUNT);
+	}
+
+	/**
+	 * Decodes the floating point numbers.
+	 */
+	@Benchmark
+	public void nextAsciiDouble(Throughput throughput, Blackhole blackhole)
+			throws IOException {
+		try (PlyScanner scanner = open(doubles)) {
+			for (int i = 0; i < COUNT; ++i)
+				blackhole.consume(scanner.nextAsciiDouble());
+		}
+		throughput.add(Files.size(doubles), COUNT);
+	}
+
+	/**
+	 * Opens a scanner at the start of the given file.
+	 */
+	private PlyScanner open(Path file) throws IOException {
+		return mapped ? new MappedPlyScanner(file) : new PlyScanner(
+				file.toFile());
+	}
+}
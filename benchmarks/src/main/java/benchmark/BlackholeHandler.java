@@ -0,0 +1,205 @@
+package benchmark;
+
+import io.PlyBlock;
+import io.PlyBlockHandler;
+import io.PlyIndexedHandler;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import core.ElementDefinition;
+import core.Format;
+
+/**
+ * A {@link PlyIndexedHandler} which hands every parsed value to a
+ * {@link Blackhole}, so the parsing cannot be optimized away, and counts the
+ * parsed elements. When blocks are enabled, it receives the elements as
+ * {@link PlyBlock}s instead and hands the columns to the blackhole.
+ * 
+ * @author Niels Billen
+ * @version 0.1
+ */
+class BlackholeHandler implements PlyIndexedHandler, PlyBlockHandler {
+	/**
+	 * The blackhole which consumes the values.
+	 */
+	private final Blackhole blackhole;
+
+	/**
+	 * Whether the elements are received in blocks.
+	 */
+	private final boolean blocks;
+
+	/**
+	 * The number of elements which were parsed.
+	 */
+	long elements = 0;
+
+	/**
+	 * Creates a new {@link BlackholeHandler} which hands the values to the
+	 * given blackhole.
+	 * 
+	 * @param blackhole
+	 *            the blackhole which consumes the values.
+	 */
+	BlackholeHandler(Blackhole blackhole) {
+		this(blackhole, false);
+	}
+
+	/**
+	 * Creates a new {@link BlackholeHandler} which hands the values or the
+	 * blocks to the given blackhole.
+	 * 
+	 * @param blackhole
+	 *            the blackhole which consumes the values.
+	 * @param blocks
+	 *            whether the elements are received in blocks.
+	 */
+	BlackholeHandler(Blackhole blackhole, boolean blocks) {
+		this.blackhole = blackhole;
+		this.blocks = blocks;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.PlyStructureHandler#plyHeaderFormat(core.Format, int, int)
+	 */
+	@Override
+	public void plyHeaderFormat(Format format, int majorVersion,
+			int minorVersion) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.PlyStructureHandler#plyHeaderComment(java.lang.String)
+	 */
+	@Override
+	public void plyHeaderComment(String comment) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.PlyStructureHandler#plyHeaderEnd()
+	 */
+	@Override
+	public void plyHeaderEnd() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.PlyStructureHandler#plyElementDefinition(core.ElementDefinition)
+	 */
+	@Override
+	public void plyElementDefinition(ElementDefinition element) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.PlyIndexedHandler#plyElementStart(int)
+	 */
+	@Override
+	public void plyElementStart(int elementId) {
+		++elements;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.PlyStructureHandler#plyElementEnd()
+	 */
+	@Override
+	public void plyElementEnd() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.PlyIndexedHandler#plyProperty(int, int, int)
+	 */
+	@Override
+	public void plyProperty(int elementId, int propertyId, int value) {
+		blackhole.consume(value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.PlyIndexedHandler#plyProperty(int, int, long)
+	 */
+	@Override
+	public void plyProperty(int elementId, int propertyId, long value) {
+		blackhole.consume(value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.PlyIndexedHandler#plyProperty(int, int, double)
+	 */
+	@Override
+	public void plyProperty(int elementId, int propertyId, double value) {
+		blackhole.consume(value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.PlyIndexedHandler#plyListProperty(int, int, int[], int)
+	 */
+	@Override
+	public void plyListProperty(int elementId, int propertyId, int[] values,
+			int size) {
+		for (int i = 0; i < size; ++i)
+			blackhole.consume(values[i]);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.PlyIndexedHandler#plyListProperty(int, int, long[], int)
+	 */
+	@Override
+	public void plyListProperty(int elementId, int propertyId, long[] values,
+			int size) {
+		for (int i = 0; i < size; ++i)
+			blackhole.consume(values[i]);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.PlyIndexedHandler#plyListProperty(int, int, double[], int)
+	 */
+	@Override
+	public void plyListProperty(int elementId, int propertyId,
+			double[] values, int size) {
+		for (int i = 0; i < size; ++i)
+			blackhole.consume(values[i]);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.PlyBlockHandler#plyAcceptsBlocks(core.ElementDefinition)
+	 */
+	@Override
+	public boolean plyAcceptsBlocks(ElementDefinition element) {
+		return blocks;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.PlyBlockHandler#plyBlock(io.PlyBlock)
+	 */
+	@Override
+	public void plyBlock(PlyBlock block) {
+		for (int p = 0; p < block.getElement().nbOfProperties(); ++p)
+			blackhole.consume(block.getColumn(p).getArray());
+		elements += block.size();
+	}
+}
@@ -0,0 +1,139 @@
+package benchmark;
+
+import io.PlyMeshLoader;
+import io.PlyReader;
+import io.PlyReaderOptions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import core.Format;
+
+/**
+ * Measures the end-to-end throughput of {@link PlyReader} on synthetic
+ * triangle meshes of several sizes, through an indexed handler, a block
+ * handler and the {@link PlyMeshLoader}.
+ * 
+ * @author Niels Billen
+ * @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParseBenchmark {
+	/**
+	 * The format of the parsed file.
+	 */
+	@Param({ "ASCII", "BINARY_LITTLE_ENDIAN", "BINARY_BIG_ENDIAN" })
+	public Format format;
+
+	/**
+	 * The number of vertices of the parsed mesh.
+	 */
+	@Param({ "10000", "100000", "1000000" })
+	public int vertices;
+
+	/**
+	 * Whether the file is memory mapped or read through a channel.
+	 */
+	@Param({ "true", "false" })
+	public boolean mapped;
+
+	/**
+	 * The number of buffers which are read ahead when the file is not memory
+	 * mapped, or zero to read them on demand.
+	 */
+	@Param({ "0", "3" })
+	public int readAhead;
+
+	/**
+	 * The parsed file.
+	 */
+	private Path file;
+
+	/**
+	 * The number of bytes of the parsed file.
+	 */
+	private long bytes;
+
+	/**
+	 * The options which are used to parse the file.
+	 */
+	private PlyReaderOptions options;
+
+	/**
+	 * Writes the mesh.
+	 * 
+	 * @throws IOException
+	 */
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		file = SyntheticFiles.mesh(format, vertices);
+		bytes = Files.size(file);
+		options = new PlyReaderOptions();
+		options.setMemoryMapped(mapped);
+		options.setReadAheadBuffers(readAhead);
+	}
+
+	/**
+	 * Deletes the file.
+	 * 
+	 * @throws IOException
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * Parses the file and passes every value to an indexed handler.
+	 */
+	@Benchmark
+	public void parse(Throughput throughput, Blackhole blackhole)
+			throws IOException {
+		BlackholeHandler handler = new BlackholeHandler(blackhole);
+		PlyReader.parse(file, handler, options);
+		throughput.add(bytes, handler.elements);
+	}
+
+	/**
+	 * Parses the file and passes the elements in blocks to a block handler.
+	 */
+	@Benchmark
+	public void parseBlocks(Throughput throughput, Blackhole blackhole)
+			throws IOException {
+		BlackholeHandler handler = new BlackholeHandler(blackhole, true);
+		PlyReader.parse(file, handler, options);
+		throughput.add(bytes, handler.elements);
+	}
+
+	/**
+	 * Loads the file into a columnar mesh.
+	 */
+	@Benchmark
+	public void load(Throughput throughput, Blackhole blackhole)
+			throws IOException {
+		blackhole.consume(PlyMeshLoader.load(file, options));
+		throughput.add(bytes, 3L * vertices);
+	}
+}
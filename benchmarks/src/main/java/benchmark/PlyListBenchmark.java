@@ -0,0 +1,138 @@
+package benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import util.MappedPlyScanner;
+import util.PlyScanner;
+import core.Format;
+import core.PropertyDefinition;
+import core.datatype.Int32;
+import core.datatype.PlyList;
+import core.datatype.UInt8;
+
+/**
+ * Measures the throughput of {@link PlyList} with the typical face sizes of
+ * triangle and quad meshes. The lists are parsed both as boxed lists and as
+ * properties which are passed to an indexed handler.
+ * 
+ * @author Niels Billen
+ * @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlyListBenchmark {
+	/**
+	 * The number of lists in the parsed file.
+	 */
+	private static final int COUNT = 1000000;
+
+	/**
+	 * The list type of the faces.
+	 */
+	private static final PlyList<Long> FACE = new PlyList<Long>(UInt8.UINT8,
+			Int32.INT32);
+
+	/**
+	 * The number of indices of every list.
+	 */
+	@Param({ "3", "4" })
+	public int size;
+
+	/**
+	 * The format of the parsed file.
+	 */
+	@Param({ "ASCII", "BINARY_LITTLE_ENDIAN", "BINARY_BIG_ENDIAN" })
+	public Format format;
+
+	/**
+	 * The parsed file.
+	 */
+	private Path file;
+
+	/**
+	 * The number of bytes of the parsed file.
+	 */
+	private long bytes;
+
+	/**
+	 * Writes the file with random lists.
+	 * 
+	 * @throws IOException
+	 */
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		file = SyntheticFiles.lists(size, format, COUNT);
+		bytes = Files.size(file);
+	}
+
+	/**
+	 * Deletes the file.
+	 * 
+	 * @throws IOException
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * Parses all the lists of the file as boxed lists.
+	 */
+	@Benchmark
+	public void parse(Throughput throughput, Blackhole blackhole)
+			throws IOException {
+		try (PlyScanner scanner = open()) {
+			for (int i = 0; i < COUNT; ++i)
+				blackhole.consume(FACE.parse(scanner, format));
+		}
+		throughput.add(bytes, COUNT);
+	}
+
+	/**
+	 * Parses all the lists of the file and passes them to an indexed handler.
+	 */
+	@Benchmark
+	public void parseProperty(Throughput throughput, Blackhole blackhole)
+			throws IOException {
+		PropertyDefinition property = new PropertyDefinition(
+				"vertex_indices", FACE);
+		BlackholeHandler handler = new BlackholeHandler(blackhole);
+		try (PlyScanner scanner = open()) {
+			for (int i = 0; i < COUNT; ++i)
+				FACE.parseProperty(scanner, format, property, handler);
+		}
+		throughput.add(bytes, COUNT);
+	}
+
+	/**
+	 * Opens a scanner after the header of the file.
+	 */
+	private PlyScanner open() throws IOException {
+		PlyScanner scanner = new MappedPlyScanner(file);
+		while (!scanner.nextLine().equals("end_header"))
+			;
+		return scanner;
+	}
+}
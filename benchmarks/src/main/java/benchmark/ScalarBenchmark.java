@@ -0,0 +1,106 @@
+package benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import util.MappedPlyScanner;
+import util.PlyScanner;
+import core.Format;
+import core.datatype.Scalar;
+
+/**
+ * Measures the throughput of {@link Scalar#parse(PlyScanner, Format)} for
+ * every scalar type in every format. Every invocation parses all the values
+ * of a synthetic file with a single element of the scalar type.
+ * 
+ * @author Niels Billen
+ * @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScalarBenchmark {
+	/**
+	 * The number of values in the parsed file.
+	 */
+	private static final int COUNT = 1000000;
+
+	/**
+	 * The name of the scalar type.
+	 */
+	@Param({ "int8", "uint8", "int16", "uint16", "int32", "uint32",
+			"float32", "float64" })
+	public String type;
+
+	/**
+	 * The format of the parsed file.
+	 */
+	@Param({ "ASCII", "BINARY_LITTLE_ENDIAN", "BINARY_BIG_ENDIAN" })
+	public Format format;
+
+	/**
+	 * The parsed scalar type.
+	 */
+	private Scalar<?> scalar;
+
+	/**
+	 * The parsed file.
+	 */
+	private Path file;
+
+	/**
+	 * Writes the file with random values.
+	 * 
+	 * @throws IOException
+	 */
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		scalar = Scalar.parseFromString(type);
+		file = SyntheticFiles.values(scalar, format, COUNT);
+	}
+
+	/**
+	 * Deletes the file.
+	 * 
+	 * @throws IOException
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * Parses all the values of the file.
+	 */
+	@Benchmark
+	public void parse(Throughput throughput, Blackhole blackhole)
+			throws IOException {
+		try (PlyScanner scanner = new MappedPlyScanner(file)) {
+			while (!scanner.nextLine().equals("end_header"))
+				;
+			for (int i = 0; i < COUNT; ++i)
+				blackhole.consume(scalar.parse(scanner, format));
+		}
+		throughput.add(Files.size(file), COUNT);
+	}
+}
@@ -0,0 +1,221 @@
+package benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import util.MappedPlyScanner;
+import util.PlyScanner;
+
+/**
+ * Measures the throughput and the allocation of the binary primitive readers
+ * of a {@link PlyScanner}. Every invocation decodes a batch of
+ * {@link #BATCH} values of a file of random bytes with a single reader. The
+ * scanner is opened once per trial and rewound when it reaches the end of the
+ * file, so the allocation rate which "-prof gc" reports per operation is
+ * the allocation of the reader itself, which should be zero.
+ * 
+ * @author Niels Billen
+ * @version 0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScannerBenchmark {
+	/**
+	 * The number of bytes in the decoded file.
+	 */
+	private static final int FILE_SIZE = 16 * 1024 * 1024;
+
+	/**
+	 * The number of values which are decoded by every invocation. The file
+	 * holds a whole number of batches of every type.
+	 */
+	private static final int BATCH = 4096;
+
+	/**
+	 * The byte order of the decoded values.
+	 */
+	@Param({ "little", "big" })
+	public String order;
+
+	/**
+	 * Whether the file is memory mapped or read through a channel.
+	 */
+	@Param({ "true", "false" })
+	public boolean mapped;
+
+	/**
+	 * The decoded file.
+	 */
+	private Path file;
+
+	/**
+	 * The byte order of the decoded values.
+	 */
+	private ByteOrder byteOrder;
+
+	/**
+	 * The scanner of the file.
+	 */
+	private PlyScanner scanner;
+
+	/**
+	 * Writes the file with random bytes and opens the scanner at the start of
+	 * the file.
+	 * 
+	 * @throws IOException
+	 */
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		byteOrder = order.equals("big") ? ByteOrder.BIG_ENDIAN
+				: ByteOrder.LITTLE_ENDIAN;
+		file = Files.createTempFile("plylib-scanner", ".bin");
+		try (OutputStream out = Files.newOutputStream(file)) {
+			byte[] block = new byte[1024 * 1024];
+			new Random(42).nextBytes(block);
+			for (int i = 0; i < FILE_SIZE; i += block.length)
+				out.write(block);
+		}
+		scanner = mapped ? new MappedPlyScanner(file) : new PlyScanner(
+				file.toFile());
+	}
+
+	/**
+	 * Closes the scanner and deletes the file.
+	 * 
+	 * @throws IOException
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		scanner.close();
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * Decodes a batch of signed bytes.
+	 */
+	@Benchmark
+	public void nextByte(Throughput throughput, Blackhole blackhole)
+			throws IOException {
+		rewind();
+		for (int i = 0; i < BATCH; ++i)
+			blackhole.consume(scanner.nextByte());
+		throughput.add(BATCH, BATCH);
+	}
+
+	/**
+	 * Decodes a batch of signed shorts.
+	 */
+	@Benchmark
+	public void nextShort(Throughput throughput, Blackhole blackhole)
+			throws IOException {
+		rewind();
+		for (int i = 0; i < BATCH; ++i)
+			blackhole.consume(scanner.nextShort(byteOrder));
+		throughput.add(2 * BATCH, BATCH);
+	}
+
+	/**
+	 * Decodes a batch of unsigned shorts.
+	 */
+	@Benchmark
+	public void nextUnsignedShort(Throughput throughput, Blackhole blackhole)
+			throws IOException {
+		rewind();
+		for (int i = 0; i < BATCH; ++i)
+			blackhole.consume(scanner.nextUnsignedShort(byteOrder));
+		throughput.add(2 * BATCH, BATCH);
+	}
+
+	/**
+	 * Decodes a batch of signed integers.
+	 */
+	@Benchmark
+	public void nextInteger(Throughput throughput, Blackhole blackhole)
+			throws IOException {
+		rewind();
+		for (int i = 0; i < BATCH; ++i)
+			blackhole.consume(scanner.nextInteger(byteOrder));
+		throughput.add(4 * BATCH, BATCH);
+	}
+
+	/**
+	 * Decodes a batch of unsigned integers.
+	 */
+	@Benchmark
+	public void nextUnsignedInteger(Throughput throughput, Blackhole blackhole)
+			throws IOException {
+		rewind();
+		for (int i = 0; i < BATCH; ++i)
+			blackhole.consume(scanner.nextUnsignedInteger(byteOrder));
+		throughput.add(4 * BATCH, BATCH);
+	}
+
+	/**
+	 * Decodes a batch of signed longs.
+	 */
+	@Benchmark
+	public void nextLong(Throughput throughput, Blackhole blackhole)
+			throws IOException {
+		rewind();
+		for (int i = 0; i < BATCH; ++i)
+			blackhole.consume(scanner.nextLong(byteOrder));
+		throughput.add(8 * BATCH, BATCH);
+	}
+
+	/**
+	 * Decodes a batch of floats.
+	 */
+	@Benchmark
+	public void nextFloat(Throughput throughput, Blackhole blackhole)
+			throws IOException {
+		rewind();
+		for (int i = 0; i < BATCH; ++i)
+			blackhole.consume(scanner.nextFloat(byteOrder));
+		throughput.add(4 * BATCH, BATCH);
+	}
+
+	/**
+	 * Decodes a batch of doubles.
+	 */
+	@Benchmark
+	public void nextDouble(Throughput throughput, Blackhole blackhole)
+			throws IOException {
+		rewind();
+		for (int i = 0; i < BATCH; ++i)
+			blackhole.consume(scanner.nextDouble(byteOrder));
+		throughput.add(8 * BATCH, BATCH);
+	}
+
+	/**
+	 * Moves the scanner back to the start of the file when the whole file
+	 * has been decoded.
+	 */
+	private void rewind() throws IOException {
+		if (scanner.position() == FILE_SIZE)
+			scanner.seek(0);
+	}
+}
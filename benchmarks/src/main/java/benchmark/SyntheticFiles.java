@@ -0,0 +1,175 @@
+package benchmark;
+
+import io.PlyWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import core.ElementDefinition;
+import core.Format;
+import core.PropertyDefinition;
+import core.datatype.Float32;
+import core.datatype.FloatScalar;
+import core.datatype.Int32;
+import core.datatype.IntScalar;
+import core.datatype.PlyList;
+import core.datatype.Scalar;
+import core.datatype.UInt8;
+
+/**
+ * Writes the synthetic PLY Files which are parsed by the benchmarks. The
+ * files are written to temporary files with a fixed seed, so every run
+ * parses the same values.
+ * 
+ * @author Niels Billen
+ * @version 0.1
+ */
+final class SyntheticFiles {
+	/**
+	 * The seed of the random values.
+	 */
+	private static final long SEED = 42;
+
+	/**
+	 * Private because this class only has static methods.
+	 */
+	private SyntheticFiles() {
+	}
+
+	/**
+	 * Writes a file with a single element "value" with the given number of
+	 * occurrences, which has a single property "v" of the given type.
+	 * 
+	 * @param type
+	 *            the type of the values.
+	 * @param format
+	 *            the format of the file.
+	 * @param count
+	 *            the number of values.
+	 * @return the path of the written file.
+	 * @throws IOException
+	 *             when the file could not be written.
+	 */
+	static Path values(Scalar<?> type, Format format, int count)
+			throws IOException {
+		ElementDefinition element = new ElementDefinition("value", count);
+		element.addProperty(new PropertyDefinition("v", type));
+
+		Random random = new Random(SEED);
+		Path path = Files.createTempFile("plylib-values", ".ply");
+		try (PlyWriter writer = open(path, format, element)) {
+			for (int i = 0; i < count; ++i)
+				writeRandom(writer, type, random);
+		}
+		return path;
+	}
+
+	/**
+	 * Writes a file with a single element "face" with the given number of
+	 * occurrences, which has a single property "vertex_indices" with lists of
+	 * the given size.
+	 * 
+	 * @param size
+	 *            the number of indices in every list.
+	 * @param format
+	 *            the format of the file.
+	 * @param count
+	 *            the number of lists.
+	 * @return the path of the written file.
+	 * @throws IOException
+	 *             when the file could not be written.
+	 */
+	static Path lists(int size, Format format, int count) throws IOException {
+		ElementDefinition element = new ElementDefinition("face", count);
+		element.addProperty(new PropertyDefinition("vertex_indices",
+				new PlyList<>(UInt8.UINT8, Int32.INT32)));
+
+		Random random = new Random(SEED);
+		int[] indices = new int[size];
+		Path path = Files.createTempFile("plylib-lists", ".ply");
+		try (PlyWriter writer = open(path, format, element)) {
+			for (int i = 0; i < count; ++i) {
+				for (int j = 0; j < size; ++j)
+					indices[j] = random.nextInt(count);
+				writer.writeList(indices, 0, size);
+			}
+		}
+		return path;
+	}
+
+	/**
+	 * Writes a triangle mesh with the given number of vertices and twice as
+	 * many faces. Every vertex has a position, a normal and a color.
+	 * 
+	 * @param format
+	 *            the format of the file.
+	 * @param vertices
+	 *            the number of vertices.
+	 * @return the path of the written file.
+	 * @throws IOException
+	 *             when the file could not be written.
+	 */
+	static Path mesh(Format format, int vertices) throws IOException {
+		ElementDefinition vertex = new ElementDefinition("vertex", vertices, 0);
+		for (String name : new String[] { "x", "y", "z", "nx", "ny", "nz" })
+			vertex.addProperty(new PropertyDefinition(name, Float32.FLOAT32));
+		for (String name : new String[] { "red", "green", "blue" })
+			vertex.addProperty(new PropertyDefinition(name, UInt8.UINT8));
+		ElementDefinition face = new ElementDefinition("face", 2 * vertices,
+				1);
+		face.addProperty(new PropertyDefinition("vertex_indices",
+				new PlyList<>(UInt8.UINT8, Int32.INT32)));
+
+		Random random = new Random(SEED);
+		int[] indices = new int[3];
+		Path path = Files.createTempFile("plylib-mesh", ".ply");
+		try (PlyWriter writer = new PlyWriter(path, format,
+				Collections.singletonList("synthetic benchmark mesh"),
+				Arrays.asList(vertex, face))) {
+			for (int i = 0; i < vertices; ++i) {
+				for (int j = 0; j < 6; ++j)
+					writer.writeDouble((float) random.nextGaussian());
+				for (int j = 0; j < 3; ++j)
+					writer.writeLong(random.nextInt(256));
+			}
+			for (int i = 0; i < 2 * vertices; ++i) {
+				for (int j = 0; j < 3; ++j)
+					indices[j] = random.nextInt(vertices);
+				writer.writeList(indices, 0, 3);
+			}
+		}
+		return path;
+	}
+
+	/**
+	 * Opens a writer for a file with the given single element.
+	 */
+	private static PlyWriter open(Path path, Format format,
+			ElementDefinition element) throws IOException {
+		List<String> comments = Collections.emptyList();
+		return new PlyWriter(path, format, comments,
+				Collections.singletonList(element));
+	}
+
+	/**
+	 * Writes a random value of the given type.
+	 */
+	private static void writeRandom(PlyWriter writer, Scalar<?> type,
+			Random random) throws IOException {
+		if (type instanceof FloatScalar) {
+			double value = random.nextGaussian() * 1000;
+			writer.writeDouble(type == Float32.FLOAT32 ? (float) value : value);
+		} else {
+			IntScalar intType = (IntScalar) type;
+			long minimum = intType.getMinimumValue();
+			long maximum = intType.getMaximumValue();
+			writer.writeLong(minimum
+					+ (long) (random.nextDouble() * (maximum - minimum)));
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Counters of the amount of data which is processed by a benchmark. JMH
+ * reports them as rates next to the score: megabytes per second and elements
+ * per second.
+ * 
+ * @author Niels Billen
+ * @version 0.1
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class Throughput {
+	/**
+	 * The number of megabytes which were processed.
+	 */
+	public double megabytes;
+
+	/**
+	 * The number of elements which were processed.
+	 */
+	public long elements;
+
+	/**
+	 * Resets the counters before every iteration.
+	 */
+	@Setup(Level.Iteration)
+	public void reset() {
+		megabytes = 0;
+		elements = 0;
+	}
+
+	/**
+	 * Adds the given amount of processed data.
+	 * 
+	 * @param bytes
+	 *            the number of processed bytes.
+	 * @param count
+	 *            the number of processed elements.
+	 */
+	void add(long bytes, long count) {
+		megabytes += bytes / (1024.0 * 1024.0);
+		elements += count;
+	}
+}
@@ -6,6 +6,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import core.datatype.Scalar;
+
 /**
  * An {@link ElementDefinition} of a PLY file.
  * 
@@ -23,6 +25,12 @@ public class ElementDefinition implements Iterable<PropertyDefinition> {
 	 */
 	private final int count;
 
+	/**
+	 * The id of this {@link ElementDefinition}, which is its index in the
+	 * header of the PLY file.
+	 */
+	private final int id;
+
 	/**
 	 * The properties of this {@link ElementDefinition}.
 	 */
@@ -37,6 +45,12 @@ public class ElementDefinition implements Iterable<PropertyDefinition> {
 	 * Creates a new {@link ElementDefinition} with the given name. The {@link ElementDefinition}
 	 * will appear the given amount of times inside the PLY file.
 	 * 
+	 * The id of the {@link ElementDefinition} is zero. The id is only used by
+	 * the {@link io.PlyIndexedHandler}s and the columns of a loaded mesh, so
+	 * definitions which are used as such should be created with their index
+	 * in the header as id. The {@link io.PlyWriter} and
+	 * {@link io.PlyGenerator} identify the elements by their position instead.
+	 * 
 	 * @param name
 	 *            the name of this {@link ElementDefinition}.
 	 * @param count
@@ -48,13 +62,39 @@ public class ElementDefinition implements Iterable<PropertyDefinition> {
 	 */
 	public ElementDefinition(String name, int count) throws NullPointerException,
 			IllegalArgumentException {
+		this(name, count, 0);
+	}
+
+	/**
+	 * Creates a new {@link ElementDefinition} with the given name and id. The
+	 * {@link ElementDefinition} will appear the given amount of times inside
+	 * the PLY file.
+	 * 
+	 * @param name
+	 *            the name of this {@link ElementDefinition}.
+	 * @param count
+	 *            the number of times it appears in the PLY file.
+	 * @param id
+	 *            the id of this {@link ElementDefinition}, which is its index
+	 *            in the header of the PLY file.
+	 * @throws NullPointerException
+	 *             when the given name is null.
+	 * @throws IllegalArgumentException
+	 *             when the given count or id is less than zero.
+	 */
+	public ElementDefinition(String name, int count, int id)
+			throws NullPointerException, IllegalArgumentException {
 		if (name == null)
 			throw new NullPointerException("the name cannot be null!");
 		if (count < 0)
 			throw new IllegalArgumentException(
 					"the count cannot be smaller than zero!");
+		if (id < 0)
+			throw new IllegalArgumentException(
+					"the id cannot be smaller than zero!");
 		this.name = name;
 		this.count = count;
+		this.id = id;
 	}
 
 	/**
@@ -76,8 +116,21 @@ public class ElementDefinition implements Iterable<PropertyDefinition> {
 		return count;
 	}
 
+	/**
+	 * Returns the id of this {@link ElementDefinition}, which is its index in
+	 * the header of the PLY file.
+	 * 
+	 * @return the id of this {@link ElementDefinition}.
+	 */
+	public int getId() {
+		return id;
+	}
+
 	/**
 	 * Adds the given {@link PropertyDefinition} to this {@link ElementDefinition}.
+	 * The {@link PropertyDefinition} is assigned the id of this
+	 * {@link ElementDefinition} and its index within this
+	 * {@link ElementDefinition} as id.
 	 * 
 	 * @param property
 	 *            the {@link PropertyDefinition} to add to this {@link ElementDefinition}.
@@ -96,6 +149,7 @@ public class ElementDefinition implements Iterable<PropertyDefinition> {
 		if (propertyMap.containsKey(name))
 			throw new IllegalArgumentException(
 					"cannot add properties with the same name!");
+		property.setIds(id, properties.size());
 		properties.add(property);
 		propertyMap.put(property.getName(), property);
 	}
@@ -109,10 +163,30 @@ public class ElementDefinition implements Iterable<PropertyDefinition> {
 		return properties.size();
 	}
 
+	/**
+	 * Returns the number of bytes of a single occurrence of this
+	 * {@link ElementDefinition} in a binary PLY file, or -1 when the size
+	 * varies because one of the properties is a list.
+	 * 
+	 * @return the number of bytes of a single occurrence of this
+	 *         {@link ElementDefinition} or -1 when the size varies.
+	 */
+	public int nbOfBytes() {
+		int result = 0;
+		for (PropertyDefinition property : properties) {
+			if (!(property.getDataType() instanceof Scalar))
+				return -1;
+			result += ((Scalar<?>) property.getDataType()).nbOfBytes();
+		}
+		return result;
+	}
+
 	/**
 	 * Removes the given {@link PropertyDefinition} from this {@link ElementDefinition}. Nothing
 	 * happens when the given {@link PropertyDefinition} is null or when the given
 	 * {@link PropertyDefinition} is not contained within this {@link ElementDefinition}.
+	 * The properties after the removed {@link PropertyDefinition} are
+	 * renumbered, so the id of every property remains its index.
 	 * 
 	 * @param property
 	 *            the {@link PropertyDefinition} to remove.
@@ -120,8 +194,12 @@ public class ElementDefinition implements Iterable<PropertyDefinition> {
 	public void removeProperty(PropertyDefinition property) {
 		if (property == null)
 			return;
-		if (propertyMap.remove(property) != null)
-			properties.remove(property);
+		PropertyDefinition removed = propertyMap.remove(property.getName());
+		if (removed == null)
+			return;
+		properties.remove(removed);
+		for (int i = removed.getId(); i < properties.size(); ++i)
+			properties.get(i).setIds(id, i);
 	}
 
 	/**
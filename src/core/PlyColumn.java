@@ -0,0 +1,743 @@
+package core;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import core.datatype.FloatScalar;
+import core.datatype.IntScalar;
+import core.datatype.Scalar;
+import util.PlyArena;
+
+/**
+ * A column with the values of a scalar property for every occurrence of an
+ * {@link ElementDefinition}, stored in a primitive array of the declared type
+ * of the property.
+ *
+ * The values of <code>int8</code> and <code>uint8</code> properties are
+ * stored in a <code>byte[]</code>, the values of <code>int16</code> and
+ * <code>uint16</code> properties in a <code>short[]</code>, the values of
+ * <code>int32</code> and <code>uint32</code> properties in an
+ * <code>int[]</code>, the values of <code>float32</code> properties in a
+ * <code>float[]</code> and the values of <code>float64</code> properties in a
+ * <code>double[]</code>. The unsigned types are stored with the same bits as
+ * in a binary PLY file, so their values have to be masked when they are read
+ * from the array directly. The {@link #getLong(int)} method does this.
+ *
+ * A column can also be stored in a {@link ByteBuffer}, for example a direct
+ * buffer outside the Java heap. The values are then stored in native byte
+ * order at a fixed stride from an offset, so the columns of an element can
+ * share a single buffer in which the occurrences are interleaved. When the
+ * buffer was allocated by a {@link PlyArena}, the values cannot be accessed
+ * anymore once the arena has been closed.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class PlyColumn {
+	/**
+	 * The kinds of arrays in which the values are stored.
+	 */
+	private static final int BYTE = 0;
+	private static final int SHORT = 1;
+	private static final int INT = 2;
+	private static final int FLOAT = 3;
+	private static final int DOUBLE = 4;
+
+	/**
+	 * The offset which is added to the kind of the values when they are
+	 * stored in a buffer instead of an array.
+	 */
+	private static final int BUFFER = 5;
+
+	/**
+	 * The type of the values in this column.
+	 */
+	private final Scalar<?> type;
+
+	/**
+	 * The kind of array in which the values are stored, plus {@link #BUFFER}
+	 * when they are stored in a buffer.
+	 */
+	private final int kind;
+
+	/**
+	 * Whether the values are unsigned integers.
+	 */
+	private final boolean unsigned;
+
+	/**
+	 * The primitive array which holds the values, or <code>null</code> when
+	 * the values are stored in a buffer.
+	 */
+	private final Object array;
+
+	/**
+	 * The buffer which holds the values, or <code>null</code> when the values
+	 * are stored in an array.
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * The index in the buffer of the first value.
+	 */
+	private final int offset;
+
+	/**
+	 * The number of bytes between two consecutive values in the buffer.
+	 */
+	private final int stride;
+
+	/**
+	 * The number of values in this column.
+	 */
+	private final int size;
+
+	/**
+	 * The arena which allocated the buffer, or <code>null</code> when the
+	 * memory of the values is not released explicitly.
+	 */
+	private final PlyArena arena;
+
+	/**
+	 * Creates a new {@link PlyColumn} for the given number of values of the
+	 * given type. All the values are zero.
+	 *
+	 * @param type
+	 *            the type of the values.
+	 * @param size
+	 *            the number of values.
+	 * @throws NullPointerException
+	 *             when the given type is null.
+	 * @throws IllegalArgumentException
+	 *             when the given size is smaller than zero.
+	 */
+	public PlyColumn(Scalar<?> type, int size) throws NullPointerException,
+			IllegalArgumentException {
+		this(type, allocate(type, size));
+	}
+
+	/**
+	 * Creates a new {@link PlyColumn} with the values of the given type in the
+	 * given array. The array is not copied.
+	 *
+	 * @param type
+	 *            the type of the values.
+	 * @param array
+	 *            the primitive array which holds the values.
+	 * @throws NullPointerException
+	 *             when the given type or array is null.
+	 * @throws IllegalArgumentException
+	 *             when the array does not match the type.
+	 */
+	public PlyColumn(Scalar<?> type, Object array)
+			throws NullPointerException, IllegalArgumentException {
+		if (type == null)
+			throw new NullPointerException("the type cannot be null!");
+		if (array == null)
+			throw new NullPointerException("the array cannot be null!");
+		this.type = type;
+		this.kind = kindOf(type);
+		this.unsigned = type instanceof IntScalar
+				&& ((IntScalar) type).getMinimumValue() == 0;
+		this.array = array;
+		this.buffer = null;
+		this.offset = 0;
+		this.stride = type.nbOfBytes();
+		this.arena = null;
+
+		switch (kind) {
+		case BYTE:
+			size = checkArray(array, byte[].class).length;
+			break;
+		case SHORT:
+			size = checkArray(array, short[].class).length;
+			break;
+		case INT:
+			size = checkArray(array, int[].class).length;
+			break;
+		case FLOAT:
+			size = checkArray(array, float[].class).length;
+			break;
+		default:
+			size = checkArray(array, double[].class).length;
+		}
+	}
+
+	/**
+	 * Creates a new {@link PlyColumn} with the values of the given type in the
+	 * given buffer. The values are stored in native byte order, the first one
+	 * at the given offset and the next ones at the given stride. The buffer
+	 * is not copied.
+	 *
+	 * @param type
+	 *            the type of the values.
+	 * @param buffer
+	 *            the buffer which holds the values.
+	 * @param offset
+	 *            the index in the buffer of the first value.
+	 * @param stride
+	 *            the number of bytes between two consecutive values.
+	 * @param size
+	 *            the number of values.
+	 * @throws NullPointerException
+	 *             when the given type or buffer is null.
+	 * @throws IllegalArgumentException
+	 *             when the values do not fit in the buffer or when the stride
+	 *             is smaller than the size of a value.
+	 */
+	public PlyColumn(Scalar<?> type, ByteBuffer buffer, int offset,
+			int stride, int size) throws NullPointerException,
+			IllegalArgumentException {
+		this(type, buffer, offset, stride, size, null);
+	}
+
+	/**
+	 * Creates a new {@link PlyColumn} with the values of the given type in the
+	 * given buffer, which was allocated by the given arena. The values are
+	 * stored in native byte order, the first one at the given offset and the
+	 * next ones at the given stride. The buffer is not copied. The values
+	 * cannot be accessed anymore once the arena has been closed.
+	 *
+	 * @param type
+	 *            the type of the values.
+	 * @param buffer
+	 *            the buffer which holds the values.
+	 * @param offset
+	 *            the index in the buffer of the first value.
+	 * @param stride
+	 *            the number of bytes between two consecutive values.
+	 * @param size
+	 *            the number of values.
+	 * @param arena
+	 *            the arena which allocated the buffer, or <code>null</code>.
+	 * @throws NullPointerException
+	 *             when the given type or buffer is null.
+	 * @throws IllegalArgumentException
+	 *             when the values do not fit in the buffer or when the stride
+	 *             is smaller than the size of a value.
+	 */
+	public PlyColumn(Scalar<?> type, ByteBuffer buffer, int offset,
+			int stride, int size, PlyArena arena)
+			throws NullPointerException, IllegalArgumentException {
+		if (type == null)
+			throw new NullPointerException("the type cannot be null!");
+		if (buffer == null)
+			throw new NullPointerException("the buffer cannot be null!");
+		if (stride < type.nbOfBytes())
+			throw new IllegalArgumentException("the stride of a "
+					+ type.toPLY() + " column must be at least "
+					+ type.nbOfBytes() + "!");
+		if (offset < 0
+				|| size < 0
+				|| (size > 0 && offset + (long) (size - 1) * stride
+						+ type.nbOfBytes() > buffer.capacity()))
+			throw new IllegalArgumentException(size
+					+ " values do not fit in the buffer!");
+		this.type = type;
+		this.kind = kindOf(type) + BUFFER;
+		this.unsigned = type instanceof IntScalar
+				&& ((IntScalar) type).getMinimumValue() == 0;
+		this.array = null;
+		this.buffer = buffer.duplicate().order(ByteOrder.nativeOrder());
+		this.offset = offset;
+		this.stride = stride;
+		this.size = size;
+		this.arena = arena;
+	}
+
+	/**
+	 * Returns the type of the values in this column.
+	 *
+	 * @return the type of the values in this column.
+	 */
+	public Scalar<?> getType() {
+		return type;
+	}
+
+	/**
+	 * Returns the number of values in this column.
+	 *
+	 * @return the number of values in this column.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of bytes occupied by the values in this column.
+	 *
+	 * @return the number of bytes occupied by the values in this column.
+	 */
+	public long nbOfBytes() {
+		return (long) size * type.nbOfBytes();
+	}
+
+	/**
+	 * Returns the primitive array which holds the values of this column. The
+	 * array is not copied.
+	 *
+	 * @return the primitive array which holds the values of this column, or
+	 *         <code>null</code> when the values are stored in a buffer.
+	 */
+	public Object getArray() {
+		return array;
+	}
+
+	/**
+	 * Returns the buffer which holds the values of this column. The values are
+	 * stored in native byte order from {@link #getOffset()} at
+	 * {@link #getStride()}. The buffer is not copied.
+	 *
+	 * When the buffer was allocated by a {@link PlyArena}, it must not be
+	 * used anymore once the arena has been closed.
+	 *
+	 * @return the buffer which holds the values of this column, or
+	 *         <code>null</code> when the values are stored in an array.
+	 * @throws IllegalStateException
+	 *             when the arena of the buffer has been closed.
+	 */
+	public ByteBuffer getBuffer() throws IllegalStateException {
+		checkOpen();
+		return buffer;
+	}
+
+	/**
+	 * Returns the index in the buffer of the first value of this column.
+	 *
+	 * @return the index in the buffer of the first value.
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * Returns the number of bytes between two consecutive values in the buffer
+	 * of this column.
+	 *
+	 * @return the number of bytes between two consecutive values.
+	 */
+	public int getStride() {
+		return stride;
+	}
+
+	/**
+	 * Returns the array of an <code>int8</code> or <code>uint8</code> column.
+	 *
+	 * @return the array which holds the values of this column.
+	 * @throws IllegalStateException
+	 *             when the values are not stored in a <code>byte[]</code>.
+	 */
+	public byte[] getByteArray() throws IllegalStateException {
+		return checkKind(BYTE, byte[].class);
+	}
+
+	/**
+	 * Returns the array of an <code>int16</code> or <code>uint16</code>
+	 * column.
+	 *
+	 * @return the array which holds the values of this column.
+	 * @throws IllegalStateException
+	 *             when the values are not stored in a <code>short[]</code>.
+	 */
+	public short[] getShortArray() throws IllegalStateException {
+		return checkKind(SHORT, short[].class);
+	}
+
+	/**
+	 * Returns the array of an <code>int32</code> or <code>uint32</code>
+	 * column.
+	 *
+	 * @return the array which holds the values of this column.
+	 * @throws IllegalStateException
+	 *             when the values are not stored in an <code>int[]</code>.
+	 */
+	public int[] getIntArray() throws IllegalStateException {
+		return checkKind(INT, int[].class);
+	}
+
+	/**
+	 * Returns the array of a <code>float32</code> column.
+	 *
+	 * @return the array which holds the values of this column.
+	 * @throws IllegalStateException
+	 *             when the values are not stored in a <code>float[]</code>.
+	 */
+	public float[] getFloatArray() throws IllegalStateException {
+		return checkKind(FLOAT, float[].class);
+	}
+
+	/**
+	 * Returns the array of a <code>float64</code> column.
+	 *
+	 * @return the array which holds the values of this column.
+	 * @throws IllegalStateException
+	 *             when the values are not stored in a <code>double[]</code>.
+	 */
+	public double[] getDoubleArray() throws IllegalStateException {
+		return checkKind(DOUBLE, double[].class);
+	}
+
+	/**
+	 * Returns the value at the given index as a long. Unsigned values are
+	 * returned without sign extension and floating point values are
+	 * truncated.
+	 *
+	 * @param index
+	 *            the index of the value.
+	 * @return the value at the given index as a long.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             when the index is out of range.
+	 */
+	public long getLong(int index) throws ArrayIndexOutOfBoundsException {
+		switch (kind) {
+		case BYTE:
+			byte b = ((byte[]) array)[index];
+			return unsigned ? b & 0xff : b;
+		case SHORT:
+			short s = ((short[]) array)[index];
+			return unsigned ? s & 0xffff : s;
+		case INT:
+			int i = ((int[]) array)[index];
+			return unsigned ? i & 0xffffffffL : i;
+		case FLOAT:
+			return (long) ((float[]) array)[index];
+		case DOUBLE:
+			return (long) ((double[]) array)[index];
+		case BYTE + BUFFER:
+			b = buffer.get(position(index));
+			return unsigned ? b & 0xff : b;
+		case SHORT + BUFFER:
+			s = buffer.getShort(position(index));
+			return unsigned ? s & 0xffff : s;
+		case INT + BUFFER:
+			i = buffer.getInt(position(index));
+			return unsigned ? i & 0xffffffffL : i;
+		case FLOAT + BUFFER:
+			return (long) buffer.getFloat(position(index));
+		default:
+			return (long) buffer.getDouble(position(index));
+		}
+	}
+
+	/**
+	 * Returns the value at the given index as a double.
+	 *
+	 * @param index
+	 *            the index of the value.
+	 * @return the value at the given index as a double.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             when the index is out of range.
+	 */
+	public double getDouble(int index) throws ArrayIndexOutOfBoundsException {
+		switch (kind) {
+		case FLOAT:
+			return ((float[]) array)[index];
+		case DOUBLE:
+			return ((double[]) array)[index];
+		case FLOAT + BUFFER:
+			return buffer.getFloat(position(index));
+		case DOUBLE + BUFFER:
+			return buffer.getDouble(position(index));
+		default:
+			return getLong(index);
+		}
+	}
+
+	/**
+	 * Sets the value at the given index. The value is narrowed to the type of
+	 * this column without a range check.
+	 *
+	 * @param index
+	 *            the index of the value.
+	 * @param value
+	 *            the new value.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             when the index is out of range.
+	 */
+	public void setLong(int index, long value)
+			throws ArrayIndexOutOfBoundsException {
+		switch (kind) {
+		case BYTE:
+			((byte[]) array)[index] = (byte) value;
+			break;
+		case SHORT:
+			((short[]) array)[index] = (short) value;
+			break;
+		case INT:
+			((int[]) array)[index] = (int) value;
+			break;
+		case FLOAT:
+			((float[]) array)[index] = value;
+			break;
+		case DOUBLE:
+			((double[]) array)[index] = value;
+			break;
+		case BYTE + BUFFER:
+			buffer.put(position(index), (byte) value);
+			break;
+		case SHORT + BUFFER:
+			buffer.putShort(position(index), (short) value);
+			break;
+		case INT + BUFFER:
+			buffer.putInt(position(index), (int) value);
+			break;
+		case FLOAT + BUFFER:
+			buffer.putFloat(position(index), value);
+			break;
+		default:
+			buffer.putDouble(position(index), value);
+		}
+	}
+
+	/**
+	 * Sets the value at the given index. The value is narrowed to the type of
+	 * this column without a range check.
+	 *
+	 * @param index
+	 *            the index of the value.
+	 * @param value
+	 *            the new value.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             when the index is out of range.
+	 */
+	public void setDouble(int index, double value)
+			throws ArrayIndexOutOfBoundsException {
+		switch (kind) {
+		case FLOAT:
+			((float[]) array)[index] = (float) value;
+			break;
+		case DOUBLE:
+			((double[]) array)[index] = value;
+			break;
+		case FLOAT + BUFFER:
+			buffer.putFloat(position(index), (float) value);
+			break;
+		case DOUBLE + BUFFER:
+			buffer.putDouble(position(index), value);
+			break;
+		default:
+			setLong(index, (long) value);
+		}
+	}
+
+	/**
+	 * Copies the given number of values, starting at the given index, to the
+	 * given column. The values are copied in bulk when both columns are
+	 * stored in arrays or when the values of the target are stored next to
+	 * each other in a buffer.
+	 *
+	 * @param from
+	 *            the index of the first value to copy.
+	 * @param target
+	 *            the column to copy the values to.
+	 * @param to
+	 *            the index in the target column of the first copied value.
+	 * @param length
+	 *            the number of values to copy.
+	 * @throws IllegalArgumentException
+	 *             when the target column stores a different kind of values.
+	 * @throws IndexOutOfBoundsException
+	 *             when a range is out of bounds.
+	 */
+	public void copyTo(int from, PlyColumn target, int to, int length)
+			throws IllegalArgumentException, IndexOutOfBoundsException {
+		if (target.kind % BUFFER != kind % BUFFER)
+			throw new IllegalArgumentException("cannot copy " + type.toPLY()
+					+ " values to a " + target.type.toPLY() + " column!");
+		if (from < 0 || to < 0 || length < 0 || from + length > size
+				|| to + length > target.size)
+			throw new IndexOutOfBoundsException("cannot copy " + length
+					+ " values from index " + from + " to index " + to + "!");
+
+		if (array != null && target.array != null)
+			System.arraycopy(array, from, target.array, to, length);
+		else if (array != null && target.stride == type.nbOfBytes()) {
+			ByteBuffer view = target.getBuffer().duplicate().order(
+					ByteOrder.nativeOrder());
+			view.position(target.offset + to * target.stride);
+			switch (kind) {
+			case BYTE:
+				view.put((byte[]) array, from, length);
+				break;
+			case SHORT:
+				view.asShortBuffer().put((short[]) array, from, length);
+				break;
+			case INT:
+				view.asIntBuffer().put((int[]) array, from, length);
+				break;
+			case FLOAT:
+				view.asFloatBuffer().put((float[]) array, from, length);
+				break;
+			default:
+				view.asDoubleBuffer().put((double[]) array, from, length);
+			}
+		} else if (kind % BUFFER == FLOAT || kind % BUFFER == DOUBLE) {
+			for (int i = 0; i < length; ++i)
+				target.setDouble(to + i, getDouble(from + i));
+		} else {
+			for (int i = 0; i < length; ++i)
+				target.setLong(to + i, getLong(from + i));
+		}
+	}
+
+	/**
+	 * Returns a copy of this column with the given size, which is truncated
+	 * or padded with zeros. The copy is always stored in an array.
+	 *
+	 * @param size
+	 *            the size of the copy.
+	 * @return a copy of this column with the given size.
+	 * @throws IllegalArgumentException
+	 *             when the given size is smaller than zero.
+	 */
+	public PlyColumn copyOf(int size) throws IllegalArgumentException {
+		if (size < 0)
+			throw new IllegalArgumentException(
+					"the size cannot be smaller than zero!");
+		if (array == null) {
+			PlyColumn copy = new PlyColumn(type, size);
+			copyTo(0, copy, 0, Math.min(size, this.size));
+			return copy;
+		}
+		switch (kind) {
+		case BYTE:
+			return new PlyColumn(type, Arrays.copyOf((byte[]) array, size));
+		case SHORT:
+			return new PlyColumn(type, Arrays.copyOf((short[]) array, size));
+		case INT:
+			return new PlyColumn(type, Arrays.copyOf((int[]) array, size));
+		case FLOAT:
+			return new PlyColumn(type, Arrays.copyOf((float[]) array, size));
+		default:
+			return new PlyColumn(type, Arrays.copyOf((double[]) array, size));
+		}
+	}
+
+	/**
+	 * Returns the index in the buffer of the value at the given index.
+	 *
+	 * @param index
+	 *            the index of the value.
+	 * @return the index in the buffer of the value.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             when the index is out of range.
+	 * @throws IllegalStateException
+	 *             when the arena of the buffer has been closed.
+	 */
+	private int position(int index) throws ArrayIndexOutOfBoundsException,
+			IllegalStateException {
+		if (index < 0 || index >= size)
+			throw new ArrayIndexOutOfBoundsException(index);
+		checkOpen();
+		return offset + index * stride;
+	}
+
+	/**
+	 * Checks that the memory of the buffer has not been released by its
+	 * arena.
+	 *
+	 * @throws IllegalStateException
+	 *             when the arena of the buffer has been closed.
+	 */
+	private void checkOpen() throws IllegalStateException {
+		if (arena != null && arena.isClosed())
+			throw new IllegalStateException("the arena of the "
+					+ type.toPLY() + " column has been closed!");
+	}
+
+	/**
+	 * Allocates a primitive array for the given number of values of the given
+	 * type.
+	 *
+	 * @param type
+	 *            the type of the values.
+	 * @param size
+	 *            the number of values.
+	 * @return a primitive array for the given number of values.
+	 * @throws NullPointerException
+	 *             when the given type is null.
+	 * @throws IllegalArgumentException
+	 *             when the given size is smaller than zero.
+	 */
+	private static Object allocate(Scalar<?> type, int size)
+			throws NullPointerException, IllegalArgumentException {
+		if (type == null)
+			throw new NullPointerException("the type cannot be null!");
+		if (size < 0)
+			throw new IllegalArgumentException(
+					"the size cannot be smaller than zero!");
+		switch (kindOf(type)) {
+		case BYTE:
+			return new byte[size];
+		case SHORT:
+			return new short[size];
+		case INT:
+			return new int[size];
+		case FLOAT:
+			return new float[size];
+		default:
+			return new double[size];
+		}
+	}
+
+	/**
+	 * Returns the kind of array in which values of the given type are stored.
+	 *
+	 * @param type
+	 *            the type of the values.
+	 * @return the kind of array in which values of the given type are stored.
+	 */
+	private static int kindOf(Scalar<?> type) {
+		switch (type.nbOfBytes()) {
+		case 1:
+			return BYTE;
+		case 2:
+			return SHORT;
+		case 4:
+			return type instanceof FloatScalar ? FLOAT : INT;
+		default:
+			return DOUBLE;
+		}
+	}
+
+	/**
+	 * Casts the given array to the given array class.
+	 *
+	 * @param array
+	 *            the array to cast.
+	 * @param arrayClass
+	 *            the expected class of the array.
+	 * @return the given array.
+	 * @throws IllegalArgumentException
+	 *             when the array is not of the given class.
+	 */
+	private <A> A checkArray(Object array, Class<A> arrayClass)
+			throws IllegalArgumentException {
+		if (!arrayClass.isInstance(array))
+			throw new IllegalArgumentException("the values of a "
+					+ type.toPLY() + " column must be stored in a "
+					+ arrayClass.getSimpleName() + "!");
+		return arrayClass.cast(array);
+	}
+
+	/**
+	 * Returns the array of this column when it is of the given kind.
+	 *
+	 * @param kind
+	 *            the expected kind of array.
+	 * @param arrayClass
+	 *            the class of the expected kind of array.
+	 * @return the array of this column.
+	 * @throws IllegalStateException
+	 *             when the values are stored in a different kind of array.
+	 */
+	private <A> A checkKind(int kind, Class<A> arrayClass)
+			throws IllegalStateException {
+		if (this.kind != kind)
+			throw new IllegalStateException("the values of a " + type.toPLY()
+					+ " column are not stored in a "
+					+ arrayClass.getSimpleName() + "!");
+		return arrayClass.cast(array);
+	}
+}
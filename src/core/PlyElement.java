@@ -0,0 +1,168 @@
+package core;
+
+/**
+ * The values of all the occurrences of an {@link ElementDefinition}, stored
+ * column by column. Every scalar property has a {@link PlyColumn} and every
+ * list property has a {@link PlyListColumn}.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class PlyElement {
+	/**
+	 * The definition of this element.
+	 */
+	private final ElementDefinition definition;
+
+	/**
+	 * The column of every scalar property, or <code>null</code> for the list
+	 * properties.
+	 */
+	private final PlyColumn[] columns;
+
+	/**
+	 * The column of every list property, or <code>null</code> for the scalar
+	 * properties.
+	 */
+	private final PlyListColumn[] listColumns;
+
+	/**
+	 * Creates a new {@link PlyElement} with the given columns. The column of
+	 * every property is stored at the index of the property in the
+	 * {@link ElementDefinition}. The arrays are not copied.
+	 *
+	 * @param definition
+	 *            the definition of the element.
+	 * @param columns
+	 *            the column of every scalar property, or <code>null</code>
+	 *            for the list properties.
+	 * @param listColumns
+	 *            the column of every list property, or <code>null</code> for
+	 *            the scalar properties.
+	 * @throws NullPointerException
+	 *             when one of the arguments is null.
+	 * @throws IllegalArgumentException
+	 *             when the number of columns does not match the number of
+	 *             properties.
+	 */
+	public PlyElement(ElementDefinition definition, PlyColumn[] columns,
+			PlyListColumn[] listColumns) throws NullPointerException,
+			IllegalArgumentException {
+		if (definition == null)
+			throw new NullPointerException("the definition cannot be null!");
+		if (columns == null || listColumns == null)
+			throw new NullPointerException("the columns cannot be null!");
+		if (columns.length != definition.nbOfProperties()
+				|| listColumns.length != definition.nbOfProperties())
+			throw new IllegalArgumentException(
+					"there must be a column for every property!");
+		this.definition = definition;
+		this.columns = columns;
+		this.listColumns = listColumns;
+	}
+
+	/**
+	 * Returns the definition of this element.
+	 *
+	 * @return the definition of this element.
+	 */
+	public ElementDefinition getDefinition() {
+		return definition;
+	}
+
+	/**
+	 * Returns the name of this element.
+	 *
+	 * @return the name of this element.
+	 */
+	public String getName() {
+		return definition.getName();
+	}
+
+	/**
+	 * Returns the number of occurrences of this element.
+	 *
+	 * @return the number of occurrences of this element.
+	 */
+	public int getCount() {
+		return definition.getCount();
+	}
+
+	/**
+	 * Returns the column of the scalar property at the given index.
+	 *
+	 * @param index
+	 *            the index of the property.
+	 * @return the column of the property, or <code>null</code> when the
+	 *         property is a list.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             when the index is out of range.
+	 */
+	public PlyColumn getColumn(int index)
+			throws ArrayIndexOutOfBoundsException {
+		return columns[index];
+	}
+
+	/**
+	 * Returns the column of the scalar property with the given name.
+	 *
+	 * @param name
+	 *            the name of the property.
+	 * @return the column of the property, or <code>null</code> when there is
+	 *         no such property or when the property is a list.
+	 */
+	public PlyColumn getColumn(String name) {
+		PlyColumn column = null;
+		PropertyDefinition property = definition.getProperty(name);
+		if (property != null)
+			column = columns[property.getId()];
+		return column;
+	}
+
+	/**
+	 * Returns the column of the list property at the given index.
+	 *
+	 * @param index
+	 *            the index of the property.
+	 * @return the column of the property, or <code>null</code> when the
+	 *         property is a scalar.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             when the index is out of range.
+	 */
+	public PlyListColumn getListColumn(int index)
+			throws ArrayIndexOutOfBoundsException {
+		return listColumns[index];
+	}
+
+	/**
+	 * Returns the column of the list property with the given name.
+	 *
+	 * @param name
+	 *            the name of the property.
+	 * @return the column of the property, or <code>null</code> when there is
+	 *         no such property or when the property is a scalar.
+	 */
+	public PlyListColumn getListColumn(String name) {
+		PlyListColumn column = null;
+		PropertyDefinition property = definition.getProperty(name);
+		if (property != null)
+			column = listColumns[property.getId()];
+		return column;
+	}
+
+	/**
+	 * Returns the number of bytes occupied by the columns of this element.
+	 *
+	 * @return the number of bytes occupied by the columns of this element.
+	 */
+	public long nbOfBytes() {
+		long result = 0;
+		for (int i = 0; i < columns.length; ++i) {
+			if (columns[i] != null)
+				result += columns[i].nbOfBytes();
+			if (listColumns[i] != null)
+				result += listColumns[i].nbOfBytes();
+		}
+		return result;
+	}
+}
@@ -0,0 +1,149 @@
+package core;
+
+import core.datatype.PlyList;
+
+/**
+ * A column with the values of a list property for every occurrence of an
+ * {@link ElementDefinition}, stored in compressed sparse row form.
+ *
+ * The values of all the lists are stored one after the other in a single
+ * {@link PlyColumn}. The list of occurrence <code>i</code> consists of the
+ * values from index <code>offsets[i]</code> up to, but not including, index
+ * <code>offsets[i + 1]</code>, so the offsets array has one entry more than
+ * the number of occurrences.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class PlyListColumn {
+	/**
+	 * The type of the lists in this column.
+	 */
+	private final PlyList<?> type;
+
+	/**
+	 * The index of the first value of every list, followed by the total number
+	 * of values.
+	 */
+	private final int[] offsets;
+
+	/**
+	 * The values of all the lists.
+	 */
+	private final PlyColumn values;
+
+	/**
+	 * Creates a new {@link PlyListColumn} with the given offsets and values.
+	 * The arrays are not copied.
+	 *
+	 * @param type
+	 *            the type of the lists.
+	 * @param offsets
+	 *            the index of the first value of every list, followed by the
+	 *            total number of values.
+	 * @param values
+	 *            the values of all the lists.
+	 * @throws NullPointerException
+	 *             when one of the arguments is null.
+	 * @throws IllegalArgumentException
+	 *             when the offsets array is empty or when the values do not
+	 *             match the type or the offsets.
+	 */
+	public PlyListColumn(PlyList<?> type, int[] offsets, PlyColumn values)
+			throws NullPointerException, IllegalArgumentException {
+		if (type == null)
+			throw new NullPointerException("the type cannot be null!");
+		if (offsets == null)
+			throw new NullPointerException("the offsets cannot be null!");
+		if (values == null)
+			throw new NullPointerException("the values cannot be null!");
+		if (offsets.length == 0)
+			throw new IllegalArgumentException(
+					"the offsets must end with the number of values!");
+		if (values.getType() != type.getDataType())
+			throw new IllegalArgumentException("the values of a "
+					+ type.toPLY() + " column cannot have type "
+					+ values.getType().toPLY() + "!");
+		if (offsets[offsets.length - 1] != values.size())
+			throw new IllegalArgumentException("the offsets end at "
+					+ offsets[offsets.length - 1] + " but there are "
+					+ values.size() + " values!");
+		this.type = type;
+		this.offsets = offsets;
+		this.values = values;
+	}
+
+	/**
+	 * Returns the type of the lists in this column.
+	 *
+	 * @return the type of the lists in this column.
+	 */
+	public PlyList<?> getType() {
+		return type;
+	}
+
+	/**
+	 * Returns the number of lists in this column.
+	 *
+	 * @return the number of lists in this column.
+	 */
+	public int size() {
+		return offsets.length - 1;
+	}
+
+	/**
+	 * Returns the number of bytes occupied by the offsets and the values of
+	 * this column.
+	 *
+	 * @return the number of bytes occupied by this column.
+	 */
+	public long nbOfBytes() {
+		return 4L * offsets.length + values.nbOfBytes();
+	}
+
+	/**
+	 * Returns the index of the first value of every list, followed by the
+	 * total number of values. The array is not copied.
+	 *
+	 * @return the offsets of the lists.
+	 */
+	public int[] getOffsets() {
+		return offsets;
+	}
+
+	/**
+	 * Returns the values of all the lists.
+	 *
+	 * @return the values of all the lists.
+	 */
+	public PlyColumn getValues() {
+		return values;
+	}
+
+	/**
+	 * Returns the index of the first value of the list of the given
+	 * occurrence.
+	 *
+	 * @param index
+	 *            the index of the occurrence.
+	 * @return the index of the first value of the list.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             when the index is out of range.
+	 */
+	public int getStart(int index) throws ArrayIndexOutOfBoundsException {
+		return offsets[index];
+	}
+
+	/**
+	 * Returns the number of values in the list of the given occurrence.
+	 *
+	 * @param index
+	 *            the index of the occurrence.
+	 * @return the number of values in the list.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             when the index is out of range.
+	 */
+	public int getLength(int index) throws ArrayIndexOutOfBoundsException {
+		return offsets[index + 1] - offsets[index];
+	}
+}
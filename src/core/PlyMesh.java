@@ -0,0 +1,110 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A PLY mesh which is held in memory. The header of the file is kept as the
+ * format, the comments and the {@link ElementDefinition}s, and the body as a
+ * {@link PlyElement} with primitive columns for every element.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class PlyMesh {
+	/**
+	 * The format of the file the mesh was read from.
+	 */
+	private final Format format;
+
+	/**
+	 * The comments in the header.
+	 */
+	private final List<String> comments;
+
+	/**
+	 * The elements of the mesh, in the order of the header.
+	 */
+	private final List<PlyElement> elements;
+
+	/**
+	 * Creates a new {@link PlyMesh} with the given format, comments and
+	 * elements. The lists are copied.
+	 *
+	 * @param format
+	 *            the format of the file the mesh was read from.
+	 * @param comments
+	 *            the comments in the header.
+	 * @param elements
+	 *            the elements of the mesh, in the order of the header.
+	 * @throws NullPointerException
+	 *             when one of the arguments is null.
+	 */
+	public PlyMesh(Format format, List<String> comments,
+			List<PlyElement> elements) throws NullPointerException {
+		if (format == null)
+			throw new NullPointerException("the format cannot be null!");
+		this.format = format;
+		this.comments = Collections.unmodifiableList(new ArrayList<String>(
+				comments));
+		this.elements = Collections
+				.unmodifiableList(new ArrayList<PlyElement>(elements));
+	}
+
+	/**
+	 * Returns the format of the file the mesh was read from.
+	 *
+	 * @return the format of the file the mesh was read from.
+	 */
+	public Format getFormat() {
+		return format;
+	}
+
+	/**
+	 * Returns an unmodifiable list with the comments in the header.
+	 *
+	 * @return the comments in the header.
+	 */
+	public List<String> getComments() {
+		return comments;
+	}
+
+	/**
+	 * Returns an unmodifiable list with the elements of the mesh, in the order
+	 * of the header. The index of an element is the id of its
+	 * {@link ElementDefinition}.
+	 *
+	 * @return the elements of the mesh.
+	 */
+	public List<PlyElement> getElements() {
+		return elements;
+	}
+
+	/**
+	 * Returns the element with the given name.
+	 *
+	 * @param name
+	 *            the name of the element.
+	 * @return the element with the given name, or <code>null</code> when the
+	 *         mesh has no such element.
+	 */
+	public PlyElement getElement(String name) {
+		for (PlyElement element : elements)
+			if (element.getName().equals(name))
+				return element;
+		return null;
+	}
+
+	/**
+	 * Returns the number of bytes occupied by the columns of all the elements.
+	 *
+	 * @return the number of bytes occupied by the columns of the mesh.
+	 */
+	public long nbOfBytes() {
+		long result = 0;
+		for (PlyElement element : elements)
+			result += element.nbOfBytes();
+		return result;
+	}
+}
@@ -1,7 +1,7 @@
 package core;
 
 import io.ParseException;
-import io.PlyHandler;
+import io.PlyStructureHandler;
 
 import java.io.IOException;
 
@@ -19,6 +19,17 @@ public class PropertyDefinition {
 	private String name;
 	private DataType<?> dataType;
 
+	/**
+	 * The id of the {@link ElementDefinition} this property belongs to.
+	 */
+	private int elementId = 0;
+
+	/**
+	 * The id of this property, which is its index in its
+	 * {@link ElementDefinition}.
+	 */
+	private int id = 0;
+
 	/**
 	 * Creates a new {@link PropertyDefinition} which has the given name and
 	 * datatype.
@@ -44,6 +55,51 @@ public class PropertyDefinition {
 		return name;
 	}
 
+	/**
+	 * Returns the data type of this {@link PropertyDefinition}.
+	 * 
+	 * @return the data type of this {@link PropertyDefinition}.
+	 */
+	public DataType<?> getDataType() {
+		return dataType;
+	}
+
+	/**
+	 * Returns the id of the {@link ElementDefinition} this
+	 * {@link PropertyDefinition} belongs to.
+	 * 
+	 * @return the id of the {@link ElementDefinition} this
+	 *         {@link PropertyDefinition} belongs to.
+	 */
+	public int getElementId() {
+		return elementId;
+	}
+
+	/**
+	 * Returns the id of this {@link PropertyDefinition}, which is its index
+	 * in its {@link ElementDefinition}.
+	 * 
+	 * @return the id of this {@link PropertyDefinition}.
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * Sets the ids of this {@link PropertyDefinition}. Called when the
+	 * {@link PropertyDefinition} is added to an {@link ElementDefinition}.
+	 * 
+	 * @param elementId
+	 *            the id of the {@link ElementDefinition}.
+	 * @param id
+	 *            the index of this {@link PropertyDefinition} in the
+	 *            {@link ElementDefinition}.
+	 */
+	void setIds(int elementId, int id) {
+		this.elementId = elementId;
+		this.id = id;
+	}
+
 	/**
 	 * Returns this {@link ElementDefinition} as a string in PLY format.
 	 * 
@@ -62,11 +118,11 @@ public class PropertyDefinition {
 	 * @throws NullPointerException
 	 * @throws ParseException
 	 */
-	public void parse(PlyScanner reader, Format format, PlyHandler handler)
+	public void parse(PlyScanner reader, Format format,
+			PlyStructureHandler handler)
 			throws NullPointerException, ParseException, IOException,
 			NumberFormatException {
-		dataType.parseProperty(reader, format, getName(), handler);
-
+		dataType.parseProperty(reader, format, this, handler);
 	}
 
 	/*
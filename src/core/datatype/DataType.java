@@ -1,6 +1,8 @@
 package core.datatype;
 
 import io.PlyHandler;
+import io.PlyIndexedHandler;
+import io.PlyStructureHandler;
 
 import java.io.IOException;
 
@@ -8,6 +10,7 @@ import io.ParseException;
 
 import util.PlyScanner;
 import core.Format;
+import core.PropertyDefinition;
 
 /**
  * Represents a {@link DataType} in the Ply File Format.
@@ -43,6 +46,46 @@ public abstract class DataType<T> {
 			String propertyName, PlyHandler handler) throws IOException,
 			NumberFormatException, ParseException;
 
+	/**
+	 * Parses the given property, which has this {@link DataType}, from the
+	 * given scanner and passes the value to the given handler. Handlers which
+	 * implement {@link PlyIndexedHandler} receive the ids of the property,
+	 * the other handlers receive its name.
+	 * 
+	 * @param reader
+	 *            the reader where the data is parsed from.
+	 * @param format
+	 *            the format the file is written in.
+	 * @param property
+	 *            the property which is parsed.
+	 * @param handler
+	 *            the handler to pass the value to.
+	 * @throws IOException
+	 * @throws NumberFormatException
+	 * @throws ParseException
+	 */
+	public void parseProperty(PlyScanner reader, Format format,
+			PropertyDefinition property, PlyStructureHandler handler)
+			throws IOException, NumberFormatException, ParseException {
+		parseProperty(reader, format, property.getName(),
+				(PlyHandler) handler);
+	}
+
+	/**
+	 * Moves the given scanner past a value of this {@link DataType} without
+	 * parsing it.
+	 * 
+	 * @param reader
+	 *            the reader where the value is skipped from.
+	 * @param format
+	 *            the format the file is written in.
+	 * @throws IOException
+	 * @throws NumberFormatException
+	 * @throws ParseException
+	 */
+	public abstract void skip(PlyScanner reader, Format format)
+			throws IOException, NumberFormatException, ParseException;
+
 	/**
 	 * Returns this {@link DataType} as a string in the PLY File Format.
 	 * 
@@ -3,6 +3,8 @@ package core.datatype;
 import java.io.IOException;
 import java.nio.ByteOrder;
 
+import io.ParseException;
+
 import util.PlyScanner;
 import core.Format;
 
@@ -27,17 +29,18 @@ public class Float64 extends FloatScalar {
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see core.datatype.FloatScalar#parse(util.PlyScanner, core.Format)
+	 * @see core.datatype.FloatScalar#parseDouble(util.PlyScanner,
+	 * core.Format)
 	 */
 	@Override
-	public Double parse(PlyScanner reader, Format format) throws IOException,
-			NumberFormatException {
+	public double parseDouble(PlyScanner reader, Format format)
+			throws IOException, NumberFormatException, ParseException {
 		if (format.equals(Format.BINARY_LITTLE_ENDIAN))
 			return reader.nextDouble(ByteOrder.LITTLE_ENDIAN);
 		else if (format.equals(Format.BINARY_BIG_ENDIAN))
 			return reader.nextDouble(ByteOrder.BIG_ENDIAN);
 		else
-			return super.parse(reader, format);
+			return parseAscii(reader);
 	}
 
 	/**
@@ -1,11 +1,16 @@
 package core.datatype;
 
+import io.ParseException;
 import io.PlyHandler;
+import io.PlyIndexedHandler;
+import io.PlyStructureHandler;
+import io.PlyPrimitiveHandler;
 
 import java.io.IOException;
 
 import util.PlyScanner;
 import core.Format;
+import core.PropertyDefinition;
 
 /**
  * Abstract class representing all integer scalar types in the PLY File Format.
@@ -21,11 +26,42 @@ public abstract class FloatScalar extends Scalar<Double> {
 	 */
 	@Override
 	public Double parse(PlyScanner reader, Format format)
-			throws IOException, NumberFormatException {
-		if (format.equals(Format.ASCII)) {
-			return Double.parseDouble(reader.next());
-		}
-		throw new IllegalStateException("unsupported format " + format);
+			throws IOException, NumberFormatException, ParseException {
+		return parseDouble(reader, format);
+	}
+
+	/**
+	 * Parses this {@link FloatScalar} from the given scanner without boxing
+	 * the result.
+	 * 
+	 * @param reader
+	 *            the reader where the data is parsed from.
+	 * @param format
+	 *            the format the file is written in.
+	 * @return the parsed value.
+	 * @throws IOException
+	 * @throws NumberFormatException
+	 * @throws ParseException
+	 */
+	public abstract double parseDouble(PlyScanner reader, Format format)
+			throws IOException, NumberFormatException, ParseException;
+
+	/**
+	 * Parses this {@link FloatScalar} from the next ASCII token of the given
+	 * scanner, without creating intermediate objects. The result is correctly
+	 * rounded.
+	 * 
+	 * @param reader
+	 *            the reader where the data is parsed from.
+	 * @return the parsed value.
+	 * @throws IOException
+	 * @throws NumberFormatException
+	 * @throws ParseException
+	 *             when there are no more tokens.
+	 */
+	protected double parseAscii(PlyScanner reader) throws IOException,
+			NumberFormatException, ParseException {
+		return reader.nextAsciiDouble();
 	}
 
 	/*
@@ -37,8 +73,12 @@ public abstract class FloatScalar extends Scalar<Double> {
 	@Override
 	public void parseProperty(PlyScanner reader, Format format,
 			String propertyName, PlyHandler handler) throws IOException,
-			NumberFormatException {
-		handler.plyProperty(propertyName, parse(reader, format));
+			NumberFormatException, ParseException {
+		if (handler instanceof PlyPrimitiveHandler)
+			((PlyPrimitiveHandler) handler).plyProperty(propertyName,
+					parseDouble(reader, format));
+		else
+			handler.plyProperty(propertyName, parse(reader, format));
 	}
 
 	/*
@@ -50,11 +90,59 @@ public abstract class FloatScalar extends Scalar<Double> {
 	@Override
 	public void parseListProperty(PlyScanner reader, String propertyName,
 			int size, Format format, PlyHandler handler) throws IOException,
-			NumberFormatException {
-		Double[] result = new Double[size];
-		for (int i = 0; i < size; ++i)
-			result[i] = parse(reader, format);
-		handler.plyProperty(propertyName, result);
+			NumberFormatException, ParseException {
+		if (handler instanceof PlyPrimitiveHandler) {
+			double[] result = reader.doubleArray(size);
+			for (int i = 0; i < size; ++i)
+				result[i] = parseDouble(reader, format);
+			((PlyPrimitiveHandler) handler).plyListProperty(propertyName,
+					result, size);
+		} else {
+			Double[] result = new Double[size];
+			for (int i = 0; i < size; ++i)
+				result[i] = parse(reader, format);
+			handler.plyProperty(propertyName, result);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see core.datatype.DataType#parseProperty(util.PlyScanner,
+	 * core.Format, core.PropertyDefinition, io.PlyStructureHandler)
+	 */
+	@Override
+	public void parseProperty(PlyScanner reader, Format format,
+			PropertyDefinition property, PlyStructureHandler handler)
+			throws IOException, NumberFormatException, ParseException {
+		if (handler instanceof PlyIndexedHandler)
+			((PlyIndexedHandler) handler).plyProperty(property.getElementId(),
+					property.getId(), parseDouble(reader, format));
+		else
+			parseProperty(reader, format, property.getName(),
+					(PlyHandler) handler);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see core.datatype.Scalar#parseListProperty(util.PlyScanner,
+	 * core.PropertyDefinition, int, core.Format, io.PlyStructureHandler)
+	 */
+	@Override
+	public void parseListProperty(PlyScanner reader,
+			PropertyDefinition property, int size, Format format,
+			PlyStructureHandler handler) throws IOException,
+			NumberFormatException, ParseException {
+		if (handler instanceof PlyIndexedHandler) {
+			double[] result = reader.doubleArray(size);
+			for (int i = 0; i < size; ++i)
+				result[i] = parseDouble(reader, format);
+			((PlyIndexedHandler) handler).plyListProperty(
+					property.getElementId(), property.getId(), result, size);
+		} else
+			parseListProperty(reader, property.getName(), size, format,
+					(PlyHandler) handler);
 	}
 
 	/**
@@ -24,6 +24,7 @@ public class Int16 extends IntScalar {
 	 * Creates a new singleton instance of this {@link Int16}.
 	 */
 	private Int16() {
+		super(-32768L, 32767L);
 	}
 
 	/**
@@ -38,37 +39,17 @@ public class Int16 extends IntScalar {
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see core.datatype.IntScalar#parse(util.PlyScanner, core.Format)
+	 * @see core.datatype.IntScalar#parseLong(util.PlyScanner, core.Format)
 	 */
 	@Override
-	public Long parse(PlyScanner scanner, Format format) throws IOException,
+	public long parseLong(PlyScanner scanner, Format format) throws IOException,
 			NumberFormatException, ParseException {
 		if (format.equals(Format.BINARY_LITTLE_ENDIAN))
-			return (long) scanner.nextShort(ByteOrder.LITTLE_ENDIAN);
-		else if (format.equals(Format.BINARY_LITTLE_ENDIAN))
-			return (long) scanner.nextShort(ByteOrder.BIG_ENDIAN);
+			return scanner.nextShort(ByteOrder.LITTLE_ENDIAN);
+		else if (format.equals(Format.BINARY_BIG_ENDIAN))
+			return scanner.nextShort(ByteOrder.BIG_ENDIAN);
 		else
-			return super.parse(scanner, format);
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see core.datatype.Scalar#getMinimumValue()
-	 */
-	@Override
-	public Long getMinimumValue() {
-		return -32768L;
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see core.datatype.Scalar#getMaximumValue()
-	 */
-	@Override
-	public Long getMaximumValue() {
-		return 32767L;
+			return parseAscii(scanner);
 	}
 
 	/*
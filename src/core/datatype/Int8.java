@@ -23,6 +23,7 @@ public class Int8 extends IntScalar {
 	 * Creates a new singleton instance of this {@link Int8}.
 	 */
 	private Int8() {
+		super(-128L, 127L);
 	}
 
 	/**
@@ -37,37 +38,16 @@ public class Int8 extends IntScalar {
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see core.datatype.IntScalar#parse(util.PlyScanner, core.Format)
+	 * @see core.datatype.IntScalar#parseLong(util.PlyScanner, core.Format)
 	 */
 	@Override
-	public Long parse(PlyScanner scanner, Format format) throws IOException,
+	public long parseLong(PlyScanner scanner, Format format) throws IOException,
 			NumberFormatException, ParseException {
-		if (format.equals(Format.BINARY_LITTLE_ENDIAN))
-			return (long) scanner.nextByte();
-		else if (format.equals(Format.BINARY_LITTLE_ENDIAN))
-			return (long) scanner.nextByte();
+		if (format.equals(Format.BINARY_LITTLE_ENDIAN)
+				|| format.equals(Format.BINARY_BIG_ENDIAN))
+			return scanner.nextByte();
 		else
-			return super.parse(scanner, format);
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see core.datatype.Scalar#getMinimumValue()
-	 */
-	@Override
-	public Long getMinimumValue() {
-		return -128L;
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see core.datatype.Scalar#getMaximumValue()
-	 */
-	@Override
-	public Long getMaximumValue() {
-		return 127L;
+			return parseAscii(scanner);
 	}
 
 	/*
@@ -1,6 +1,9 @@
 package core.datatype;
 
 import io.PlyHandler;
+import io.PlyIndexedHandler;
+import io.PlyStructureHandler;
+import io.PlyPrimitiveHandler;
 
 import java.io.IOException;
 
@@ -9,6 +12,7 @@ import util.PlyScanner;
 import io.ParseException;
 
 import core.Format;
+import core.PropertyDefinition;
 
 /**
  * Abstract class representing all integer scalar types in the PLY File Format.
@@ -17,6 +21,49 @@ import core.Format;
  * @version 0.1
  */
 public abstract class IntScalar extends Scalar<Long> {
+	/**
+	 * The minimum value of this {@link IntScalar}.
+	 */
+	private final long minimum;
+
+	/**
+	 * The maximum value of this {@link IntScalar}.
+	 */
+	private final long maximum;
+
+	/**
+	 * Creates a new {@link IntScalar} with the given range.
+	 * 
+	 * @param minimum
+	 *            the minimum value of this {@link IntScalar}.
+	 * @param maximum
+	 *            the maximum value of this {@link IntScalar}.
+	 */
+	protected IntScalar(long minimum, long maximum) {
+		this.minimum = minimum;
+		this.maximum = maximum;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see core.datatype.Scalar#getMinimumValue()
+	 */
+	@Override
+	public Long getMinimumValue() {
+		return minimum;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see core.datatype.Scalar#getMaximumValue()
+	 */
+	@Override
+	public Long getMaximumValue() {
+		return maximum;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -25,15 +72,60 @@ public abstract class IntScalar extends Scalar<Long> {
 	@Override
 	public Long parse(PlyScanner scanner, Format format) throws IOException,
 			NumberFormatException, ParseException {
-		if (format.equals(Format.ASCII)) {
-			String token = scanner.next();
-			if (token == null)
-				throw new ParseException(
-						"unexpected end of file while parsing datatype '" + toPLY()
-								+ "'");
-			return Long.parseLong(token);
-		}
-		throw new IllegalStateException("unsupported format " + format);
+		return parseLong(scanner, format);
+	}
+
+	/**
+	 * Parses this {@link IntScalar} from the given scanner without boxing the
+	 * result.
+	 * 
+	 * @param scanner
+	 *            the scanner where the data is parsed from.
+	 * @param format
+	 *            the format the file is written in.
+	 * @return the parsed value.
+	 * @throws IOException
+	 * @throws NumberFormatException
+	 * @throws ParseException
+	 */
+	public abstract long parseLong(PlyScanner scanner, Format format)
+			throws IOException, NumberFormatException, ParseException;
+
+	/**
+	 * Parses this {@link IntScalar} from the next ASCII token of the given
+	 * scanner, without creating intermediate objects.
+	 * 
+	 * @param scanner
+	 *            the scanner where the data is parsed from.
+	 * @return the parsed value.
+	 * @throws IOException
+	 * @throws NumberFormatException
+	 * @throws ParseException
+	 *             when there are no more tokens.
+	 * @throws IllegalStateException
+	 *             when the parsed value is not within the range of this
+	 *             {@link IntScalar}.
+	 */
+	protected long parseAscii(PlyScanner scanner) throws IOException,
+			NumberFormatException, ParseException, IllegalStateException {
+		long result = scanner.nextAsciiLong();
+		if (result < minimum || result > maximum)
+			throw new IllegalStateException(
+					String.format(
+							"the parsed %s with value %d is not within the allowed range [%d, %d]",
+							toPLY(), result, minimum, maximum));
+		return result;
+	}
+
+	/**
+	 * Returns true when every value of this {@link IntScalar} fits in a Java
+	 * <code>int</code>.
+	 * 
+	 * @return true when every value of this {@link IntScalar} fits in a Java
+	 *         <code>int</code>.
+	 */
+	public boolean isIntRange() {
+		return minimum >= Integer.MIN_VALUE && maximum <= Integer.MAX_VALUE;
 	}
 
 	/*
@@ -46,7 +138,16 @@ public abstract class IntScalar extends Scalar<Long> {
 	public void parseProperty(PlyScanner scanner, Format format,
 			String propertyName, PlyHandler handler) throws IOException,
 			NumberFormatException, ParseException {
-		handler.plyProperty(propertyName, parse(scanner, format));
+		if (handler instanceof PlyPrimitiveHandler) {
+			PlyPrimitiveHandler primitiveHandler = (PlyPrimitiveHandler) handler;
+			if (isIntRange())
+				primitiveHandler.plyProperty(propertyName,
+						(int) parseLong(scanner, format));
+			else
+				primitiveHandler.plyProperty(propertyName,
+						parseLong(scanner, format));
+		} else
+			handler.plyProperty(propertyName, parse(scanner, format));
 	}
 
 	/*
@@ -59,10 +160,79 @@ public abstract class IntScalar extends Scalar<Long> {
 	public void parseListProperty(PlyScanner scanner, String propertyName,
 			int size, Format format, PlyHandler handler) throws IOException,
 			NumberFormatException, ParseException {
-		Long[] result = new Long[size];
-		for (int i = 0; i < size; ++i)
-			result[i] = parse(scanner, format);
-		handler.plyProperty(propertyName, result);
+		if (handler instanceof PlyPrimitiveHandler) {
+			PlyPrimitiveHandler primitiveHandler = (PlyPrimitiveHandler) handler;
+			if (isIntRange()) {
+				int[] result = scanner.intArray(size);
+				for (int i = 0; i < size; ++i)
+					result[i] = (int) parseLong(scanner, format);
+				primitiveHandler.plyListProperty(propertyName, result, size);
+			} else {
+				long[] result = scanner.longArray(size);
+				for (int i = 0; i < size; ++i)
+					result[i] = parseLong(scanner, format);
+				primitiveHandler.plyListProperty(propertyName, result, size);
+			}
+		} else {
+			Long[] result = new Long[size];
+			for (int i = 0; i < size; ++i)
+				result[i] = parse(scanner, format);
+			handler.plyProperty(propertyName, result);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see core.datatype.DataType#parseProperty(util.PlyScanner,
+	 * core.Format, core.PropertyDefinition, io.PlyStructureHandler)
+	 */
+	@Override
+	public void parseProperty(PlyScanner scanner, Format format,
+			PropertyDefinition property, PlyStructureHandler handler)
+			throws IOException, NumberFormatException, ParseException {
+		if (handler instanceof PlyIndexedHandler) {
+			PlyIndexedHandler indexedHandler = (PlyIndexedHandler) handler;
+			if (isIntRange())
+				indexedHandler.plyProperty(property.getElementId(),
+						property.getId(), (int) parseLong(scanner, format));
+			else
+				indexedHandler.plyProperty(property.getElementId(),
+						property.getId(), parseLong(scanner, format));
+		} else
+			parseProperty(scanner, format, property.getName(),
+					(PlyHandler) handler);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see core.datatype.Scalar#parseListProperty(util.PlyScanner,
+	 * core.PropertyDefinition, int, core.Format, io.PlyStructureHandler)
+	 */
+	@Override
+	public void parseListProperty(PlyScanner scanner,
+			PropertyDefinition property, int size, Format format,
+			PlyStructureHandler handler) throws IOException,
+			NumberFormatException, ParseException {
+		if (handler instanceof PlyIndexedHandler) {
+			PlyIndexedHandler indexedHandler = (PlyIndexedHandler) handler;
+			if (isIntRange()) {
+				int[] result = scanner.intArray(size);
+				for (int i = 0; i < size; ++i)
+					result[i] = (int) parseLong(scanner, format);
+				indexedHandler.plyListProperty(property.getElementId(),
+						property.getId(), result, size);
+			} else {
+				long[] result = scanner.longArray(size);
+				for (int i = 0; i < size; ++i)
+					result[i] = parseLong(scanner, format);
+				indexedHandler.plyListProperty(property.getElementId(),
+						property.getId(), result, size);
+			}
+		} else
+			parseListProperty(scanner, property.getName(), size, format,
+					(PlyHandler) handler);
 	}
 
 	/**
@@ -1,6 +1,7 @@
 package core.datatype;
 
 import io.PlyHandler;
+import io.PlyStructureHandler;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -10,6 +11,7 @@ import io.ParseException;
 
 import util.PlyScanner;
 import core.Format;
+import core.PropertyDefinition;
 
 /**
  * Represents a datatype which is a {@link PlyList}.
@@ -79,14 +81,7 @@ public class PlyList<T extends Comparable<T>> extends DataType<List<T>> {
 	@Override
 	public List<T> parse(PlyScanner reader, Format format) throws IOException,
 			NumberFormatException, ParseException {
-		long longSize = size.parse(reader, format);
-		if (longSize < 0)
-			throw new IllegalStateException(
-					"the length of a list cannot be smaller than zero!");
-		if (longSize >= Integer.MAX_VALUE)
-			throw new IllegalStateException(
-					"the length of the list exceeds the maximum length of a Java list!");
-		int intSize = (int) longSize;
+		int intSize = parseSize(reader, format);
 
 		List<T> result = new ArrayList<T>(intSize);
 		for (int i = 0; i < intSize; ++i)
@@ -104,16 +99,65 @@ public class PlyList<T extends Comparable<T>> extends DataType<List<T>> {
 	public void parseProperty(PlyScanner reader, Format format,
 			String propertyName, PlyHandler handler) throws IOException,
 			NumberFormatException, ParseException {
-		long longSize = size.parse(reader, format);
+		int intSize = parseSize(reader, format);
+
+		dataType.parseListProperty(reader, propertyName, intSize, format,
+				handler);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see core.datatype.DataType#parseProperty(util.PlyScanner,
+	 * core.Format, core.PropertyDefinition, io.PlyStructureHandler)
+	 */
+	@Override
+	public void parseProperty(PlyScanner reader, Format format,
+			PropertyDefinition property, PlyStructureHandler handler)
+			throws IOException, NumberFormatException, ParseException {
+		dataType.parseListProperty(reader, property, parseSize(reader, format),
+				format, handler);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see core.datatype.DataType#skip(util.PlyScanner, core.Format)
+	 */
+	@Override
+	public void skip(PlyScanner reader, Format format) throws IOException,
+			NumberFormatException, ParseException {
+		int intSize = parseSize(reader, format);
+		if (format == Format.ASCII)
+			reader.skipTokens(intSize);
+		else
+			reader.skipBytes((long) intSize * dataType.nbOfBytes());
+	}
+
+	/**
+	 * Parses the number of values in the list.
+	 * 
+	 * @param reader
+	 *            the reader where the data is parsed from.
+	 * @param format
+	 *            the format the file is written in.
+	 * @return the number of values in the list.
+	 * @throws IOException
+	 * @throws NumberFormatException
+	 * @throws ParseException
+	 * @throws IllegalStateException
+	 *             when the size is negative or too large for a Java array.
+	 */
+	private int parseSize(PlyScanner reader, Format format)
+			throws IOException, NumberFormatException, ParseException,
+			IllegalStateException {
+		long longSize = size.parseLong(reader, format);
 		if (longSize < 0)
 			throw new IllegalStateException(
 					"the length of a list cannot be smaller than zero!");
 		if (longSize >= Integer.MAX_VALUE)
 			throw new IllegalStateException(
 					"the length of the list exceeds the maximum length of a Java list!");
-		int intSize = (int) longSize;
-
-		dataType.parseListProperty(reader, propertyName, intSize, format,
-				handler);
+		return (int) longSize;
 	}
 }
@@ -1,6 +1,8 @@
 package core.datatype;
 
 import io.PlyHandler;
+import io.PlyIndexedHandler;
+import io.PlyStructureHandler;
 
 import java.io.IOException;
 
@@ -8,6 +10,7 @@ import io.ParseException;
 
 import util.PlyScanner;
 import core.Format;
+import core.PropertyDefinition;
 
 /**
  * Abstract class representing all scalar datatypes in the PLY File Format.
@@ -71,6 +74,20 @@ public abstract class Scalar<T extends Comparable<T>> extends DataType<T> {
 	 */
 	public abstract int nbOfBytes();
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see core.datatype.DataType#skip(util.PlyScanner, core.Format)
+	 */
+	@Override
+	public void skip(PlyScanner reader, Format format) throws IOException,
+			ParseException {
+		if (format == Format.ASCII)
+			reader.skipTokens(1);
+		else
+			reader.skipBytes(nbOfBytes());
+	}
+
 	/**
 	 * TODO
 	 * 
@@ -83,4 +100,32 @@ public abstract class Scalar<T extends Comparable<T>> extends DataType<T> {
 	public abstract void parseListProperty(PlyScanner reader,
 			String propertyName, int size, Format format, PlyHandler handler)
 			throws IOException, NumberFormatException, ParseException;
+
+	/**
+	 * Parses a list of the given size with values of this {@link Scalar} for
+	 * the given property and passes it to the given handler. Handlers which
+	 * implement {@link PlyIndexedHandler} receive the ids of the property,
+	 * the other handlers receive its name.
+	 * 
+	 * @param reader
+	 *            the reader where the data is parsed from.
+	 * @param property
+	 *            the property which is parsed.
+	 * @param size
+	 *            the number of values in the list.
+	 * @param format
+	 *            the format the file is written in.
+	 * @param handler
+	 *            the handler to pass the list to.
+	 * @throws IOException
+	 * @throws NumberFormatException
+	 * @throws ParseException
+	 */
+	public void parseListProperty(PlyScanner reader,
+			PropertyDefinition property, int size, Format format,
+			PlyStructureHandler handler) throws IOException,
+			NumberFormatException, ParseException {
+		parseListProperty(reader, property.getName(), size, format,
+				(PlyHandler) handler);
+	}
 }
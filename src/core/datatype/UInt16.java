@@ -25,6 +25,7 @@ public class UInt16 extends IntScalar {
 	 * Creates a new singleton instance of this {@link UInt16}.
 	 */
 	private UInt16() {
+		super(0L, 65535L);
 	}
 
 	/**
@@ -39,47 +40,17 @@ public class UInt16 extends IntScalar {
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see core.datatype.IntScalar#parse(util.PlyScanner, core.Format)
+	 * @see core.datatype.IntScalar#parseLong(util.PlyScanner, core.Format)
 	 */
 	@Override
-	public Long parse(PlyScanner scanner, Format format) throws IOException,
+	public long parseLong(PlyScanner scanner, Format format) throws IOException,
 			NumberFormatException, ParseException {
-		long result;
 		if (format.equals(Format.BINARY_LITTLE_ENDIAN))
-			result = (long) scanner.nextUnsignedShort(ByteOrder.LITTLE_ENDIAN);
+			return scanner.nextUnsignedShort(ByteOrder.LITTLE_ENDIAN);
 		else if (format.equals(Format.BINARY_BIG_ENDIAN))
-			result = (long) scanner.nextUnsignedShort(ByteOrder.BIG_ENDIAN);
+			return scanner.nextUnsignedShort(ByteOrder.BIG_ENDIAN);
 		else
-			result = super.parse(scanner, format);
-
-		if (!isInRange(result))
-			throw new IllegalStateException(
-					String.format(
-							"the parsed %s with value %d is not within the allowed range [%d, %d]",
-							toPLY(), result, getMinimumValue(),
-							getMaximumValue()));
-
-		return result;
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see core.datatype.Scalar#getMinimumValue()
-	 */
-	@Override
-	public Long getMinimumValue() {
-		return 0L;
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see core.datatype.Scalar#getMaximumValue()
-	 */
-	@Override
-	public Long getMaximumValue() {
-		return 65535L;
+			return parseAscii(scanner);
 	}
 
 	/*
@@ -23,6 +23,7 @@ public class UInt8 extends IntScalar {
 	 * Creates a new singleton instance of this {@link UInt8}.
 	 */
 	private UInt8() {
+		super(0L, 255L);
 	}
 
 	/**
@@ -37,46 +38,16 @@ public class UInt8 extends IntScalar {
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see core.datatype.IntScalar#parse(util.PlyScanner, core.Format)
+	 * @see core.datatype.IntScalar#parseLong(util.PlyScanner, core.Format)
 	 */
 	@Override
-	public Long parse(PlyScanner scanner, Format format) throws IOException,
+	public long parseLong(PlyScanner scanner, Format format) throws IOException,
 			NumberFormatException, ParseException {
-		long result;
 		if (format.equals(Format.BINARY_LITTLE_ENDIAN)
 				|| format.equals(Format.BINARY_BIG_ENDIAN))
-			result = scanner.nextUnsignedByte();
+			return scanner.nextUnsignedByte();
 		else
-			result = super.parse(scanner, format);
-
-		if (!isInRange(result))
-			throw new IllegalStateException(
-					String.format(
-							"the parsed %s with value %d is not within the allowed range [%d, %d]",
-							toPLY(), result, getMinimumValue(),
-							getMaximumValue()));
-
-		return result;
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see core.datatype.Scalar#getMinimumValue()
-	 */
-	@Override
-	public Long getMinimumValue() {
-		return 0L;
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see core.datatype.Scalar#getMaximumValue()
-	 */
-	@Override
-	public Long getMaximumValue() {
-		return 255L;
+			return parseAscii(scanner);
 	}
 
 	/*
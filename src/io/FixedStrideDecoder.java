@@ -0,0 +1,602 @@
+package io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import util.PlyScanner;
+import core.ElementDefinition;
+import core.Format;
+import core.PlyColumn;
+import core.PropertyDefinition;
+import core.datatype.DataType;
+import core.datatype.Float32;
+import core.datatype.Float64;
+import core.datatype.Int16;
+import core.datatype.Int32;
+import core.datatype.Int8;
+import core.datatype.UInt16;
+import core.datatype.UInt32;
+import core.datatype.UInt8;
+
+/**
+ * A decoder for the occurrences of an {@link ElementDefinition} in a binary
+ * PLY file whose properties are all scalars.
+ *
+ * Every occurrence of such an element has the same size, so the offset and
+ * the type of every property within an occurrence is computed once when the
+ * decoder is compiled. The occurrences are then decoded in batches directly
+ * from the buffer of the {@link PlyScanner}, without going through the
+ * {@link DataType} of every property.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class FixedStrideDecoder {
+	/**
+	 * The codes of the scalar types.
+	 */
+	static final int INT8 = 0;
+	static final int UINT8 = 1;
+	static final int INT16 = 2;
+	static final int UINT16 = 3;
+	static final int INT32 = 4;
+	static final int UINT32 = 5;
+	static final int FLOAT32 = 6;
+	static final int FLOAT64 = 7;
+
+	/**
+	 * The number of bytes of occurrences which are decoded into columns at
+	 * once. Every column makes a pass over these bytes, so they should stay
+	 * in the cache of the processor between the passes.
+	 */
+	private static final int TILE_BYTES = 32 * 1024;
+
+	/**
+	 * The element which is passed to the handler.
+	 */
+	private final ElementDefinition element;
+
+	/**
+	 * Whether the element contains all the properties of the occurrences, so
+	 * the occurrences can be passed as raw bytes.
+	 */
+	private final boolean complete;
+
+	/**
+	 * The byte order of the values.
+	 */
+	private final ByteOrder order;
+
+	/**
+	 * The number of bytes of a single occurrence.
+	 */
+	private final int stride;
+
+	/**
+	 * The offset of every property within an occurrence.
+	 */
+	private final int[] offsets;
+
+	/**
+	 * The type code of every property.
+	 */
+	private final int[] types;
+
+	/**
+	 * The name of every property.
+	 */
+	private final String[] names;
+
+	/**
+	 * The id of every property.
+	 */
+	private final int[] ids;
+
+	/**
+	 * Creates a new {@link FixedStrideDecoder} for the given element, which
+	 * only decodes the properties of the given projection of the element.
+	 *
+	 * @param element
+	 *            the element of the file.
+	 * @param projection
+	 *            the element which is passed to the handler.
+	 * @param order
+	 *            the byte order of the values.
+	 */
+	private FixedStrideDecoder(ElementDefinition element,
+			ElementDefinition projection, ByteOrder order) {
+		this.element = projection;
+		this.order = order;
+		this.stride = element.nbOfBytes();
+		this.complete = projection.nbOfProperties() == element
+				.nbOfProperties();
+
+		int size = projection.nbOfProperties();
+		this.offsets = new int[size];
+		this.types = new int[size];
+		this.names = new String[size];
+		this.ids = new int[size];
+
+		// the other properties are skipped by their offset
+		int offset = 0;
+		int i = 0;
+		for (PropertyDefinition property : element) {
+			int type = typeOf(property.getDataType());
+			PropertyDefinition projected = projection.getProperty(property
+					.getName());
+			if (projected != null) {
+				offsets[i] = offset;
+				types[i] = type;
+				names[i] = projected.getName();
+				ids[i] = projected.getId();
+				++i;
+			}
+			offset += nbOfBytes(type);
+		}
+	}
+
+	/**
+	 * Compiles a {@link FixedStrideDecoder} for the given element in a file
+	 * with the given format. Returns <code>null</code> when the format is
+	 * ASCII, when the element contains a list property or when the element
+	 * has no properties.
+	 *
+	 * @param element
+	 *            the element to decode.
+	 * @param format
+	 *            the format of the file.
+	 * @return a {@link FixedStrideDecoder} for the given element or
+	 *         <code>null</code> when the occurrences of the element do not
+	 *         have a fixed, non-zero size.
+	 */
+	public static FixedStrideDecoder compile(ElementDefinition element,
+			Format format) {
+		return compile(element, element, format);
+	}
+
+	/**
+	 * Compiles a {@link FixedStrideDecoder} for the given element in a file
+	 * with the given format, which only decodes the properties of the given
+	 * projection of the element and passes them with the ids of the
+	 * projection. Returns <code>null</code> when the format is ASCII, when
+	 * the element contains a list property or when the element has no
+	 * properties. The occurrences of an element without properties do not
+	 * contain any bytes, so they are passed one by one.
+	 *
+	 * @param element
+	 *            the element of the file.
+	 * @param projection
+	 *            the element which is passed to the handler, with a subset of
+	 *            the properties of the element of the file.
+	 * @param format
+	 *            the format of the file.
+	 * @return a {@link FixedStrideDecoder} for the given element or
+	 *         <code>null</code> when the occurrences of the element do not
+	 *         have a fixed, non-zero size.
+	 */
+	public static FixedStrideDecoder compile(ElementDefinition element,
+			ElementDefinition projection, Format format) {
+		if (format == Format.ASCII || element.nbOfBytes() <= 0)
+			return null;
+		if (format == Format.BINARY_BIG_ENDIAN)
+			return new FixedStrideDecoder(element, projection,
+					ByteOrder.BIG_ENDIAN);
+		else
+			return new FixedStrideDecoder(element, projection,
+					ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Returns the element which is passed to the handler by this decoder.
+	 *
+	 * @return the element which is passed to the handler by this decoder.
+	 */
+	public ElementDefinition getElement() {
+		return element;
+	}
+
+	/**
+	 * Returns the byte order of the values.
+	 *
+	 * @return the byte order of the values.
+	 */
+	public ByteOrder getOrder() {
+		return order;
+	}
+
+	/**
+	 * Returns the number of bytes of a single occurrence of the element in
+	 * the file.
+	 *
+	 * @return the number of bytes of a single occurrence of the element in
+	 *         the file.
+	 */
+	public int getStride() {
+		return stride;
+	}
+
+	/**
+	 * Decodes the given number of occurrences of the element from the given
+	 * scanner and passes them to the given handler. When all the properties
+	 * are decoded, a {@link PlyBulkHandler} which accepts the element receives
+	 * the raw bytes of the occurrences instead.
+	 *
+	 * @param scanner
+	 *            the scanner to decode the occurrences from.
+	 * @param count
+	 *            the number of occurrences to decode.
+	 * @param handler
+	 *            the handler to pass the values to.
+	 * @throws IOException
+	 *             when an I/O exception occurs.
+	 * @throws ParseException
+	 *             when the file ends before all occurrences are decoded.
+	 */
+	public void decode(PlyScanner scanner, long count,
+			PlyStructureHandler handler)
+			throws IOException, ParseException {
+		if (complete && handler instanceof PlyBulkHandler
+				&& ((PlyBulkHandler) handler).plyAcceptsBytes(element, order)) {
+			copy(scanner, count, (PlyBulkHandler) handler);
+			return;
+		}
+		while (count > 0) {
+			ByteBuffer buffer = scanner.buffer(stride);
+			int records = (int) Math.min(count, buffer.remaining() / stride);
+			buffer.order(order);
+			buffer.position(decode(buffer, buffer.position(), records, handler));
+			count -= records;
+		}
+	}
+
+	/**
+	 * Passes the raw bytes of the given number of occurrences of the element
+	 * from the given scanner to the given handler.
+	 *
+	 * @param scanner
+	 *            the scanner to read the occurrences from.
+	 * @param count
+	 *            the number of occurrences to pass.
+	 * @param handler
+	 *            the handler to pass the bytes to.
+	 * @throws IOException
+	 *             when an I/O exception occurs.
+	 * @throws ParseException
+	 *             when the file ends before all occurrences are passed.
+	 */
+	private void copy(PlyScanner scanner, long count, PlyBulkHandler handler)
+			throws IOException, ParseException {
+		while (count > 0) {
+			ByteBuffer buffer = scanner.buffer(stride);
+			int records = (int) Math.min(count, buffer.remaining() / stride);
+			int start = buffer.position();
+			int end = start + records * stride;
+
+			ByteBuffer bytes = buffer.duplicate().order(order);
+			bytes.limit(end);
+			handler.plyElementBytes(element, bytes, records);
+
+			buffer.position(end);
+			count -= records;
+		}
+	}
+
+	/**
+	 * Decodes the given number of occurrences of the element, starting at the
+	 * given index of the given buffer, and passes them to the given handler.
+	 * The byte order of the buffer must be the byte order of this decoder.
+	 *
+	 * @param buffer
+	 *            the buffer to decode the occurrences from.
+	 * @param index
+	 *            the index of the first byte of the first occurrence.
+	 * @param records
+	 *            the number of occurrences to decode.
+	 * @param handler
+	 *            the handler to pass the values to.
+	 * @return the index after the last decoded occurrence.
+	 */
+	public int decode(ByteBuffer buffer, int index, int records,
+			PlyStructureHandler handler) {
+		PlyColumn[] columns = handler instanceof PlyColumnHandler ? ((PlyColumnHandler) handler)
+				.plyColumns(element) : null;
+		if (columns != null) {
+			return decodeColumns(buffer, index, records, columns,
+					(PlyColumnHandler) handler);
+		} else if (handler instanceof PlyIndexedHandler) {
+			PlyIndexedHandler indexedHandler = (PlyIndexedHandler) handler;
+			int elementId = element.getId();
+			for (int r = 0; r < records; ++r, index += stride) {
+				indexedHandler.plyElementStart(elementId);
+				for (int p = 0; p < types.length; ++p) {
+					int i = index + offsets[p];
+					switch (types[p]) {
+					case FLOAT32:
+						indexedHandler.plyProperty(elementId, ids[p],
+								(double) buffer.getFloat(i));
+						break;
+					case FLOAT64:
+						indexedHandler.plyProperty(elementId, ids[p],
+								buffer.getDouble(i));
+						break;
+					case UINT32:
+						indexedHandler.plyProperty(elementId, ids[p],
+								getLong(buffer, i, UINT32));
+						break;
+					default:
+						indexedHandler.plyProperty(elementId, ids[p],
+								(int) getLong(buffer, i, types[p]));
+					}
+				}
+				indexedHandler.plyElementEnd();
+			}
+		} else if (handler instanceof PlyPrimitiveHandler) {
+			PlyPrimitiveHandler primitiveHandler = (PlyPrimitiveHandler) handler;
+			String elementName = element.getName();
+			for (int r = 0; r < records; ++r, index += stride) {
+				primitiveHandler.plyElementStart(elementName);
+				for (int p = 0; p < types.length; ++p) {
+					int i = index + offsets[p];
+					switch (types[p]) {
+					case FLOAT32:
+						primitiveHandler.plyProperty(names[p],
+								(double) buffer.getFloat(i));
+						break;
+					case FLOAT64:
+						primitiveHandler.plyProperty(names[p],
+								buffer.getDouble(i));
+						break;
+					case UINT32:
+						primitiveHandler.plyProperty(names[p],
+								getLong(buffer, i, UINT32));
+						break;
+					default:
+						primitiveHandler.plyProperty(names[p],
+								(int) getLong(buffer, i, types[p]));
+					}
+				}
+				primitiveHandler.plyElementEnd();
+			}
+		} else {
+			PlyHandler namedHandler = (PlyHandler) handler;
+			String elementName = element.getName();
+			for (int r = 0; r < records; ++r, index += stride) {
+				namedHandler.plyElementStart(elementName);
+				for (int p = 0; p < types.length; ++p) {
+					int i = index + offsets[p];
+					if (types[p] == FLOAT32)
+						namedHandler.plyProperty(names[p],
+								Double.valueOf(buffer.getFloat(i)));
+					else if (types[p] == FLOAT64)
+						namedHandler.plyProperty(names[p],
+								Double.valueOf(buffer.getDouble(i)));
+					else
+						namedHandler.plyProperty(names[p],
+								Long.valueOf(getLong(buffer, i, types[p])));
+				}
+				namedHandler.plyElementEnd();
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Decodes the given number of occurrences of the element, starting at the
+	 * given index of the given buffer, into the given columns of the given
+	 * handler. The values are converted column by column, so the unsigned
+	 * types keep the bits of the file as described in {@link PlyColumn}.
+	 *
+	 * @param buffer
+	 *            the buffer to decode the occurrences from.
+	 * @param index
+	 *            the index of the first byte of the first occurrence.
+	 * @param records
+	 *            the number of occurrences to decode.
+	 * @param columns
+	 *            the columns of the properties, by their id.
+	 * @param handler
+	 *            the handler of the columns.
+	 * @return the index after the last decoded occurrence.
+	 */
+	private int decodeColumns(ByteBuffer buffer, int index, int records,
+			PlyColumn[] columns, PlyColumnHandler handler) {
+		int tile = Math.max(1, TILE_BYTES / stride);
+		while (records > 0) {
+			int n = Math.min(Math.min(records, tile),
+					handler.plyColumnsRemaining());
+			int first = handler.plyColumnsNext();
+			for (int p = 0; p < types.length; ++p)
+				decodeColumn(buffer, index + offsets[p], stride, n, types[p],
+						columns[ids[p]].getArray(), first);
+			handler.plyColumnsFilled(n);
+			index += n * stride;
+			records -= n;
+		}
+		return index;
+	}
+
+	/**
+	 * Converts the given number of values of the given type, which are the
+	 * given number of bytes apart in the given buffer, into the given array
+	 * in the byte order of the platform.
+	 *
+	 * When the stride is the size of the type, which is the case for an
+	 * element with a single property, the values are adjacent and are
+	 * converted in bulk through a view of the buffer, which swaps the bytes
+	 * of all the values at once when the byte order of the buffer is not the
+	 * native order. Otherwise every value is read at its stride: gathering
+	 * the adjacent properties of the same type of interleaved occurrences in
+	 * a bulk read, and spreading them over their columns afterwards, is
+	 * slower than reading them one by one.
+	 *
+	 * @param buffer
+	 *            the buffer to convert the values from, in the byte order of
+	 *            the values.
+	 * @param index
+	 *            the index of the first byte of the first value.
+	 * @param stride
+	 *            the number of bytes between two values.
+	 * @param count
+	 *            the number of values to convert.
+	 * @param type
+	 *            the type code of the values.
+	 * @param array
+	 *            the array of the type of the values to store them in.
+	 * @param first
+	 *            the index in the array of the first value.
+	 */
+	static void decodeColumn(ByteBuffer buffer, int index, int stride,
+			int count, int type, Object array, int first) {
+		int to = first + count;
+		switch (type) {
+		case INT8:
+		case UINT8: {
+			byte[] values = (byte[]) array;
+			if (stride == 1)
+				view(buffer, index).get(values, first, count);
+			else
+				for (int r = first; r < to; ++r, index += stride)
+					values[r] = buffer.get(index);
+			break;
+		}
+		case INT16:
+		case UINT16: {
+			short[] values = (short[]) array;
+			if (stride == 2)
+				view(buffer, index).asShortBuffer().get(values, first, count);
+			else
+				for (int r = first; r < to; ++r, index += stride)
+					values[r] = buffer.getShort(index);
+			break;
+		}
+		case INT32:
+		case UINT32: {
+			int[] values = (int[]) array;
+			if (stride == 4)
+				view(buffer, index).asIntBuffer().get(values, first, count);
+			else
+				for (int r = first; r < to; ++r, index += stride)
+					values[r] = buffer.getInt(index);
+			break;
+		}
+		case FLOAT32: {
+			float[] values = (float[]) array;
+			if (stride == 4)
+				view(buffer, index).asFloatBuffer().get(values, first, count);
+			else
+				for (int r = first; r < to; ++r, index += stride)
+					values[r] = buffer.getFloat(index);
+			break;
+		}
+		default: {
+			double[] values = (double[]) array;
+			if (stride == 8)
+				view(buffer, index).asDoubleBuffer()
+						.get(values, first, count);
+			else
+				for (int r = first; r < to; ++r, index += stride)
+					values[r] = buffer.getDouble(index);
+		}
+		}
+	}
+
+	/**
+	 * Returns a view of the given buffer, with the same byte order, which
+	 * starts at the given index.
+	 *
+	 * @param buffer
+	 *            the buffer to view.
+	 * @param index
+	 *            the index of the first byte of the view.
+	 * @return a view of the buffer from the given index.
+	 */
+	private static ByteBuffer view(ByteBuffer buffer, int index) {
+		ByteBuffer view = buffer.duplicate().order(buffer.order());
+		view.position(index);
+		return view;
+	}
+
+	/**
+	 * Returns the integer of the given type at the given index of the given
+	 * buffer.
+	 *
+	 * @param buffer
+	 *            the buffer to read the value from.
+	 * @param index
+	 *            the index of the value.
+	 * @param type
+	 *            the type code of the value.
+	 * @return the integer of the given type at the given index.
+	 */
+	static long getLong(ByteBuffer buffer, int index, int type) {
+		switch (type) {
+		case INT8:
+			return buffer.get(index);
+		case UINT8:
+			return buffer.get(index) & 0xff;
+		case INT16:
+			return buffer.getShort(index);
+		case UINT16:
+			return buffer.getShort(index) & 0xffff;
+		case INT32:
+			return buffer.getInt(index);
+		case UINT32:
+			return buffer.getInt(index) & 0xffffffffL;
+		default:
+			throw new IllegalArgumentException("not an integer type: " + type);
+		}
+	}
+
+	/**
+	 * Returns the type code of the given scalar {@link DataType}.
+	 *
+	 * @param type
+	 *            the scalar data type.
+	 * @return the type code of the given scalar {@link DataType}.
+	 * @throws IllegalArgumentException
+	 *             when the given data type is not a scalar.
+	 */
+	static int typeOf(DataType<?> type) throws IllegalArgumentException {
+		if (type == Int8.INT8)
+			return INT8;
+		else if (type == UInt8.UINT8)
+			return UINT8;
+		else if (type == Int16.INT16)
+			return INT16;
+		else if (type == UInt16.UINT16)
+			return UINT16;
+		else if (type == Int32.INT32)
+			return INT32;
+		else if (type == UInt32.UINT32)
+			return UINT32;
+		else if (type == Float32.FLOAT32)
+			return FLOAT32;
+		else if (type == Float64.FLOAT64)
+			return FLOAT64;
+		throw new IllegalArgumentException("not a scalar type: "
+				+ type.toPLY());
+	}
+
+	/**
+	 * Returns the number of bytes of the given type code.
+	 *
+	 * @param type
+	 *            the type code.
+	 * @return the number of bytes of the given type code.
+	 */
+	static int nbOfBytes(int type) {
+		switch (type) {
+		case INT8:
+		case UINT8:
+			return 1;
+		case INT16:
+		case UINT16:
+			return 2;
+		case FLOAT64:
+			return 8;
+		default:
+			return 4;
+		}
+	}
+}
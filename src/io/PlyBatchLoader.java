@@ -0,0 +1,353 @@
+package io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import core.PlyMesh;
+
+/**
+ * Loads many PLY Files concurrently with the {@link PlyMeshLoader}.
+ *
+ * The loader parses at most the given number of files at the same time, and
+ * keeps the total size of the files which are being parsed below the given
+ * number of bytes. A file which is larger than this budget is parsed on its
+ * own. The limits bound the number of open files and the memory of a batch
+ * of thousands of files, whose loads would otherwise all start at once.
+ *
+ * A failed file does not abort the other files of a batch: its exception is
+ * reported in its {@link PlyBatchResult} or its {@link Future}.
+ *
+ * The loader should be closed when it is no longer used, which stops its
+ * threads after the submitted files have been loaded.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class PlyBatchLoader implements Closeable {
+	/**
+	 * The number of the next loader, used to name its threads.
+	 */
+	private static final AtomicInteger LOADERS = new AtomicInteger();
+
+	/**
+	 * The maximum number of files which are parsed at the same time.
+	 */
+	private final int maxOpenFiles;
+
+	/**
+	 * The maximum total size of the files which are parsed at the same time.
+	 */
+	private final long maxBytesInFlight;
+
+	/**
+	 * The options which are used to parse the files.
+	 */
+	private final PlyReaderOptions options;
+
+	/**
+	 * The threads which load the files.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * The total size of the files which are being parsed.
+	 */
+	private long bytesInFlight = 0;
+
+	/**
+	 * Creates a new {@link PlyBatchLoader} which parses at most the given
+	 * number of files and bytes at the same time with the default options.
+	 *
+	 * @param maxOpenFiles
+	 *            the maximum number of files which are parsed at the same
+	 *            time.
+	 * @param maxBytesInFlight
+	 *            the maximum total size of the files which are parsed at the
+	 *            same time.
+	 * @throws IllegalArgumentException
+	 *             when one of the limits is smaller than one.
+	 */
+	public PlyBatchLoader(int maxOpenFiles, long maxBytesInFlight)
+			throws IllegalArgumentException {
+		this(maxOpenFiles, maxBytesInFlight, new PlyReaderOptions());
+	}
+
+	/**
+	 * Creates a new {@link PlyBatchLoader} which parses at most the given
+	 * number of files and bytes at the same time with the given options.
+	 *
+	 * @param maxOpenFiles
+	 *            the maximum number of files which are parsed at the same
+	 *            time.
+	 * @param maxBytesInFlight
+	 *            the maximum total size of the files which are parsed at the
+	 *            same time.
+	 * @param options
+	 *            the options which are used to parse the files.
+	 * @throws IllegalArgumentException
+	 *             when one of the limits is smaller than one.
+	 * @throws NullPointerException
+	 *             when the options are null.
+	 */
+	public PlyBatchLoader(int maxOpenFiles, long maxBytesInFlight,
+			PlyReaderOptions options) throws IllegalArgumentException,
+			NullPointerException {
+		if (maxOpenFiles < 1)
+			throw new IllegalArgumentException(
+					"the maximum number of open files must be at least one!");
+		if (maxBytesInFlight < 1)
+			throw new IllegalArgumentException(
+					"the maximum number of bytes in flight must be at least one!");
+		if (options == null)
+			throw new NullPointerException("the options cannot be null!");
+		this.maxOpenFiles = maxOpenFiles;
+		this.maxBytesInFlight = maxBytesInFlight;
+		this.options = options;
+
+		final String name = "PlyBatchLoader-" + LOADERS.incrementAndGet()
+				+ "-";
+		this.executor = Executors.newFixedThreadPool(maxOpenFiles,
+				new ThreadFactory() {
+					private final AtomicInteger threads = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new Thread(runnable, name
+								+ threads.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+	}
+
+	/**
+	 * Returns the maximum number of files which are parsed at the same time.
+	 *
+	 * @return the maximum number of files which are parsed at the same time.
+	 */
+	public int getMaxOpenFiles() {
+		return maxOpenFiles;
+	}
+
+	/**
+	 * Returns the maximum total size of the files which are parsed at the
+	 * same time.
+	 *
+	 * @return the maximum number of bytes in flight.
+	 */
+	public long getMaxBytesInFlight() {
+		return maxBytesInFlight;
+	}
+
+	/**
+	 * Returns the total size of the files which are being parsed.
+	 *
+	 * @return the number of bytes in flight.
+	 */
+	public synchronized long getBytesInFlight() {
+		return bytesInFlight;
+	}
+
+	/**
+	 * Submits the file at the given path to be loaded.
+	 *
+	 * @param path
+	 *            the path of the file.
+	 * @return the future of the mesh of the file, which throws the exception
+	 *         of the load wrapped in an
+	 *         {@link java.util.concurrent.ExecutionException} when the load
+	 *         fails.
+	 * @throws NullPointerException
+	 *             when the path is null.
+	 */
+	public Future<PlyMesh> submit(final Path path) throws NullPointerException {
+		if (path == null)
+			throw new NullPointerException("the path cannot be null!");
+		return executor.submit(new Callable<PlyMesh>() {
+			@Override
+			public PlyMesh call() throws Exception {
+				PlyBatchResult result = load(path);
+				if (!result.isSuccessful())
+					throw result.getException();
+				return result.getMesh();
+			}
+		});
+	}
+
+	/**
+	 * Submits the files at the given paths to be loaded.
+	 *
+	 * @param paths
+	 *            the paths of the files.
+	 * @return the futures of the meshes of the files, in the order of the
+	 *         paths.
+	 * @throws NullPointerException
+	 *             when one of the paths is null.
+	 */
+	public List<Future<PlyMesh>> submitAll(Collection<? extends Path> paths)
+			throws NullPointerException {
+		List<Future<PlyMesh>> futures = new ArrayList<Future<PlyMesh>>(
+				paths.size());
+		for (Path path : paths)
+			futures.add(submit(path));
+		return futures;
+	}
+
+	/**
+	 * Submits the files at the given paths to be loaded, and returns their
+	 * results in the order in which the loads complete.
+	 *
+	 * The {@link Iterator#next()} method of the returned iterator waits for
+	 * the next load to complete. When the waiting thread is interrupted, its
+	 * interrupt status is set and a {@link NoSuchElementException} is thrown.
+	 *
+	 * @param paths
+	 *            the paths of the files.
+	 * @return an iterator over the result of every file, in the order in
+	 *         which they complete.
+	 * @throws NullPointerException
+	 *             when one of the paths is null.
+	 */
+	public Iterator<PlyBatchResult> loadAll(Collection<? extends Path> paths)
+			throws NullPointerException {
+		final BlockingQueue<PlyBatchResult> results = new LinkedBlockingQueue<PlyBatchResult>();
+		for (Path path : paths)
+			if (path == null)
+				throw new NullPointerException("the paths cannot be null!");
+		for (final Path path : paths)
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					PlyBatchResult result = null;
+					try {
+						result = load(path);
+					} catch (InterruptedIOException e) {
+						result = new PlyBatchResult(path, null, e, 0);
+					} finally {
+						if (result == null)
+							result = new PlyBatchResult(path, null,
+									new IOException("the load was aborted"),
+									0);
+						results.add(result);
+					}
+				}
+			});
+
+		final int count = paths.size();
+		return new Iterator<PlyBatchResult>() {
+			private int returned = 0;
+
+			@Override
+			public boolean hasNext() {
+				return returned < count;
+			}
+
+			@Override
+			public PlyBatchResult next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				try {
+					PlyBatchResult result = results.take();
+					++returned;
+					return result;
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new NoSuchElementException(
+							"interrupted while waiting for a result");
+				}
+			}
+		};
+	}
+
+	/**
+	 * Loads the file at the given path once its size fits within the budget
+	 * of bytes in flight.
+	 *
+	 * @param path
+	 *            the path of the file.
+	 * @return the result of the load.
+	 * @throws InterruptedIOException
+	 *             when the thread is interrupted while it waits for the
+	 *             budget.
+	 */
+	private PlyBatchResult load(Path path) throws InterruptedIOException {
+		long size;
+		try {
+			size = Math.min(Files.size(path), maxBytesInFlight);
+		} catch (IOException e) {
+			return new PlyBatchResult(path, null, e, 0);
+		}
+
+		reserve(size);
+		long start = System.nanoTime();
+		try {
+			PlyMesh mesh = PlyMeshLoader.load(path, options);
+			return new PlyBatchResult(path, mesh, null, System.nanoTime()
+					- start);
+		} catch (Exception e) {
+			return new PlyBatchResult(path, null, e, System.nanoTime()
+					- start);
+		} finally {
+			release(size);
+		}
+	}
+
+	/**
+	 * Waits until the given number of bytes fits within the budget of bytes
+	 * in flight and adds them.
+	 *
+	 * @param bytes
+	 *            the number of bytes to add, at most the budget.
+	 * @throws InterruptedIOException
+	 *             when the thread is interrupted while it waits.
+	 */
+	private synchronized void reserve(long bytes)
+			throws InterruptedIOException {
+		try {
+			while (bytesInFlight + bytes > maxBytesInFlight)
+				wait();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(
+					"interrupted while waiting for the bytes in flight");
+		}
+		bytesInFlight += bytes;
+	}
+
+	/**
+	 * Removes the given number of bytes from the bytes in flight.
+	 *
+	 * @param bytes
+	 *            the number of bytes to remove.
+	 */
+	private synchronized void release(long bytes) {
+		bytesInFlight -= bytes;
+		notifyAll();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,115 @@
+package io;
+
+import java.nio.file.Path;
+
+import core.PlyMesh;
+
+/**
+ * The result of loading one file of a batch with a {@link PlyBatchLoader}:
+ * either the loaded mesh, or the exception which stopped the load.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class PlyBatchResult {
+	/**
+	 * The path of the file.
+	 */
+	private final Path path;
+
+	/**
+	 * The loaded mesh, or <code>null</code> when the load failed.
+	 */
+	private final PlyMesh mesh;
+
+	/**
+	 * The exception which stopped the load, or <code>null</code> when the
+	 * load succeeded.
+	 */
+	private final Exception exception;
+
+	/**
+	 * The number of nanoseconds it took to load the file.
+	 */
+	private final long nanos;
+
+	/**
+	 * Creates a new result for the file at the given path.
+	 *
+	 * @param path
+	 *            the path of the file.
+	 * @param mesh
+	 *            the loaded mesh, or <code>null</code> when the load failed.
+	 * @param exception
+	 *            the exception which stopped the load, or <code>null</code>.
+	 * @param nanos
+	 *            the number of nanoseconds it took to load the file.
+	 */
+	PlyBatchResult(Path path, PlyMesh mesh, Exception exception, long nanos) {
+		this.path = path;
+		this.mesh = mesh;
+		this.exception = exception;
+		this.nanos = nanos;
+	}
+
+	/**
+	 * Returns the path of the file.
+	 *
+	 * @return the path of the file.
+	 */
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * Returns whether the file was loaded.
+	 *
+	 * @return whether the file was loaded.
+	 */
+	public boolean isSuccessful() {
+		return exception == null;
+	}
+
+	/**
+	 * Returns the loaded mesh, or <code>null</code> when the load failed.
+	 *
+	 * @return the loaded mesh or <code>null</code>.
+	 */
+	public PlyMesh getMesh() {
+		return mesh;
+	}
+
+	/**
+	 * Returns the exception which stopped the load, or <code>null</code> when
+	 * the file was loaded. This is usually an {@link java.io.IOException} or
+	 * a {@link ParseException}.
+	 *
+	 * @return the exception which stopped the load or <code>null</code>.
+	 */
+	public Exception getException() {
+		return exception;
+	}
+
+	/**
+	 * Returns the number of nanoseconds it took to load the file, excluding
+	 * the time it waited for the limits of the loader.
+	 *
+	 * @return the number of nanoseconds it took to load the file.
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		if (exception != null)
+			return path + ": " + exception;
+		return String.format("%s: %d bytes in %.1f ms", path,
+				mesh.nbOfBytes(), nanos / 1e6);
+	}
+}
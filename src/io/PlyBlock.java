@@ -0,0 +1,188 @@
+package io;
+
+import core.ElementDefinition;
+import core.PlyColumn;
+import core.PropertyDefinition;
+import core.datatype.DataType;
+import core.datatype.PlyList;
+import core.datatype.Scalar;
+
+/**
+ * A block of consecutive occurrences of an element which is passed to a
+ * {@link PlyBlockHandler}.
+ *
+ * Every scalar property has a {@link PlyColumn} with a value for every
+ * occurrence of the block, stored in a primitive array of the type of the
+ * property. Every list property has an array of offsets and a column with
+ * the values of all its lists, in the same form as a
+ * {@link core.PlyListColumn}: the list of occurrence <code>i</code> consists
+ * of the values from index <code>offsets[i]</code> up to, but not including,
+ * index <code>offsets[i + 1]</code>.
+ *
+ * The arrays are larger than the block: only the first {@link #size()}
+ * values of a scalar column, the first {@link #size()} + 1 offsets and the
+ * values up to the last offset are valid. The properties are indexed by
+ * their id in the element of the block.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class PlyBlock {
+	/**
+	 * The element of the occurrences.
+	 */
+	private final ElementDefinition element;
+
+	/**
+	 * The maximum number of occurrences in the block.
+	 */
+	private final int capacity;
+
+	/**
+	 * The values of every scalar property, or of all the lists of every list
+	 * property.
+	 */
+	final PlyColumn[] columns;
+
+	/**
+	 * The offsets of the lists of every list property, or <code>null</code>
+	 * for the scalar properties.
+	 */
+	final int[][] offsets;
+
+	/**
+	 * The index of the first occurrence of the block.
+	 */
+	int first;
+
+	/**
+	 * The number of occurrences in the block.
+	 */
+	int size;
+
+	/**
+	 * Creates a new empty {@link PlyBlock} for at most the given number of
+	 * occurrences of the given element.
+	 *
+	 * @param element
+	 *            the element of the occurrences.
+	 * @param capacity
+	 *            the maximum number of occurrences in the block.
+	 * @param first
+	 *            the index of the first occurrence of the block.
+	 */
+	PlyBlock(ElementDefinition element, int capacity, int first) {
+		this.element = element;
+		this.capacity = capacity;
+		this.first = first;
+
+		int n = element.nbOfProperties();
+		columns = new PlyColumn[n];
+		offsets = new int[n][];
+		for (int p = 0; p < n; ++p) {
+			DataType<?> type = element.getProperty(p).getDataType();
+			if (type instanceof PlyList) {
+				PlyList<?> list = (PlyList<?>) type;
+				columns[p] = new PlyColumn(list.getDataType(), 4 * capacity);
+				offsets[p] = new int[capacity + 1];
+			} else {
+				columns[p] = new PlyColumn((Scalar<?>) type, capacity);
+			}
+		}
+	}
+
+	/**
+	 * Returns the element of the occurrences.
+	 *
+	 * @return the element of the occurrences.
+	 */
+	public ElementDefinition getElement() {
+		return element;
+	}
+
+	/**
+	 * Returns the index of the first occurrence of this block among the
+	 * occurrences of the element.
+	 *
+	 * @return the index of the first occurrence of this block.
+	 */
+	public int getFirst() {
+		return first;
+	}
+
+	/**
+	 * Returns the number of occurrences in this block.
+	 *
+	 * @return the number of occurrences in this block.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the maximum number of occurrences in this block.
+	 *
+	 * @return the maximum number of occurrences in this block.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the column with the values of the scalar property with the
+	 * given id, or with the values of all the lists of the list property with
+	 * the given id.
+	 *
+	 * @param property
+	 *            the id of the property.
+	 * @return the column with the values of the property.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             when the element has no property with the given id.
+	 */
+	public PlyColumn getColumn(int property)
+			throws ArrayIndexOutOfBoundsException {
+		return columns[property];
+	}
+
+	/**
+	 * Returns the column with the values of the property with the given name,
+	 * or <code>null</code> when the element has no such property.
+	 *
+	 * @param name
+	 *            the name of the property.
+	 * @return the column with the values of the property.
+	 */
+	public PlyColumn getColumn(String name) {
+		PropertyDefinition property = element.getProperty(name);
+		return property == null ? null : columns[property.getId()];
+	}
+
+	/**
+	 * Returns the offsets of the lists of the list property with the given
+	 * id, or <code>null</code> when the property is a scalar.
+	 *
+	 * @param property
+	 *            the id of the property.
+	 * @return the offsets of the lists of the property.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             when the element has no property with the given id.
+	 */
+	public int[] getOffsets(int property)
+			throws ArrayIndexOutOfBoundsException {
+		return offsets[property];
+	}
+
+	/**
+	 * Returns the offsets of the lists of the list property with the given
+	 * name, or <code>null</code> when the property is a scalar or when the
+	 * element has no such property.
+	 *
+	 * @param name
+	 *            the name of the property.
+	 * @return the offsets of the lists of the property.
+	 */
+	public int[] getOffsets(String name) {
+		PropertyDefinition property = element.getProperty(name);
+		return property == null ? null : offsets[property.getId()];
+	}
+}
@@ -0,0 +1,274 @@
+package io;
+
+import core.ElementDefinition;
+import core.Format;
+import core.PlyColumn;
+
+/**
+ * Collects the occurrences of an element in a {@link PlyBlock} and passes
+ * the block to a {@link PlyBlockHandler} whenever it is full.
+ *
+ * The builder is passed to the decoders of the {@link PlyReader} instead of
+ * the block handler. It receives the values of the occurrences through the
+ * callbacks of a {@link PlyIndexedHandler}, or directly from the buffer of
+ * the reader as a {@link PlyColumnHandler}. {@link #flush()} must be called
+ * after the last occurrence.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+class PlyBlockBuilder implements PlyColumnHandler {
+	/**
+	 * The handler which receives the blocks.
+	 */
+	private final PlyBlockHandler handler;
+
+	/**
+	 * The block which is filled.
+	 */
+	private final PlyBlock block;
+
+	/**
+	 * Creates a new {@link PlyBlockBuilder} which passes blocks of at most the
+	 * given number of occurrences of the given element to the given handler.
+	 *
+	 * @param element
+	 *            the element of the occurrences.
+	 * @param capacity
+	 *            the maximum number of occurrences in a block.
+	 * @param first
+	 *            the index of the first occurrence which is collected.
+	 * @param handler
+	 *            the handler which receives the blocks.
+	 */
+	PlyBlockBuilder(ElementDefinition element, int capacity, int first,
+			PlyBlockHandler handler) {
+		this.handler = handler;
+		this.block = new PlyBlock(element, capacity, first);
+	}
+
+	/**
+	 * Marks the given number of occurrences, whose values have been stored in
+	 * the columns of the block, as added, and passes the block to the handler
+	 * when it is full.
+	 *
+	 * @param records
+	 *            the number of added occurrences.
+	 */
+	private void added(int records) {
+		block.size += records;
+		if (block.size == block.getCapacity())
+			flush();
+	}
+
+	/**
+	 * Passes the occurrences in the block to the handler, unless the block is
+	 * empty, and starts a new block after them.
+	 */
+	void flush() {
+		if (block.size == 0)
+			return;
+		handler.plyBlock(block);
+		block.first += block.size;
+		block.size = 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyColumnHandler#plyColumns(core.ElementDefinition)
+	 */
+	@Override
+	public PlyColumn[] plyColumns(ElementDefinition element) {
+		return block.columns;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyColumnHandler#plyColumnsNext()
+	 */
+	@Override
+	public int plyColumnsNext() {
+		return block.size;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyColumnHandler#plyColumnsRemaining()
+	 */
+	@Override
+	public int plyColumnsRemaining() {
+		return block.getCapacity() - block.size;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyColumnHandler#plyColumnsFilled(int)
+	 */
+	@Override
+	public void plyColumnsFilled(int records) {
+		added(records);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyStructureHandler#plyHeaderFormat(core.Format, int, int)
+	 */
+	@Override
+	public void plyHeaderFormat(Format format, int majorVersion,
+			int minorVersion) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyStructureHandler#plyHeaderComment(java.lang.String)
+	 */
+	@Override
+	public void plyHeaderComment(String comment) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyStructureHandler#plyHeaderEnd()
+	 */
+	@Override
+	public void plyHeaderEnd() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyStructureHandler#plyElementDefinition(core.ElementDefinition)
+	 */
+	@Override
+	public void plyElementDefinition(ElementDefinition element) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyElementStart(int)
+	 */
+	@Override
+	public void plyElementStart(int elementId) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyStructureHandler#plyElementEnd()
+	 */
+	@Override
+	public void plyElementEnd() {
+		added(1);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyProperty(int, int, int)
+	 */
+	@Override
+	public void plyProperty(int elementId, int propertyId, int value) {
+		block.columns[propertyId].setLong(block.size, value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyProperty(int, int, long)
+	 */
+	@Override
+	public void plyProperty(int elementId, int propertyId, long value) {
+		block.columns[propertyId].setLong(block.size, value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyProperty(int, int, double)
+	 */
+	@Override
+	public void plyProperty(int elementId, int propertyId, double value) {
+		block.columns[propertyId].setDouble(block.size, value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyListProperty(int, int, int[], int)
+	 */
+	@Override
+	public void plyListProperty(int elementId, int propertyId, int[] values,
+			int size) {
+		PlyColumn column = reserve(propertyId, size);
+		int start = block.offsets[propertyId][block.size];
+		Object array = column.getArray();
+		if (array instanceof int[]) {
+			// the lists are short, a loop is cheaper than System.arraycopy
+			int[] target = (int[]) array;
+			for (int i = 0; i < size; ++i)
+				target[start + i] = values[i];
+		} else
+			for (int i = 0; i < size; ++i)
+				column.setLong(start + i, values[i]);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyListProperty(int, int, long[], int)
+	 */
+	@Override
+	public void plyListProperty(int elementId, int propertyId, long[] values,
+			int size) {
+		PlyColumn column = reserve(propertyId, size);
+		int start = block.offsets[propertyId][block.size];
+		for (int i = 0; i < size; ++i)
+			column.setLong(start + i, values[i]);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyListProperty(int, int, double[], int)
+	 */
+	@Override
+	public void plyListProperty(int elementId, int propertyId,
+			double[] values, int size) {
+		PlyColumn column = reserve(propertyId, size);
+		int start = block.offsets[propertyId][block.size];
+		for (int i = 0; i < size; ++i)
+			column.setDouble(start + i, values[i]);
+	}
+
+	/**
+	 * Adds a list of the given size to the list property with the given id
+	 * for the current occurrence, and returns the column of the values, which
+	 * is grown when it is too small.
+	 *
+	 * @param property
+	 *            the id of the list property.
+	 * @param size
+	 *            the number of values in the list.
+	 * @return the column of the values of the property.
+	 */
+	private PlyColumn reserve(int property, int size) {
+		int[] offsets = block.offsets[property];
+		int start = block.size == 0 ? 0 : offsets[block.size];
+		offsets[block.size] = start;
+		offsets[block.size + 1] = start + size;
+
+		PlyColumn column = block.columns[property];
+		if (start + size > column.size())
+			block.columns[property] = column = column.copyOf(Math.max(start
+					+ size, 2 * column.size()));
+		return column;
+	}
+}
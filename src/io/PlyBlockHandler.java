@@ -0,0 +1,45 @@
+package io;
+
+import core.ElementDefinition;
+
+/**
+ * A handler which receives the occurrences of an element in blocks of many
+ * occurrences at a time, as a primitive column for every property, instead
+ * of the element and property callbacks of every single occurrence.
+ *
+ * When the handler accepts an element, the occurrences of the element are
+ * collected in a {@link PlyBlock} of at most
+ * {@link PlyReaderOptions#getBlockSize()} occurrences, which is passed to
+ * {@link #plyBlock(PlyBlock)} when it is full and after the last occurrence.
+ * In binary files, the columns of the elements without list properties are
+ * filled directly from the buffer of the reader. The other elements are
+ * passed to the usual callbacks.
+ *
+ * When the handler is also a {@link PlyParallelHandler}, the handlers of the
+ * ranges which implement this interface receive the blocks of their range.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public interface PlyBlockHandler extends PlyStructureHandler {
+	/**
+	 * Returns whether the occurrences of the given element should be passed
+	 * in blocks.
+	 *
+	 * @param element
+	 *            the element which is about to be parsed.
+	 * @return whether the occurrences should be passed in blocks.
+	 */
+	public boolean plyAcceptsBlocks(ElementDefinition element);
+
+	/**
+	 * Called with the next block of occurrences of an element which was
+	 * accepted by {@link #plyAcceptsBlocks(ElementDefinition)}. The block and
+	 * its columns are reused for the next block of the element, so they are
+	 * only valid during the callback.
+	 *
+	 * @param block
+	 *            the block with the occurrences.
+	 */
+	public void plyBlock(PlyBlock block);
+}
@@ -0,0 +1,50 @@
+package io;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import core.ElementDefinition;
+
+/**
+ * A handler which can receive the occurrences of an element in a binary PLY
+ * file as raw bytes, so they can be copied in bulk instead of being decoded
+ * value by value.
+ *
+ * Only elements whose properties are all scalars are offered as raw bytes.
+ * When the handler accepts an element, the bytes of its occurrences are
+ * passed in order, in one or more blocks of whole occurrences, instead of the
+ * usual element and property callbacks.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public interface PlyBulkHandler extends PlyStructureHandler {
+	/**
+	 * Returns whether the occurrences of the given element, whose values are
+	 * stored in the given byte order, should be passed as raw bytes.
+	 *
+	 * @param element
+	 *            the element which is about to be decoded.
+	 * @param order
+	 *            the byte order of the values in the file.
+	 * @return whether the occurrences should be passed as raw bytes.
+	 */
+	public boolean plyAcceptsBytes(ElementDefinition element, ByteOrder order);
+
+	/**
+	 * Called with the raw bytes of the next occurrences of an element which
+	 * was accepted by {@link #plyAcceptsBytes(ElementDefinition, ByteOrder)}.
+	 * The bytes from the position up to the limit of the given buffer hold
+	 * exactly the given number of occurrences. The buffer has the byte order
+	 * of the file and is only valid during the callback.
+	 *
+	 * @param element
+	 *            the element of the occurrences.
+	 * @param bytes
+	 *            the buffer with the bytes of the occurrences.
+	 * @param records
+	 *            the number of occurrences in the buffer.
+	 */
+	public void plyElementBytes(ElementDefinition element, ByteBuffer bytes,
+			int records);
+}
@@ -0,0 +1,60 @@
+package io;
+
+import core.ElementDefinition;
+import core.PlyColumn;
+
+/**
+ * Handler which receives the occurrences of elements with a fixed size
+ * directly in the primitive arrays of its columns.
+ *
+ * Instead of passing every value to the handler, the
+ * {@link FixedStrideDecoder} converts whole runs of a property from the
+ * buffer of the reader into the array of its column, in the byte order of
+ * the platform. The handler only receives the callbacks of a
+ * {@link PlyIndexedHandler} for the elements whose columns it does not
+ * provide. Columnar loaders, such as the {@link PlyMeshLoader}, implement
+ * it to avoid a call for every value.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public interface PlyColumnHandler extends PlyIndexedHandler {
+	/**
+	 * Returns the columns which receive the occurrences of the given element,
+	 * by the id of their property, or <code>null</code> when the values of
+	 * the element should be passed one by one. Every property of the element
+	 * must have a column which is stored in an array of its type.
+	 *
+	 * @param element
+	 *            the element of the occurrences.
+	 * @return the columns of the properties of the element, or
+	 *         <code>null</code>.
+	 */
+	public PlyColumn[] plyColumns(ElementDefinition element);
+
+	/**
+	 * Returns the index in the columns at which the next occurrence is
+	 * stored.
+	 *
+	 * @return the index in the columns of the next occurrence.
+	 */
+	public int plyColumnsNext();
+
+	/**
+	 * Returns the number of occurrences which can be stored in the columns
+	 * before {@link #plyColumnsFilled(int)} has to be called, which is at
+	 * least one.
+	 *
+	 * @return the number of occurrences which can be stored.
+	 */
+	public int plyColumnsRemaining();
+
+	/**
+	 * Called when the given number of occurrences has been stored in the
+	 * columns from {@link #plyColumnsNext()}.
+	 *
+	 * @param records
+	 *            the number of stored occurrences.
+	 */
+	public void plyColumnsFilled(int records);
+}
@@ -0,0 +1,58 @@
+package io;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event of the parse of all the occurrences of an
+ * element of a PLY File by a {@link PlyReader}.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+@Name("plylib.Element")
+@Label("PLY Element")
+@Description("The parse of all the occurrences of an element of a PLY File")
+@Category("PlyLib")
+final class PlyElementEvent extends Event {
+	/**
+	 * The path of the file.
+	 */
+	@Label("Path")
+	String path;
+
+	/**
+	 * The format of the file.
+	 */
+	@Label("Format")
+	String format;
+
+	/**
+	 * The name of the element.
+	 */
+	@Label("Element")
+	String element;
+
+	/**
+	 * The number of occurrences which were parsed or skipped.
+	 */
+	@Label("Records")
+	long records;
+
+	/**
+	 * Whether the occurrences were skipped instead of parsed.
+	 */
+	@Label("Skipped")
+	boolean skipped;
+
+	/**
+	 * The number of bytes which were read.
+	 */
+	@Label("Bytes Read")
+	@DataAmount
+	long bytes;
+}
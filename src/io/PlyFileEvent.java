@@ -0,0 +1,46 @@
+package io;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event of the parse of a whole PLY File by a
+ * {@link PlyReader}.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+@Name("plylib.File")
+@Label("PLY File")
+@Description("The parse of a PLY File")
+@Category("PlyLib")
+final class PlyFileEvent extends Event {
+	/**
+	 * The path of the file.
+	 */
+	@Label("Path")
+	String path;
+
+	/**
+	 * The format of the file.
+	 */
+	@Label("Format")
+	String format;
+
+	/**
+	 * The number of occurrences of all the elements which were parsed.
+	 */
+	@Label("Records")
+	long records;
+
+	/**
+	 * The number of bytes which were read.
+	 */
+	@Label("Bytes Read")
+	@DataAmount
+	long bytes;
+}
@@ -0,0 +1,542 @@
+package io;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import core.ElementDefinition;
+import core.Format;
+import core.PropertyDefinition;
+import core.datatype.DataType;
+import core.datatype.Float32;
+import core.datatype.Float64;
+import core.datatype.FloatScalar;
+import core.datatype.Int16;
+import core.datatype.Int32;
+import core.datatype.Int8;
+import core.datatype.IntScalar;
+import core.datatype.PlyList;
+import core.datatype.Scalar;
+import core.datatype.UInt16;
+import core.datatype.UInt32;
+import core.datatype.UInt8;
+
+/**
+ * Generates synthetic PLY Files of any size for benchmarks and load tests.
+ *
+ * The header is built from the {@link ElementDefinition}s which are added to
+ * the generator, and the body is streamed through a {@link PlyWriter} in any
+ * {@link Format}, so the memory use does not depend on the size of the file.
+ * The values are random and only depend on the seed of the generator:
+ * floating point values are normally distributed, integers are uniformly
+ * distributed over the range of their type, and the lengths of the lists
+ * follow a {@link SizeDistribution} per property. The values of the list
+ * properties named "vertex_indices" or "vertex_index" are valid indices of
+ * the "vertex" element when the file has one.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class PlyGenerator {
+	/**
+	 * The distribution of the lengths of the lists of a list property.
+	 */
+	public interface SizeDistribution {
+		/**
+		 * Returns the length of the next list.
+		 *
+		 * @param random
+		 *            the random number generator of the generator.
+		 * @return the length of the next list.
+		 */
+		public int nextSize(Random random);
+	}
+
+	/**
+	 * The type code of the floating point properties.
+	 */
+	private static final int FLOAT = 0;
+
+	/**
+	 * The type code of the integer properties.
+	 */
+	private static final int INTEGER = 1;
+
+	/**
+	 * The type code of the list properties of floating point values.
+	 */
+	private static final int FLOAT_LIST = 2;
+
+	/**
+	 * The type code of the list properties of integers.
+	 */
+	private static final int INTEGER_LIST = 3;
+
+	/**
+	 * The elements of the generated files.
+	 */
+	private final List<ElementDefinition> elements = new ArrayList<ElementDefinition>();
+
+	/**
+	 * The comments of the generated files.
+	 */
+	private final List<String> comments = new ArrayList<String>();
+
+	/**
+	 * The distribution of the lengths of the lists by the name of their
+	 * element and property, separated by a dot.
+	 */
+	private final Map<String, SizeDistribution> sizes = new HashMap<String, SizeDistribution>();
+
+	/**
+	 * The distribution of the lengths of the lists of the list properties
+	 * without a distribution of their own.
+	 */
+	private SizeDistribution defaultSizes = fixed(3);
+
+	/**
+	 * The seed of the random values.
+	 */
+	private long seed = 0;
+
+	/**
+	 * Creates a new {@link PlyGenerator} without any elements.
+	 */
+	public PlyGenerator() {
+	}
+
+	/**
+	 * Returns a generator of a triangle mesh with the given number of
+	 * vertices and faces. Every vertex has a float32 position and normal and
+	 * an uint8 color, and every face has a list of three int32 vertex
+	 * indices.
+	 *
+	 * @param vertices
+	 *            the number of vertices.
+	 * @param faces
+	 *            the number of faces.
+	 * @return a generator of a triangle mesh.
+	 * @throws IllegalArgumentException
+	 *             when one of the counts is negative.
+	 */
+	public static PlyGenerator mesh(int vertices, int faces)
+			throws IllegalArgumentException {
+		ElementDefinition vertex = new ElementDefinition("vertex", vertices, 0);
+		for (String name : new String[] { "x", "y", "z", "nx", "ny", "nz" })
+			vertex.addProperty(new PropertyDefinition(name, Float32.FLOAT32));
+		for (String name : new String[] { "red", "green", "blue" })
+			vertex.addProperty(new PropertyDefinition(name, UInt8.UINT8));
+
+		ElementDefinition face = new ElementDefinition("face", faces, 1);
+		face.addProperty(new PropertyDefinition("vertex_indices",
+				new PlyList<Long>(UInt8.UINT8, Int32.INT32)));
+
+		return new PlyGenerator().addElement(vertex).addElement(face);
+	}
+
+	/**
+	 * Returns a new {@link ElementDefinition} with a property of every scalar
+	 * type, from int8 to float64, followed by a list of every scalar type
+	 * with an uint8, uint16 and uint32 length. The properties are named after
+	 * their type.
+	 *
+	 * @param name
+	 *            the name of the element.
+	 * @param count
+	 *            the number of occurrences of the element.
+	 * @param id
+	 *            the id of the element.
+	 * @return an element with a property of every type.
+	 * @throws IllegalArgumentException
+	 *             when the count or id is negative.
+	 */
+	public static ElementDefinition allTypes(String name, int count, int id)
+			throws IllegalArgumentException {
+		Scalar<?>[] scalars = { Int8.INT8, UInt8.UINT8, Int16.INT16,
+				UInt16.UINT16, Int32.INT32, UInt32.UINT32, Float32.FLOAT32,
+				Float64.FLOAT64 };
+		IntScalar[] sizeTypes = { UInt8.UINT8, UInt16.UINT16, UInt32.UINT32 };
+
+		ElementDefinition element = new ElementDefinition(name, count, id);
+		for (Scalar<?> scalar : scalars)
+			element.addProperty(new PropertyDefinition(scalar.toPLY(), scalar));
+		for (int i = 0; i < scalars.length; ++i)
+			element.addProperty(new PropertyDefinition("list_"
+					+ scalars[i].toPLY(), list(
+					sizeTypes[i % sizeTypes.length], scalars[i])));
+		return element;
+	}
+
+	/**
+	 * Returns a distribution which always returns the given length.
+	 *
+	 * @param size
+	 *            the length of the lists.
+	 * @return a distribution which always returns the given length.
+	 * @throws IllegalArgumentException
+	 *             when the length is negative.
+	 */
+	public static SizeDistribution fixed(final int size)
+			throws IllegalArgumentException {
+		if (size < 0)
+			throw new IllegalArgumentException(
+					"the size cannot be smaller than zero!");
+		return new SizeDistribution() {
+			@Override
+			public int nextSize(Random random) {
+				return size;
+			}
+		};
+	}
+
+	/**
+	 * Returns a distribution of which the lengths are uniformly distributed
+	 * between the given minimum and maximum (inclusive).
+	 *
+	 * @param minimum
+	 *            the minimum length of the lists.
+	 * @param maximum
+	 *            the maximum length of the lists.
+	 * @return a uniform distribution of the lengths.
+	 * @throws IllegalArgumentException
+	 *             when the minimum is negative or larger than the maximum.
+	 */
+	public static SizeDistribution uniform(final int minimum, final int maximum)
+			throws IllegalArgumentException {
+		if (minimum < 0)
+			throw new IllegalArgumentException(
+					"the minimum cannot be smaller than zero!");
+		if (maximum < minimum)
+			throw new IllegalArgumentException(
+					"the maximum cannot be smaller than the minimum!");
+		return new SizeDistribution() {
+			@Override
+			public int nextSize(Random random) {
+				return minimum + random.nextInt(maximum - minimum + 1);
+			}
+		};
+	}
+
+	/**
+	 * Returns a distribution which returns each of the given lengths with a
+	 * probability proportional to its weight, e.g. lengths 3 and 4 with
+	 * weights 0.9 and 0.1 for a mesh of mostly triangles.
+	 *
+	 * @param sizes
+	 *            the possible lengths of the lists.
+	 * @param weights
+	 *            the weight of every length.
+	 * @return a weighted distribution of the lengths.
+	 * @throws IllegalArgumentException
+	 *             when the arrays are empty or have different lengths, or
+	 *             when a length or weight is negative.
+	 */
+	public static SizeDistribution weighted(int[] sizes, double[] weights)
+			throws IllegalArgumentException {
+		if (sizes.length == 0 || sizes.length != weights.length)
+			throw new IllegalArgumentException(
+					"there should be a weight for every size!");
+		final int[] values = sizes.clone();
+		final double[] cumulative = new double[weights.length];
+		double total = 0;
+		for (int i = 0; i < weights.length; ++i) {
+			if (values[i] < 0 || !(weights[i] >= 0))
+				throw new IllegalArgumentException(
+						"the sizes and weights cannot be smaller than zero!");
+			total += weights[i];
+			cumulative[i] = total;
+		}
+		if (!(total > 0))
+			throw new IllegalArgumentException(
+					"the sum of the weights should be larger than zero!");
+		final double sum = total;
+		return new SizeDistribution() {
+			@Override
+			public int nextSize(Random random) {
+				double value = random.nextDouble() * sum;
+				for (int i = 0; i < cumulative.length - 1; ++i)
+					if (value < cumulative[i])
+						return values[i];
+				return values[values.length - 1];
+			}
+		};
+	}
+
+	/**
+	 * Adds the given element after the elements of this generator. The id of
+	 * the element is not used: the elements are written in the order in which
+	 * they are added.
+	 *
+	 * @param element
+	 *            the element to add.
+	 * @return this {@link PlyGenerator}.
+	 * @throws NullPointerException
+	 *             when the element is null.
+	 */
+	public PlyGenerator addElement(ElementDefinition element)
+			throws NullPointerException {
+		if (element == null)
+			throw new NullPointerException("the element cannot be null!");
+		elements.add(element);
+		return this;
+	}
+
+	/**
+	 * Adds the given comment to the header of the generated files.
+	 *
+	 * @param comment
+	 *            the comment to add.
+	 * @return this {@link PlyGenerator}.
+	 * @throws NullPointerException
+	 *             when the comment is null.
+	 */
+	public PlyGenerator addComment(String comment) throws NullPointerException {
+		if (comment == null)
+			throw new NullPointerException("the comment cannot be null!");
+		comments.add(comment);
+		return this;
+	}
+
+	/**
+	 * Sets the distribution of the lengths of the lists of the given property
+	 * of the given element.
+	 *
+	 * @param element
+	 *            the name of the element.
+	 * @param property
+	 *            the name of the list property.
+	 * @param distribution
+	 *            the distribution of the lengths of the lists.
+	 * @return this {@link PlyGenerator}.
+	 * @throws NullPointerException
+	 *             when one of the arguments is null.
+	 */
+	public PlyGenerator setListSizes(String element, String property,
+			SizeDistribution distribution) throws NullPointerException {
+		if (element == null || property == null || distribution == null)
+			throw new NullPointerException("the arguments cannot be null!");
+		sizes.put(element + "." + property, distribution);
+		return this;
+	}
+
+	/**
+	 * Sets the distribution of the lengths of the lists of the properties
+	 * without a distribution of their own. The default distribution always
+	 * returns three.
+	 *
+	 * @param distribution
+	 *            the distribution of the lengths of the lists.
+	 * @return this {@link PlyGenerator}.
+	 * @throws NullPointerException
+	 *             when the distribution is null.
+	 */
+	public PlyGenerator setListSizes(SizeDistribution distribution)
+			throws NullPointerException {
+		if (distribution == null)
+			throw new NullPointerException("the distribution cannot be null!");
+		defaultSizes = distribution;
+		return this;
+	}
+
+	/**
+	 * Sets the seed of the random values. Generators with the same elements,
+	 * distributions and seed generate the same files.
+	 *
+	 * @param seed
+	 *            the seed of the random values.
+	 * @return this {@link PlyGenerator}.
+	 */
+	public PlyGenerator setSeed(long seed) {
+		this.seed = seed;
+		return this;
+	}
+
+	/**
+	 * Returns the elements of the generated files.
+	 *
+	 * @return the elements of the generated files.
+	 */
+	public List<ElementDefinition> getElements() {
+		return new ArrayList<ElementDefinition>(elements);
+	}
+
+	/**
+	 * Generates a file in the given format at the given path.
+	 *
+	 * @param path
+	 *            the path of the file to generate.
+	 * @param format
+	 *            the format of the body.
+	 * @throws IOException
+	 *             when the file could not be written.
+	 */
+	public void write(Path path, Format format) throws IOException {
+		try (PlyWriter writer = new PlyWriter(path, format, comments, elements)) {
+			writeBody(writer);
+		}
+	}
+
+	/**
+	 * Generates a file in the given format and writes it to the given
+	 * channel. The channel is not closed.
+	 *
+	 * @param channel
+	 *            the channel to write the file to.
+	 * @param format
+	 *            the format of the body.
+	 * @throws IOException
+	 *             when the file could not be written.
+	 */
+	public void write(WritableByteChannel channel, Format format)
+			throws IOException {
+		PlyWriter writer = new PlyWriter(channel, format, comments, elements);
+		writeBody(writer);
+		writer.flush();
+	}
+
+	/**
+	 * Writes random values for every property of every element to the given
+	 * writer.
+	 *
+	 * @param writer
+	 *            the writer of the file.
+	 * @throws IOException
+	 *             when the values could not be written.
+	 */
+	private void writeBody(PlyWriter writer) throws IOException {
+		Random random = new Random(seed);
+
+		long vertices = -1;
+		for (ElementDefinition element : elements)
+			if (element.getName().equals("vertex"))
+				vertices = element.getCount();
+
+		for (ElementDefinition element : elements) {
+			int n = element.nbOfProperties();
+			int[] types = new int[n];
+			long[] minimum = new long[n];
+			long[] range = new long[n];
+			long[] maximumSize = new long[n];
+			SizeDistribution[] distributions = new SizeDistribution[n];
+
+			for (int i = 0; i < n; ++i) {
+				PropertyDefinition property = element.getProperty(i);
+				DataType<?> type = property.getDataType();
+				Scalar<?> scalar;
+				if (type instanceof PlyList) {
+					PlyList<?> list = (PlyList<?>) type;
+					scalar = list.getDataType();
+					types[i] = scalar instanceof FloatScalar ? FLOAT_LIST
+							: INTEGER_LIST;
+					maximumSize[i] = list.getSizeType().getMaximumValue();
+					distributions[i] = sizes.get(element.getName() + "."
+							+ property.getName());
+					if (distributions[i] == null)
+						distributions[i] = defaultSizes;
+				} else {
+					scalar = (Scalar<?>) type;
+					types[i] = scalar instanceof FloatScalar ? FLOAT : INTEGER;
+				}
+
+				if (scalar instanceof IntScalar) {
+					IntScalar intScalar = (IntScalar) scalar;
+					minimum[i] = intScalar.getMinimumValue();
+					range[i] = intScalar.getMaximumValue() - minimum[i] + 1;
+					if (types[i] == INTEGER_LIST
+							&& vertices >= 0
+							&& (property.getName().equals("vertex_indices") || property
+									.getName().equals("vertex_index"))) {
+						range[i] = Math.min(intScalar.getMaximumValue() + 1,
+								vertices);
+						minimum[i] = 0;
+					}
+				} else {
+					// the number of bits of the floating point type
+					range[i] = scalar == Float32.FLOAT32 ? 32 : 64;
+				}
+			}
+
+			long[] longs = new long[16];
+			double[] doubles = new double[16];
+			for (int record = 0; record < element.getCount(); ++record) {
+				for (int i = 0; i < n; ++i) {
+					switch (types[i]) {
+					case FLOAT:
+						writer.writeDouble(nextDouble(random, range[i]));
+						break;
+					case INTEGER:
+						writer.writeLong(nextLong(random, minimum[i], range[i]));
+						break;
+					case FLOAT_LIST: {
+						int size = nextSize(distributions[i], random,
+								maximumSize[i]);
+						if (size > doubles.length)
+							doubles = new double[Math.max(size,
+									2 * doubles.length)];
+						for (int j = 0; j < size; ++j)
+							doubles[j] = nextDouble(random, range[i]);
+						writer.writeList(doubles, 0, size);
+						break;
+					}
+					default: {
+						int size = nextSize(distributions[i], random,
+								maximumSize[i]);
+						if (size > longs.length)
+							longs = new long[Math.max(size, 2 * longs.length)];
+						for (int j = 0; j < size; ++j)
+							longs[j] = range[i] == 0 ? 0 : nextLong(random,
+									minimum[i], range[i]);
+						writer.writeList(longs, 0, size);
+						break;
+					}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the next length of a list from the given distribution, which
+	 * is clamped to the range of the size type of the list.
+	 */
+	private static int nextSize(SizeDistribution distribution, Random random,
+			long maximum) {
+		int size = distribution.nextSize(random);
+		if (size < 0)
+			throw new IllegalArgumentException(
+					"the size of a list cannot be smaller than zero!");
+		return (int) Math.min(size, maximum);
+	}
+
+	/**
+	 * Returns a random integer between the given minimum (inclusive) and the
+	 * minimum plus the given range (exclusive).
+	 */
+	private static long nextLong(Random random, long minimum, long range) {
+		if (range <= Integer.MAX_VALUE)
+			return minimum + random.nextInt((int) range);
+		return minimum + Math.floorMod(random.nextLong(), range);
+	}
+
+	/**
+	 * Returns a normally distributed floating point value, rounded to a float
+	 * when the given number of bits is 32.
+	 */
+	private static double nextDouble(Random random, long bits) {
+		double value = random.nextGaussian();
+		return bits == 32 ? (float) value : value;
+	}
+
+	/**
+	 * Returns a new list type with the given size and data type.
+	 */
+	private static <T extends Comparable<T>> PlyList<T> list(
+			IntScalar sizeType, Scalar<T> dataType) {
+		return new PlyList<T>(sizeType, dataType);
+	}
+}
@@ -0,0 +1,46 @@
+package io;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event of the parse of the header of a PLY File by a
+ * {@link PlyReader}.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+@Name("plylib.Header")
+@Label("PLY Header")
+@Description("The parse of the header of a PLY File")
+@Category("PlyLib")
+final class PlyHeaderEvent extends Event {
+	/**
+	 * The path of the file.
+	 */
+	@Label("Path")
+	String path;
+
+	/**
+	 * The format of the file.
+	 */
+	@Label("Format")
+	String format;
+
+	/**
+	 * The number of elements in the header.
+	 */
+	@Label("Elements")
+	int elements;
+
+	/**
+	 * The number of bytes of the header.
+	 */
+	@Label("Bytes Read")
+	@DataAmount
+	long bytes;
+}
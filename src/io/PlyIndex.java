@@ -0,0 +1,530 @@
+package io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import core.ElementDefinition;
+import core.Format;
+
+/**
+ * An index of the body of a PLY File, which allows to parse a range of the
+ * occurrences of an element without reading the body from the start.
+ *
+ * The index holds the offset in the file at which the occurrences of every
+ * element start. The offset of an occurrence of an element with a fixed size
+ * in a binary file follows from its index. For the other elements, such as
+ * elements with list properties or the elements of ASCII files, the index
+ * holds a checkpoint with the offset of every given number of occurrences.
+ *
+ * An index can be saved next to the file, and is reused by
+ * {@link #open(Path, int)} as long as the size and the modification time of
+ * the file do not change.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class PlyIndex {
+	/**
+	 * The number of occurrences between two checkpoints which is used by
+	 * default.
+	 */
+	public static final int DEFAULT_INTERVAL = 65536;
+
+	/**
+	 * The extension which is appended to the name of a PLY File to obtain
+	 * the name of its saved index.
+	 */
+	public static final String EXTENSION = ".plyindex";
+
+	/**
+	 * The number which identifies a saved index ("PLYI").
+	 */
+	private static final int MAGIC = 0x504c5949;
+
+	/**
+	 * The version of the layout of a saved index.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * The number of bytes of a saved index before its elements.
+	 */
+	private static final int HEADER_BYTES = 41;
+
+	/**
+	 * The smallest number of bytes of an element of a saved index, which is
+	 * an element with an empty name and without checkpoints.
+	 */
+	private static final int ELEMENT_BYTES = 22;
+
+	/**
+	 * The format of the indexed file.
+	 */
+	private final Format format;
+
+	/**
+	 * The offset of the first byte of the body.
+	 */
+	private final long bodyOffset;
+
+	/**
+	 * The name of every element.
+	 */
+	private final String[] names;
+
+	/**
+	 * The number of occurrences of every element.
+	 */
+	private final int[] counts;
+
+	/**
+	 * The number of bytes of a single occurrence of every element, or -1 for
+	 * the elements whose occurrences do not have a fixed size.
+	 */
+	private final int[] strides;
+
+	/**
+	 * The offset of the first occurrence of every element.
+	 */
+	private final long[] offsets;
+
+	/**
+	 * The number of occurrences between two checkpoints.
+	 */
+	private final int interval;
+
+	/**
+	 * The offsets of every interval-th occurrence of every element whose
+	 * occurrences do not have a fixed size.
+	 */
+	private final long[][] checkpoints;
+
+	/**
+	 * The size of the indexed file.
+	 */
+	private long fileSize = -1;
+
+	/**
+	 * The time the indexed file was last modified, in milliseconds.
+	 */
+	private long lastModified = -1;
+
+	/**
+	 * Creates a new {@link PlyIndex} from the layout of the body of a file.
+	 *
+	 * @param elements
+	 *            the elements of the file.
+	 * @param format
+	 *            the format of the file.
+	 * @param bodyOffset
+	 *            the offset of the first byte of the body.
+	 * @param offsets
+	 *            the offset of the first occurrence of every element.
+	 * @param interval
+	 *            the number of occurrences between two checkpoints.
+	 * @param checkpoints
+	 *            the checkpoints of every element, which are empty for the
+	 *            elements with a fixed size.
+	 */
+	PlyIndex(List<ElementDefinition> elements, Format format, long bodyOffset,
+			long[] offsets, int interval, long[][] checkpoints) {
+		this.format = format;
+		this.bodyOffset = bodyOffset;
+		this.names = new String[elements.size()];
+		this.counts = new int[elements.size()];
+		this.strides = new int[elements.size()];
+		for (int e = 0; e < names.length; ++e) {
+			ElementDefinition element = elements.get(e);
+			names[e] = element.getName();
+			counts[e] = element.getCount();
+			strides[e] = format == Format.ASCII ? -1 : element.nbOfBytes();
+		}
+		this.offsets = offsets;
+		this.interval = interval;
+		this.checkpoints = checkpoints;
+	}
+
+	/**
+	 * Creates a new {@link PlyIndex} with the given contents.
+	 */
+	private PlyIndex(Format format, long bodyOffset, String[] names,
+			int[] counts, int[] strides, long[] offsets, int interval,
+			long[][] checkpoints) {
+		this.format = format;
+		this.bodyOffset = bodyOffset;
+		this.names = names;
+		this.counts = counts;
+		this.strides = strides;
+		this.offsets = offsets;
+		this.interval = interval;
+		this.checkpoints = checkpoints;
+	}
+
+	/**
+	 * Builds the index of the PLY File at the given path, with a checkpoint
+	 * every given number of occurrences of the elements whose occurrences do
+	 * not have a fixed size. The whole body of the file is read once.
+	 *
+	 * @param path
+	 *            the path of the file to index.
+	 * @param interval
+	 *            the number of occurrences between two checkpoints.
+	 * @return the index of the file.
+	 * @throws IllegalArgumentException
+	 *             when the interval is smaller than one.
+	 * @throws IOException
+	 *             when an exception occurs during the reading of the file.
+	 * @throws ParseException
+	 *             when an exception occurs during the parsing of the file.
+	 */
+	public static PlyIndex build(Path path, int interval)
+			throws IllegalArgumentException, IOException, ParseException {
+		if (interval < 1)
+			throw new IllegalArgumentException(
+					"the interval must be at least one!");
+		BasicFileAttributes attributes = Files.readAttributes(path,
+				BasicFileAttributes.class);
+		PlyIndex index = PlyReader.index(path, interval);
+		index.fileSize = attributes.size();
+		index.lastModified = attributes.lastModifiedTime().toMillis();
+		return index;
+	}
+
+	/**
+	 * Returns the index of the PLY File at the given path. The index which is
+	 * saved next to the file is reused when it is still valid and has the
+	 * given interval. Otherwise the index is built and saved next to the
+	 * file, unless the directory cannot be written.
+	 *
+	 * @param path
+	 *            the path of the file to index.
+	 * @param interval
+	 *            the number of occurrences between two checkpoints.
+	 * @return the index of the file.
+	 * @throws IllegalArgumentException
+	 *             when the interval is smaller than one.
+	 * @throws IOException
+	 *             when an exception occurs during the reading of the file.
+	 * @throws ParseException
+	 *             when an exception occurs during the parsing of the file.
+	 */
+	public static PlyIndex open(Path path, int interval)
+			throws IllegalArgumentException, IOException, ParseException {
+		Path sidecar = getSidecar(path);
+		try {
+			PlyIndex index = load(sidecar);
+			if (index.interval == interval && index.isValidFor(path))
+				return index;
+		} catch (NoSuchFileException e) {
+			// there is no saved index yet
+		} catch (IOException e) {
+			// the saved index is damaged and is replaced
+		}
+
+		PlyIndex index = build(path, interval);
+		try {
+			index.save(sidecar);
+		} catch (IOException e) {
+			// the index can still be used without being saved
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the path at which the index of the PLY File at the given path
+	 * is saved by {@link #open(Path, int)}.
+	 *
+	 * @param path
+	 *            the path of the PLY File.
+	 * @return the path of the saved index of the file.
+	 */
+	public static Path getSidecar(Path path) {
+		return path.resolveSibling(path.getFileName() + EXTENSION);
+	}
+
+	/**
+	 * Loads an index which was saved with {@link #save(Path)}.
+	 *
+	 * @param file
+	 *            the path of the saved index.
+	 * @return the loaded index.
+	 * @throws IOException
+	 *             when the file could not be read or is not a saved index.
+	 */
+	public static PlyIndex load(Path file) throws IOException {
+		// the bytes which are not yet claimed by the counts read so far
+		long remaining = Files.size(file) - HEADER_BYTES;
+		DataInputStream in = new DataInputStream(new BufferedInputStream(
+				Files.newInputStream(file)));
+		try {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION)
+				throw new IOException("'" + file + "' is not a PLY index!");
+			long fileSize = in.readLong();
+			long lastModified = in.readLong();
+			Format format = Format.values()[in.readByte()];
+			long bodyOffset = in.readLong();
+			int interval = in.readInt();
+
+			int size = in.readInt();
+			if (interval < 1 || size < 0 || size > remaining / ELEMENT_BYTES)
+				throw new IOException("'" + file + "' is not a PLY index!");
+			remaining -= (long) size * ELEMENT_BYTES;
+			String[] names = new String[size];
+			int[] counts = new int[size];
+			int[] strides = new int[size];
+			long[] offsets = new long[size];
+			long[][] checkpoints = new long[size][];
+			for (int e = 0; e < size; ++e) {
+				names[e] = in.readUTF();
+				counts[e] = in.readInt();
+				strides[e] = in.readInt();
+				offsets[e] = in.readLong();
+				int length = in.readInt();
+				if (length < 0 || length > remaining / 8)
+					throw new IOException("'" + file + "' is not a PLY index!");
+				remaining -= 8L * length;
+				checkpoints[e] = new long[length];
+				for (int i = 0; i < checkpoints[e].length; ++i)
+					checkpoints[e][i] = in.readLong();
+			}
+
+			PlyIndex index = new PlyIndex(format, bodyOffset, names, counts,
+					strides, offsets, interval, checkpoints);
+			index.fileSize = fileSize;
+			index.lastModified = lastModified;
+			return index;
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("'" + file + "' is not a PLY index!", e);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Saves this index to the given file. The index is written to a new
+	 * temporary file with a random name next to the given file, which then
+	 * replaces the file at once, so readers never see a partially written
+	 * index, and concurrent saves of the same index never write into the
+	 * same file.
+	 *
+	 * @param file
+	 *            the path to save the index to.
+	 * @throws IOException
+	 *             when the index could not be written.
+	 */
+	public void save(Path file) throws IOException {
+		Path temporary = file.resolveSibling(file.getFileName() + "."
+				+ Long.toHexString(ThreadLocalRandom.current().nextLong())
+				+ ".tmp");
+		FileChannel channel = FileChannel.open(temporary,
+				StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		boolean saved = false;
+		try {
+			try {
+				DataOutputStream out = new DataOutputStream(
+						new BufferedOutputStream(
+								Channels.newOutputStream(channel)));
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeLong(fileSize);
+				out.writeLong(lastModified);
+				out.writeByte(format.ordinal());
+				out.writeLong(bodyOffset);
+				out.writeInt(interval);
+
+				out.writeInt(names.length);
+				for (int e = 0; e < names.length; ++e) {
+					out.writeUTF(names[e]);
+					out.writeInt(counts[e]);
+					out.writeInt(strides[e]);
+					out.writeLong(offsets[e]);
+					out.writeInt(checkpoints[e].length);
+					for (long checkpoint : checkpoints[e])
+						out.writeLong(checkpoint);
+				}
+				out.flush();
+				channel.force(true);
+			} finally {
+				channel.close();
+			}
+			replace(temporary, file);
+			saved = true;
+		} finally {
+			if (!saved)
+				delete(temporary);
+		}
+	}
+
+	/**
+	 * Replaces the given file with the given temporary file, atomically when
+	 * the file system supports it.
+	 *
+	 * @param temporary
+	 *            the file which replaces the file.
+	 * @param file
+	 *            the file to replace.
+	 * @throws IOException
+	 *             when the file could not be replaced.
+	 */
+	private static void replace(Path temporary, Path file) throws IOException {
+		try {
+			Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Deletes the given temporary file, ignoring the exceptions, so they do
+	 * not hide the exception which stopped the writing of the file.
+	 *
+	 * @param temporary
+	 *            the file to delete.
+	 */
+	private static void delete(Path temporary) {
+		try {
+			Files.deleteIfExists(temporary);
+		} catch (IOException e) {
+			// the temporary file is left behind
+		}
+	}
+
+	/**
+	 * Returns whether this index was built from the file at the given path in
+	 * its current state, judging from its size and modification time.
+	 *
+	 * @param path
+	 *            the path of the PLY File.
+	 * @return whether this index belongs to the file at the given path.
+	 * @throws IOException
+	 *             when the attributes of the file could not be read.
+	 */
+	public boolean isValidFor(Path path) throws IOException {
+		BasicFileAttributes attributes = Files.readAttributes(path,
+				BasicFileAttributes.class);
+		return attributes.size() == fileSize
+				&& attributes.lastModifiedTime().toMillis() == lastModified;
+	}
+
+	/**
+	 * Returns whether this index matches the header of a file with the given
+	 * elements, format and start of the body.
+	 *
+	 * @param elements
+	 *            the elements of the file.
+	 * @param format
+	 *            the format of the file.
+	 * @param bodyOffset
+	 *            the offset of the first byte of the body.
+	 * @return whether this index matches the header of the file.
+	 */
+	boolean matches(List<ElementDefinition> elements, Format format,
+			long bodyOffset) {
+		if (format != this.format || bodyOffset != this.bodyOffset
+				|| elements.size() != names.length)
+			return false;
+		for (int e = 0; e < names.length; ++e) {
+			ElementDefinition element = elements.get(e);
+			if (!element.getName().equals(names[e])
+					|| element.getCount() != counts[e])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the index of the last occurrence at or before the given
+	 * occurrence of the element with the given index, whose offset is known
+	 * by this index.
+	 *
+	 * @param element
+	 *            the index of the element in the header.
+	 * @param record
+	 *            the index of the occurrence.
+	 * @return the index of the nearest known occurrence at or before the given
+	 *         occurrence.
+	 */
+	public int getCheckpoint(int element, int record) {
+		if (strides[element] >= 0)
+			return record;
+		return record / interval * interval;
+	}
+
+	/**
+	 * Returns the offset in the file of the given occurrence of the element
+	 * with the given index. The offset is known for every occurrence of an
+	 * element with a fixed size, and for the checkpoints of the other
+	 * elements.
+	 *
+	 * @param element
+	 *            the index of the element in the header.
+	 * @param record
+	 *            the index of the occurrence.
+	 * @return the offset of the given occurrence in the file.
+	 * @throws IllegalArgumentException
+	 *             when the offset of the given occurrence is not known.
+	 */
+	public long getOffset(int element, int record)
+			throws IllegalArgumentException {
+		if (strides[element] >= 0)
+			return offsets[element] + (long) record * strides[element];
+		if (record % interval != 0)
+			throw new IllegalArgumentException("occurrence " + record
+					+ " of element '" + names[element]
+					+ "' is not a checkpoint!");
+		return checkpoints[element][record / interval];
+	}
+
+	/**
+	 * Returns the offset in the file of the first occurrence of the element
+	 * with the given index.
+	 *
+	 * @param element
+	 *            the index of the element in the header.
+	 * @return the offset of the first occurrence of the element.
+	 */
+	public long getElementOffset(int element) {
+		return offsets[element];
+	}
+
+	/**
+	 * Returns the offset of the first byte of the body of the file.
+	 *
+	 * @return the offset of the first byte of the body of the file.
+	 */
+	public long getBodyOffset() {
+		return bodyOffset;
+	}
+
+	/**
+	 * Returns the number of elements of the file.
+	 *
+	 * @return the number of elements of the file.
+	 */
+	public int getNbOfElements() {
+		return names.length;
+	}
+
+	/**
+	 * Returns the number of occurrences between two checkpoints.
+	 *
+	 * @return the number of occurrences between two checkpoints.
+	 */
+	public int getInterval() {
+		return interval;
+	}
+}
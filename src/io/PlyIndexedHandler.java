@@ -0,0 +1,120 @@
+package io;
+
+import core.ElementDefinition;
+import core.PropertyDefinition;
+
+/**
+ * Handler which receives the parsed values together with the ids of their
+ * {@link ElementDefinition} and {@link PropertyDefinition} instead of the
+ * name of the property, next to the callbacks of the header of a
+ * {@link PlyStructureHandler}.
+ * 
+ * The ids are assigned while the header is parsed: the id of an
+ * {@link ElementDefinition} is its index in the header and the id of a
+ * {@link PropertyDefinition} is its index in its {@link ElementDefinition}.
+ * The ids can be used to dispatch the values with a switch or an array lookup
+ * instead of comparing strings for every value.
+ * 
+ * When the handler passed to the {@link PlyReader} implements this interface,
+ * only the callbacks with ids are called for the elements and properties in
+ * the body, even when the handler is also a {@link PlyHandler}. The arrays
+ * passed to the list callbacks are reused by the reader. Only the first
+ * <code>size</code> values are valid and only during the callback.
+ * 
+ * @author Niels Billen
+ * @version 0.1
+ */
+public interface PlyIndexedHandler extends PlyStructureHandler {
+	/**
+	 * Called when a new element with the given id is being parsed.
+	 * 
+	 * @param elementId
+	 *            the id of the element.
+	 */
+	public void plyElementStart(int elementId);
+
+	/**
+	 * Called when an integer property which fits in an <code>int</code> has
+	 * been parsed.
+	 * 
+	 * @param elementId
+	 *            the id of the element of the property.
+	 * @param propertyId
+	 *            the id of the property.
+	 * @param value
+	 *            the parsed value.
+	 */
+	public void plyProperty(int elementId, int propertyId, int value);
+
+	/**
+	 * Called when an integer property which does not fit in an
+	 * <code>int</code> has been parsed.
+	 * 
+	 * @param elementId
+	 *            the id of the element of the property.
+	 * @param propertyId
+	 *            the id of the property.
+	 * @param value
+	 *            the parsed value.
+	 */
+	public void plyProperty(int elementId, int propertyId, long value);
+
+	/**
+	 * Called when a floating point property has been parsed.
+	 * 
+	 * @param elementId
+	 *            the id of the element of the property.
+	 * @param propertyId
+	 *            the id of the property.
+	 * @param value
+	 *            the parsed value.
+	 */
+	public void plyProperty(int elementId, int propertyId, double value);
+
+	/**
+	 * Called when a list of integers which fit in an <code>int</code> has been
+	 * parsed.
+	 * 
+	 * @param elementId
+	 *            the id of the element of the property.
+	 * @param propertyId
+	 *            the id of the property.
+	 * @param values
+	 *            a reusable array holding the values of the list.
+	 * @param size
+	 *            the number of values in the list.
+	 */
+	public void plyListProperty(int elementId, int propertyId, int[] values,
+			int size);
+
+	/**
+	 * Called when a list of integers which do not fit in an <code>int</code>
+	 * has been parsed.
+	 * 
+	 * @param elementId
+	 *            the id of the element of the property.
+	 * @param propertyId
+	 *            the id of the property.
+	 * @param values
+	 *            a reusable array holding the values of the list.
+	 * @param size
+	 *            the number of values in the list.
+	 */
+	public void plyListProperty(int elementId, int propertyId, long[] values,
+			int size);
+
+	/**
+	 * Called when a list of floating point values has been parsed.
+	 * 
+	 * @param elementId
+	 *            the id of the element of the property.
+	 * @param propertyId
+	 *            the id of the property.
+	 * @param values
+	 *            a reusable array holding the values of the list.
+	 * @param size
+	 *            the number of values in the list.
+	 */
+	public void plyListProperty(int elementId, int propertyId,
+			double[] values, int size);
+}
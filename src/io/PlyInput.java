@@ -0,0 +1,196 @@
+package io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+
+import util.PlyScanner;
+import util.ReadAheadPlyScanner;
+
+/**
+ * Opens the scanners of the {@link PlyReader} for inputs which are read as
+ * a stream, and detects and decompresses gzip input.
+ *
+ * Compressed input is inflated on the thread of a {@link ReadAheadPlyScanner},
+ * so the decompression of the next buffers overlaps with the decoding of the
+ * current one.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+final class PlyInput {
+	/**
+	 * The size of the buffer of the inflater.
+	 */
+	private static final int INFLATE_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * This class only has static methods.
+	 */
+	private PlyInput() {
+	}
+
+	/**
+	 * Returns whether the file at the given path is compressed with gzip.
+	 *
+	 * @param path
+	 *            the path of the file.
+	 * @return whether the file is compressed with gzip.
+	 * @throws IOException
+	 *             when the start of the file could not be read.
+	 */
+	static boolean isGzip(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path,
+				StandardOpenOption.READ)) {
+			ByteBuffer magic = ByteBuffer.allocate(2);
+			while (magic.hasRemaining() && channel.read(magic) != -1)
+				;
+			magic.flip();
+			return isGzip(magic);
+		}
+	}
+
+	/**
+	 * Returns whether the given bytes start with the magic number of gzip.
+	 *
+	 * @param magic
+	 *            the first bytes of the input.
+	 * @return whether the bytes start with the magic number of gzip.
+	 */
+	private static boolean isGzip(ByteBuffer magic) {
+		return magic.remaining() >= 2
+				&& (magic.get(0) & 0xff) == (GZIPInputStream.GZIP_MAGIC & 0xff)
+				&& (magic.get(1) & 0xff) == (GZIPInputStream.GZIP_MAGIC >> 8);
+	}
+
+	/**
+	 * Returns a scanner which reads the given channel from its current
+	 * position, and decompresses it when it is compressed with gzip. The
+	 * channel is closed with the scanner when it is owned by the scanner.
+	 *
+	 * @param channel
+	 *            the channel to read.
+	 * @param owned
+	 *            whether the channel is closed when the scanner is closed.
+	 * @param options
+	 *            the options which control how the input is read.
+	 * @return a scanner which reads the channel.
+	 * @throws IOException
+	 *             when the start of the channel could not be read, or when
+	 *             the header of compressed input is invalid. The channel is
+	 *             closed when it is owned by the scanner.
+	 */
+	static PlyScanner scanner(ReadableByteChannel channel, boolean owned,
+			PlyReaderOptions options) throws IOException {
+		ByteBuffer magic = ByteBuffer.allocate(2);
+		try {
+			while (magic.hasRemaining() && channel.read(magic) != -1)
+				;
+		} catch (IOException e) {
+			if (owned)
+				channel.close();
+			throw e;
+		}
+		magic.flip();
+		boolean gzip = isGzip(magic);
+		ReadableByteChannel input = new PrefixedChannel(magic, channel, owned);
+		if (!gzip)
+			return options.createStreamScanner(input);
+
+		// the header of the gzip stream is read and checked right away
+		ReadableByteChannel inflated;
+		try {
+			inflated = Channels.newChannel(new GZIPInputStream(
+					Channels.newInputStream(input), INFLATE_BUFFER_SIZE));
+		} catch (IOException e) {
+			input.close();
+			throw e;
+		}
+		int buffers = Math.max(ReadAheadPlyScanner.BUFFERS,
+				options.getReadAheadBuffers());
+		return new ReadAheadPlyScanner(inflated, buffers,
+				options.getReadAheadBufferSize());
+	}
+
+	/**
+	 * A channel which returns the bytes which were read to detect the format
+	 * of the input before the remainder of the input.
+	 */
+	private static class PrefixedChannel implements ReadableByteChannel {
+		/**
+		 * The bytes which were read before the channel.
+		 */
+		private final ByteBuffer prefix;
+
+		/**
+		 * The channel of the remainder of the input.
+		 */
+		private final ReadableByteChannel channel;
+
+		/**
+		 * Whether the channel is closed when this channel is closed.
+		 */
+		private final boolean owned;
+
+		/**
+		 * Whether this channel is closed.
+		 */
+		private volatile boolean open = true;
+
+		/**
+		 * Creates a new channel which returns the given prefix before the
+		 * given channel.
+		 */
+		private PrefixedChannel(ByteBuffer prefix,
+				ReadableByteChannel channel, boolean owned) {
+			this.prefix = prefix;
+			this.channel = channel;
+			this.owned = owned;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.nio.channels.ReadableByteChannel#read(java.nio.ByteBuffer)
+		 */
+		@Override
+		public int read(ByteBuffer target) throws IOException {
+			if (!open)
+				throw new ClosedChannelException();
+			if (!prefix.hasRemaining())
+				return channel.read(target);
+			int length = Math.min(prefix.remaining(), target.remaining());
+			for (int i = 0; i < length; ++i)
+				target.put(prefix.get());
+			return length;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.nio.channels.Channel#isOpen()
+		 */
+		@Override
+		public boolean isOpen() {
+			return open;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.nio.channels.Channel#close()
+		 */
+		@Override
+		public void close() throws IOException {
+			open = false;
+			if (owned)
+				channel.close();
+		}
+	}
+}
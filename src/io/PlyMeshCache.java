@@ -0,0 +1,405 @@
+package io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import core.PlyMesh;
+
+/**
+ * A thread-safe cache of the {@link PlyMesh}es loaded by a
+ * {@link PlyMeshLoader}.
+ *
+ * The meshes are kept by the real path of their file, together with the size
+ * and the modification time of the file when it was loaded. A mesh is loaded
+ * again when the size or the modification time of its file changes.
+ *
+ * The cache holds at most the given number of bytes, measured with
+ * {@link PlyMesh#nbOfBytes()}. When a loaded mesh does not fit, the meshes
+ * which were used least recently are evicted. Meshes which are larger than
+ * the whole budget are returned without being cached.
+ *
+ * When several threads request a file which is not in the cache at the same
+ * time, the file is only parsed once: the first thread parses it and the
+ * other threads wait for its result.
+ *
+ * The returned meshes are shared between all the callers and should not be
+ * modified.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class PlyMeshCache {
+	/**
+	 * The maximum number of bytes of the cached meshes.
+	 */
+	private final long budget;
+
+	/**
+	 * The options which are used to parse the files.
+	 */
+	private final PlyReaderOptions options;
+
+	/**
+	 * The cached meshes by the real path of their file, from the least to the
+	 * most recently used.
+	 */
+	private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<Path, Entry>(
+			16, 0.75f, true);
+
+	/**
+	 * The loads which are in progress.
+	 */
+	private final Map<Key, FutureTask<PlyMesh>> loading = new HashMap<Key, FutureTask<PlyMesh>>();
+
+	/**
+	 * The number of bytes of the cached meshes.
+	 */
+	private long size = 0;
+
+	/**
+	 * The number of requests which were answered from the cache.
+	 */
+	private long hits = 0;
+
+	/**
+	 * The number of requests which were not answered from the cache.
+	 */
+	private long misses = 0;
+
+	/**
+	 * Creates a new {@link PlyMeshCache} which holds at most the given number
+	 * of bytes and parses the files with the default options.
+	 *
+	 * @param budget
+	 *            the maximum number of bytes of the cached meshes.
+	 * @throws IllegalArgumentException
+	 *             when the budget is negative.
+	 */
+	public PlyMeshCache(long budget) throws IllegalArgumentException {
+		this(budget, new PlyReaderOptions());
+	}
+
+	/**
+	 * Creates a new {@link PlyMeshCache} which holds at most the given number
+	 * of bytes and parses the files with the given options.
+	 *
+	 * @param budget
+	 *            the maximum number of bytes of the cached meshes.
+	 * @param options
+	 *            the options which are used to parse the files.
+	 * @throws IllegalArgumentException
+	 *             when the budget is negative.
+	 * @throws NullPointerException
+	 *             when the options are null.
+	 */
+	public PlyMeshCache(long budget, PlyReaderOptions options)
+			throws IllegalArgumentException, NullPointerException {
+		if (budget < 0)
+			throw new IllegalArgumentException(
+					"the budget cannot be smaller than zero!");
+		if (options == null)
+			throw new NullPointerException("the options cannot be null!");
+		this.budget = budget;
+		this.options = options;
+	}
+
+	/**
+	 * Returns the mesh of the PLY File at the given path. The file is only
+	 * parsed when it is not in the cache, or when it changed since it was
+	 * cached.
+	 *
+	 * @param path
+	 *            the path of the file.
+	 * @return the mesh of the file.
+	 * @throws IOException
+	 *             when an exception occurs during the reading of the file.
+	 * @throws ParseException
+	 *             when an exception occurs during the parsing of the file.
+	 */
+	public PlyMesh get(Path path) throws IOException, ParseException {
+		final Key key = Key.of(path);
+
+		FutureTask<PlyMesh> task;
+		boolean owner = false;
+		synchronized (this) {
+			Entry entry = entries.get(key.path);
+			if (entry != null) {
+				if (entry.key.equals(key)) {
+					++hits;
+					return entry.mesh;
+				}
+				// the file changed since it was cached
+				entries.remove(key.path);
+				size -= entry.bytes;
+			}
+			++misses;
+
+			// share the load of the file with the other threads
+			task = loading.get(key);
+			if (task == null) {
+				task = new FutureTask<PlyMesh>(new Callable<PlyMesh>() {
+					@Override
+					public PlyMesh call() throws Exception {
+						return PlyMeshLoader.load(key.path, options);
+					}
+				});
+				loading.put(key, task);
+				owner = true;
+			}
+		}
+
+		if (owner) {
+			task.run();
+			synchronized (this) {
+				loading.remove(key);
+				if (!task.isCancelled())
+					try {
+						put(key, task.get());
+					} catch (Exception e) {
+						// the exception is thrown below
+					}
+			}
+		}
+		return await(task);
+	}
+
+	/**
+	 * Removes the mesh of the file at the given path from the cache.
+	 *
+	 * @param path
+	 *            the path of the file.
+	 * @throws IOException
+	 *             when the real path of the file could not be determined.
+	 */
+	public synchronized void invalidate(Path path) throws IOException {
+		Entry entry = entries.remove(path.toRealPath());
+		if (entry != null)
+			size -= entry.bytes;
+	}
+
+	/**
+	 * Removes all the meshes from the cache.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		size = 0;
+	}
+
+	/**
+	 * Returns the maximum number of bytes of the cached meshes.
+	 *
+	 * @return the maximum number of bytes of the cached meshes.
+	 */
+	public long getBudget() {
+		return budget;
+	}
+
+	/**
+	 * Returns the number of bytes of the cached meshes.
+	 *
+	 * @return the number of bytes of the cached meshes.
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of cached meshes.
+	 *
+	 * @return the number of cached meshes.
+	 */
+	public synchronized int getNbOfEntries() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the number of requests which were answered from the cache.
+	 *
+	 * @return the number of requests which were answered from the cache.
+	 */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of requests which were not answered from the cache,
+	 * including the requests which waited for a load of another thread.
+	 *
+	 * @return the number of requests which were not answered from the cache.
+	 */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	/**
+	 * Adds the given mesh to the cache and evicts the least recently used
+	 * meshes until the cache fits within its budget. Must be called while
+	 * holding the lock of this cache.
+	 *
+	 * @param key
+	 *            the key of the file of the mesh.
+	 * @param mesh
+	 *            the loaded mesh.
+	 */
+	private void put(Key key, PlyMesh mesh) {
+		long bytes = mesh.nbOfBytes();
+		if (bytes > budget)
+			return;
+
+		Entry previous = entries.put(key.path, new Entry(key, mesh, bytes));
+		if (previous != null)
+			size -= previous.bytes;
+		size += bytes;
+
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (size > budget && iterator.hasNext()) {
+			Entry eldest = iterator.next();
+			if (eldest.key.equals(key))
+				continue;
+			iterator.remove();
+			size -= eldest.bytes;
+		}
+	}
+
+	/**
+	 * Waits for the given load and returns its mesh, or rethrows the
+	 * exception of the load.
+	 *
+	 * @param task
+	 *            the load to wait for.
+	 * @return the loaded mesh.
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	private static PlyMesh await(FutureTask<PlyMesh> task) throws IOException,
+			ParseException {
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(
+					"interrupted while waiting for a mesh to be loaded");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException)
+				throw (IOException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new ParseException(e);
+		}
+	}
+
+	/**
+	 * Identifies a file in a given state by its real path, size and
+	 * modification time.
+	 */
+	private static class Key {
+		/**
+		 * The real path of the file.
+		 */
+		private final Path path;
+
+		/**
+		 * The size of the file.
+		 */
+		private final long size;
+
+		/**
+		 * The time the file was last modified, in milliseconds.
+		 */
+		private final long lastModified;
+
+		/**
+		 * Creates a new key with the given path, size and modification time.
+		 */
+		private Key(Path path, long size, long lastModified) {
+			this.path = path;
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+
+		/**
+		 * Returns the key of the file at the given path in its current state.
+		 *
+		 * @param path
+		 *            the path of the file.
+		 * @return the key of the file.
+		 * @throws IOException
+		 *             when the attributes of the file could not be read.
+		 */
+		private static Key of(Path path) throws IOException {
+			Path realPath = path.toRealPath();
+			BasicFileAttributes attributes = Files.readAttributes(realPath,
+					BasicFileAttributes.class);
+			return new Key(realPath, attributes.size(), attributes
+					.lastModifiedTime().toMillis());
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			return path.hashCode() + 31 * Long.hashCode(size + 31 * lastModified);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return path.equals(other.path) && size == other.size
+					&& lastModified == other.lastModified;
+		}
+	}
+
+	/**
+	 * A cached mesh together with the key of its file and its size.
+	 */
+	private static class Entry {
+		/**
+		 * The key of the file of the mesh.
+		 */
+		private final Key key;
+
+		/**
+		 * The mesh.
+		 */
+		private final PlyMesh mesh;
+
+		/**
+		 * The number of bytes of the mesh.
+		 */
+		private final long bytes;
+
+		/**
+		 * Creates a new entry for the given mesh.
+		 */
+		private Entry(Key key, PlyMesh mesh, long bytes) {
+			this.key = key;
+			this.mesh = mesh;
+			this.bytes = bytes;
+		}
+	}
+}
@@ -0,0 +1,867 @@
+package io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import core.ElementDefinition;
+import core.Format;
+import core.PlyColumn;
+import core.PlyElement;
+import core.PlyListColumn;
+import core.PlyMesh;
+import core.PropertyDefinition;
+import core.datatype.DataType;
+import core.datatype.PlyList;
+import core.datatype.Scalar;
+import util.PlyArena;
+
+/**
+ * A {@link PlyIndexedHandler} which loads a PLY File into a {@link PlyMesh}
+ * with primitive columns.
+ *
+ * The column of every scalar property is allocated with the count of its
+ * {@link ElementDefinition} as soon as the definition is parsed, and the
+ * values are stored directly at the index of their occurrence. The lists of a
+ * list property are collected in a growing buffer with the length of every
+ * list, and are turned into the offsets and values of a
+ * {@link PlyListColumn} when the mesh is requested.
+ *
+ * The loader receives the values by id and can decode the elements of a file
+ * in parallel, so it can be used with any {@link PlyReaderOptions}.
+ *
+ * When the loader is given a {@link PlyArena}, the columns are stored in
+ * direct buffers of the arena instead of arrays, outside the Java heap. The
+ * occurrences of an element whose properties are all scalars are then stored
+ * interleaved in a single buffer, with the layout of a binary PLY file in
+ * native byte order. Such elements are copied in bulk from binary files in
+ * native byte order. The offsets of the list properties stay on the heap.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class PlyMeshLoader implements PlyColumnHandler, PlyBulkHandler,
+		PlyParallelHandler {
+	/**
+	 * The maximum size of a Java array.
+	 */
+	private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+	/**
+	 * The arena in which the columns are allocated, or <code>null</code> when
+	 * the columns are stored in arrays.
+	 */
+	private final PlyArena arena;
+
+	/**
+	 * The format of the file.
+	 */
+	private Format format;
+
+	/**
+	 * The comments in the header.
+	 */
+	private final List<String> comments = new ArrayList<String>();
+
+	/**
+	 * The definitions of the elements, in the order of the header.
+	 */
+	private final List<ElementDefinition> definitions = new ArrayList<ElementDefinition>();
+
+	/**
+	 * The column of every scalar property of every element.
+	 */
+	private final List<PlyColumn[]> columns = new ArrayList<PlyColumn[]>();
+
+	/**
+	 * The buffer in which the occurrences of every element are interleaved,
+	 * or <code>null</code> for the elements with a list property and when
+	 * the columns are stored in arrays.
+	 */
+	private final List<ByteBuffer> interleaved = new ArrayList<ByteBuffer>();
+
+	/**
+	 * The length of every list, at the index after its occurrence, of every
+	 * list property of every element. The lengths are turned into offsets
+	 * when the mesh is requested.
+	 */
+	private final List<int[][]> lengths = new ArrayList<int[][]>();
+
+	/**
+	 * The ranges of occurrences which have been loaded.
+	 */
+	private final List<RangeLoader> ranges = new ArrayList<RangeLoader>();
+
+	/**
+	 * The range which receives the occurrences which are not decoded in
+	 * parallel.
+	 */
+	private RangeLoader current;
+
+	/**
+	 * The loaded mesh, or <code>null</code> when it has not been requested
+	 * yet.
+	 */
+	private PlyMesh mesh;
+
+	/**
+	 * Creates a new {@link PlyMeshLoader} which stores the columns in arrays.
+	 */
+	public PlyMeshLoader() {
+		this(null);
+	}
+
+	/**
+	 * Creates a new {@link PlyMeshLoader} which stores the columns in direct
+	 * buffers allocated by the given arena. The columns can only be used
+	 * until the arena is closed, and throw an {@link IllegalStateException}
+	 * afterwards.
+	 *
+	 * @param arena
+	 *            the arena in which the columns are allocated, or
+	 *            <code>null</code> to store the columns in arrays.
+	 */
+	public PlyMeshLoader(PlyArena arena) {
+		this.arena = arena;
+	}
+
+	/**
+	 * Loads the PLY File at the given path into a {@link PlyMesh}.
+	 *
+	 * @param path
+	 *            the path of the file to load.
+	 * @return the loaded mesh.
+	 * @throws IOException
+	 *             when an exception occurs during the reading of the file.
+	 * @throws ParseException
+	 *             when an exception occurs during the parsing of the file.
+	 */
+	public static PlyMesh load(Path path) throws IOException, ParseException {
+		return load(path, new PlyReaderOptions());
+	}
+
+	/**
+	 * Loads the PLY File at the given path into a {@link PlyMesh} with the
+	 * given options.
+	 *
+	 * @param path
+	 *            the path of the file to load.
+	 * @param options
+	 *            the options which control how the file is read.
+	 * @return the loaded mesh.
+	 * @throws IOException
+	 *             when an exception occurs during the reading of the file.
+	 * @throws ParseException
+	 *             when an exception occurs during the parsing of the file.
+	 */
+	public static PlyMesh load(Path path, PlyReaderOptions options)
+			throws IOException, ParseException {
+		return load(path, options, null);
+	}
+
+	/**
+	 * Loads the PLY File at the given path into a {@link PlyMesh} whose
+	 * columns are stored in direct buffers allocated by the given arena. The
+	 * mesh can only be used until the arena is closed, and its columns throw
+	 * an {@link IllegalStateException} afterwards.
+	 *
+	 * @param path
+	 *            the path of the file to load.
+	 * @param options
+	 *            the options which control how the file is read.
+	 * @param arena
+	 *            the arena in which the columns are allocated, or
+	 *            <code>null</code> to store the columns in arrays.
+	 * @return the loaded mesh.
+	 * @throws IOException
+	 *             when an exception occurs during the reading of the file.
+	 * @throws ParseException
+	 *             when an exception occurs during the parsing of the file.
+	 */
+	public static PlyMesh load(Path path, PlyReaderOptions options,
+			PlyArena arena) throws IOException, ParseException {
+		if (options.isCompiledSidecar() && arena == null
+				&& options.getProjection() == null)
+			return PlyMeshSidecar.load(path, options);
+		PlyMeshLoader loader = new PlyMeshLoader(arena);
+		PlyReader.parse(path, loader, options);
+		return loader.getMesh();
+	}
+
+	/**
+	 * Returns the loaded mesh. Must be called after the file has been parsed.
+	 *
+	 * @return the loaded mesh.
+	 * @throws IllegalStateException
+	 *             when no header has been parsed.
+	 */
+	public PlyMesh getMesh() throws IllegalStateException {
+		if (mesh != null)
+			return mesh;
+		if (format == null)
+			throw new IllegalStateException("no PLY File has been parsed!");
+
+		// sort the ranges so the lists can be concatenated in order
+		Collections.sort(ranges, new Comparator<RangeLoader>() {
+			@Override
+			public int compare(RangeLoader o1, RangeLoader o2) {
+				if (o1.elementId != o2.elementId)
+					return Integer.compare(o1.elementId, o2.elementId);
+				return Integer.compare(o1.firstRecord, o2.firstRecord);
+			}
+		});
+
+		List<PlyElement> elements = new ArrayList<PlyElement>();
+		for (ElementDefinition definition : definitions) {
+			int id = definition.getId();
+			PlyListColumn[] listColumns = new PlyListColumn[definition
+					.nbOfProperties()];
+			for (int p = 0; p < listColumns.length; ++p)
+				if (lengths.get(id)[p] != null)
+					listColumns[p] = createListColumn(definition, p);
+			elements.add(new PlyElement(definition, columns.get(id),
+					listColumns));
+		}
+
+		mesh = new PlyMesh(format, comments, elements);
+		ranges.clear();
+		current = null;
+		return mesh;
+	}
+
+	/**
+	 * Creates the column of the list property with the given index of the
+	 * given element from the lengths of its lists and the values of the
+	 * loaded ranges.
+	 *
+	 * @param definition
+	 *            the definition of the element.
+	 * @param index
+	 *            the index of the list property.
+	 * @return the column of the list property.
+	 * @throws IllegalStateException
+	 *             when there are too many values for a Java array.
+	 */
+	private PlyListColumn createListColumn(ElementDefinition definition,
+			int index) throws IllegalStateException {
+		PlyList<?> type = (PlyList<?>) definition.getProperty(index)
+				.getDataType();
+
+		// turn the lengths into offsets
+		int[] offsets = lengths.get(definition.getId())[index];
+		long total = 0;
+		for (int i = 1; i < offsets.length; ++i) {
+			total += offsets[i];
+			if (total > MAX_ARRAY_SIZE)
+				throw new IllegalStateException("the lists of property '"
+						+ definition.getProperty(index).getName()
+						+ "' contain too many values for a Java array!");
+			offsets[i] = (int) total;
+		}
+
+		// concatenate the values of the ranges
+		List<RangeLoader> elementRanges = new ArrayList<RangeLoader>();
+		for (RangeLoader range : ranges)
+			if (range.elementId == definition.getId()
+					&& range.listValues[index] != null)
+				elementRanges.add(range);
+
+		PlyColumn values;
+		if (arena == null && elementRanges.size() == 1
+				&& elementRanges.get(0).firstRecord == 0) {
+			values = elementRanges.get(0).listValues[index];
+			if (values.size() != total)
+				values = values.copyOf((int) total);
+		} else {
+			values = allocate(type.getDataType(), (int) total, null, 0, 0);
+			for (RangeLoader range : elementRanges)
+				range.listValues[index].copyTo(0, values,
+						offsets[range.firstRecord], range.listSizes[index]);
+		}
+		return new PlyListColumn(type, offsets, values);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyStructureHandler#plyHeaderFormat(core.Format, int, int)
+	 */
+	@Override
+	public void plyHeaderFormat(Format format, int majorVersion,
+			int minorVersion) {
+		this.format = format;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyStructureHandler#plyHeaderComment(java.lang.String)
+	 */
+	@Override
+	public void plyHeaderComment(String comment) {
+		comments.add(comment);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyStructureHandler#plyElementDefinition(core.ElementDefinition)
+	 */
+	@Override
+	public void plyElementDefinition(ElementDefinition element) {
+		int size = element.nbOfProperties();
+		int stride = element.nbOfBytes();
+		ByteBuffer buffer = null;
+		if (arena != null && stride > 0)
+			buffer = arena.allocate((long) element.getCount() * stride);
+
+		PlyColumn[] elementColumns = new PlyColumn[size];
+		int[][] elementLengths = new int[size][];
+		int offset = 0;
+		for (int p = 0; p < size; ++p) {
+			DataType<?> type = element.getProperty(p).getDataType();
+			if (type instanceof Scalar) {
+				Scalar<?> scalar = (Scalar<?>) type;
+				elementColumns[p] = allocate(scalar, element.getCount(),
+						buffer, offset, stride);
+				offset += scalar.nbOfBytes();
+			} else
+				elementLengths[p] = new int[element.getCount() + 1];
+		}
+		definitions.add(element);
+		columns.add(elementColumns);
+		interleaved.add(buffer);
+		lengths.add(elementLengths);
+	}
+
+	/**
+	 * Allocates a column for the given number of values of the given type. The
+	 * column is stored in an array when there is no arena, in the given buffer
+	 * when it is not <code>null</code>, and in a new buffer of the arena
+	 * otherwise.
+	 *
+	 * @param type
+	 *            the type of the values.
+	 * @param size
+	 *            the number of values.
+	 * @param buffer
+	 *            the buffer in which the occurrences of the element are
+	 *            interleaved, or <code>null</code>.
+	 * @param offset
+	 *            the offset of the values within an occurrence.
+	 * @param stride
+	 *            the number of bytes of an occurrence.
+	 * @return the allocated column.
+	 */
+	private PlyColumn allocate(Scalar<?> type, int size, ByteBuffer buffer,
+			int offset, int stride) {
+		if (arena == null)
+			return new PlyColumn(type, size);
+		else if (buffer != null)
+			return new PlyColumn(type, buffer, offset, stride, size, arena);
+		else
+			return new PlyColumn(type, arena.allocate((long) size
+					* type.nbOfBytes()), 0, type.nbOfBytes(), size, arena);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyStructureHandler#plyHeaderEnd()
+	 */
+	@Override
+	public void plyHeaderEnd() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyParallelHandler#plyRangeHandler(core.ElementDefinition, int,
+	 * int)
+	 */
+	@Override
+	public PlyStructureHandler plyRangeHandler(ElementDefinition element,
+			int firstRecord, int recordCount) {
+		return new RangeLoader(element.getId(), firstRecord, recordCount);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyElementStart(int)
+	 */
+	@Override
+	public void plyElementStart(int elementId) {
+		if (current == null || current.elementId != elementId)
+			current = new RangeLoader(elementId, 0, definitions.get(elementId)
+					.getCount());
+		current.plyElementStart(elementId);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyStructureHandler#plyElementEnd()
+	 */
+	@Override
+	public void plyElementEnd() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyBulkHandler#plyAcceptsBytes(core.ElementDefinition,
+	 * java.nio.ByteOrder)
+	 */
+	@Override
+	public boolean plyAcceptsBytes(ElementDefinition element, ByteOrder order) {
+		return order == ByteOrder.nativeOrder()
+				&& interleaved.get(element.getId()) != null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyBulkHandler#plyElementBytes(core.ElementDefinition,
+	 * java.nio.ByteBuffer, int)
+	 */
+	@Override
+	public void plyElementBytes(ElementDefinition element, ByteBuffer bytes,
+			int records) {
+		int elementId = element.getId();
+		if (current == null || current.elementId != elementId)
+			current = new RangeLoader(elementId, 0, element.getCount());
+		current.plyElementBytes(element, bytes, records);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyColumnHandler#plyColumns(core.ElementDefinition)
+	 */
+	@Override
+	public PlyColumn[] plyColumns(ElementDefinition element) {
+		int elementId = element.getId();
+		if (current == null || current.elementId != elementId)
+			current = new RangeLoader(elementId, 0, element.getCount());
+		return current.plyColumns(element);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyColumnHandler#plyColumnsNext()
+	 */
+	@Override
+	public int plyColumnsNext() {
+		return current.plyColumnsNext();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyColumnHandler#plyColumnsRemaining()
+	 */
+	@Override
+	public int plyColumnsRemaining() {
+		return current.plyColumnsRemaining();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyColumnHandler#plyColumnsFilled(int)
+	 */
+	@Override
+	public void plyColumnsFilled(int records) {
+		current.plyColumnsFilled(records);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyProperty(int, int, int)
+	 */
+	@Override
+	public void plyProperty(int elementId, int propertyId, int value) {
+		current.plyProperty(elementId, propertyId, value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyProperty(int, int, long)
+	 */
+	@Override
+	public void plyProperty(int elementId, int propertyId, long value) {
+		current.plyProperty(elementId, propertyId, value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyProperty(int, int, double)
+	 */
+	@Override
+	public void plyProperty(int elementId, int propertyId, double value) {
+		current.plyProperty(elementId, propertyId, value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyListProperty(int, int, int[], int)
+	 */
+	@Override
+	public void plyListProperty(int elementId, int propertyId, int[] values,
+			int size) {
+		current.plyListProperty(elementId, propertyId, values, size);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyListProperty(int, int, long[], int)
+	 */
+	@Override
+	public void plyListProperty(int elementId, int propertyId, long[] values,
+			int size) {
+		current.plyListProperty(elementId, propertyId, values, size);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyListProperty(int, int, double[], int)
+	 */
+	@Override
+	public void plyListProperty(int elementId, int propertyId,
+			double[] values, int size) {
+		current.plyListProperty(elementId, propertyId, values, size);
+	}
+
+	/**
+	 * Loads a range of occurrences of an element into the columns of the
+	 * loader. The values of the list properties are collected in buffers of
+	 * the range, which are concatenated when the mesh is requested.
+	 *
+	 * @author Niels Billen
+	 * @version 0.1
+	 */
+	private class RangeLoader implements PlyColumnHandler, PlyBulkHandler {
+		/**
+		 * The id of the element.
+		 */
+		private final int elementId;
+
+		/**
+		 * The index of the first occurrence of the range.
+		 */
+		private final int firstRecord;
+
+		/**
+		 * The number of occurrences in the range.
+		 */
+		private final int recordCount;
+
+		/**
+		 * The column of every scalar property of the element.
+		 */
+		private final PlyColumn[] columns;
+
+		/**
+		 * The lengths of the lists of every list property of the element.
+		 */
+		private final int[][] lengths;
+
+		/**
+		 * The buffer with the values of the lists in this range for every
+		 * list property.
+		 */
+		private final PlyColumn[] listValues;
+
+		/**
+		 * The number of values in the buffer of every list property.
+		 */
+		private final int[] listSizes;
+
+		/**
+		 * The index of the occurrence which is loaded.
+		 */
+		private int record;
+
+		/**
+		 * Creates a new {@link RangeLoader} for the given range of occurrences
+		 * of the element with the given id.
+		 *
+		 * @param elementId
+		 *            the id of the element.
+		 * @param firstRecord
+		 *            the index of the first occurrence of the range.
+		 * @param recordCount
+		 *            the number of occurrences in the range.
+		 */
+		public RangeLoader(int elementId, int firstRecord, int recordCount) {
+			this.elementId = elementId;
+			this.firstRecord = firstRecord;
+			this.recordCount = recordCount;
+			this.columns = PlyMeshLoader.this.columns.get(elementId);
+			this.lengths = PlyMeshLoader.this.lengths.get(elementId);
+			this.listValues = new PlyColumn[columns.length];
+			this.listSizes = new int[columns.length];
+			this.record = firstRecord - 1;
+			ranges.add(this);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see io.PlyIndexedHandler#plyElementStart(int)
+		 */
+		@Override
+		public void plyElementStart(int elementId) {
+			++record;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see io.PlyStructureHandler#plyElementEnd()
+		 */
+		@Override
+		public void plyElementEnd() {
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see io.PlyBulkHandler#plyAcceptsBytes(core.ElementDefinition,
+		 * java.nio.ByteOrder)
+		 */
+		@Override
+		public boolean plyAcceptsBytes(ElementDefinition element,
+				ByteOrder order) {
+			return PlyMeshLoader.this.plyAcceptsBytes(element, order);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see io.PlyBulkHandler#plyElementBytes(core.ElementDefinition,
+		 * java.nio.ByteBuffer, int)
+		 */
+		@Override
+		public void plyElementBytes(ElementDefinition element,
+				ByteBuffer bytes, int records) {
+			ByteBuffer target = interleaved.get(elementId).duplicate();
+			target.position((record + 1) * element.nbOfBytes());
+			target.put(bytes);
+			record += records;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see io.PlyColumnHandler#plyColumns(core.ElementDefinition)
+		 */
+		@Override
+		public PlyColumn[] plyColumns(ElementDefinition element) {
+			// the columns of an arena are not stored in arrays
+			return arena == null ? columns : null;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see io.PlyColumnHandler#plyColumnsNext()
+		 */
+		@Override
+		public int plyColumnsNext() {
+			return record + 1;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see io.PlyColumnHandler#plyColumnsRemaining()
+		 */
+		@Override
+		public int plyColumnsRemaining() {
+			return firstRecord + recordCount - record - 1;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see io.PlyColumnHandler#plyColumnsFilled(int)
+		 */
+		@Override
+		public void plyColumnsFilled(int records) {
+			record += records;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see io.PlyIndexedHandler#plyProperty(int, int, int)
+		 */
+		@Override
+		public void plyProperty(int elementId, int propertyId, int value) {
+			columns[propertyId].setLong(record, value);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see io.PlyIndexedHandler#plyProperty(int, int, long)
+		 */
+		@Override
+		public void plyProperty(int elementId, int propertyId, long value) {
+			columns[propertyId].setLong(record, value);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see io.PlyIndexedHandler#plyProperty(int, int, double)
+		 */
+		@Override
+		public void plyProperty(int elementId, int propertyId, double value) {
+			columns[propertyId].setDouble(record, value);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see io.PlyIndexedHandler#plyListProperty(int, int, int[], int)
+		 */
+		@Override
+		public void plyListProperty(int elementId, int propertyId,
+				int[] values, int size) {
+			PlyColumn buffer = reserve(propertyId, size);
+			int start = listSizes[propertyId];
+			for (int i = 0; i < size; ++i)
+				buffer.setLong(start + i, values[i]);
+			listSizes[propertyId] = start + size;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see io.PlyIndexedHandler#plyListProperty(int, int, long[], int)
+		 */
+		@Override
+		public void plyListProperty(int elementId, int propertyId,
+				long[] values, int size) {
+			PlyColumn buffer = reserve(propertyId, size);
+			int start = listSizes[propertyId];
+			for (int i = 0; i < size; ++i)
+				buffer.setLong(start + i, values[i]);
+			listSizes[propertyId] = start + size;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see io.PlyIndexedHandler#plyListProperty(int, int, double[], int)
+		 */
+		@Override
+		public void plyListProperty(int elementId, int propertyId,
+				double[] values, int size) {
+			PlyColumn buffer = reserve(propertyId, size);
+			int start = listSizes[propertyId];
+			for (int i = 0; i < size; ++i)
+				buffer.setDouble(start + i, values[i]);
+			listSizes[propertyId] = start + size;
+		}
+
+		/**
+		 * Records the length of the list of the current occurrence for the
+		 * given property and returns a buffer with room for its values.
+		 *
+		 * The first buffer of a property assumes that all the lists of the
+		 * range have the same length as the first one, which is exact for
+		 * meshes which only consist of triangles. The buffer grows by half
+		 * when the assumption does not hold.
+		 *
+		 * @param propertyId
+		 *            the id of the list property.
+		 * @param size
+		 *            the length of the list.
+		 * @return a buffer with room for the values of the list.
+		 * @throws IllegalStateException
+		 *             when there are too many values for a Java array.
+		 */
+		private PlyColumn reserve(int propertyId, int size)
+				throws IllegalStateException {
+			lengths[propertyId][record + 1] = size;
+
+			PlyColumn buffer = listValues[propertyId];
+			long required = (long) listSizes[propertyId] + size;
+			if (buffer != null && required <= buffer.size())
+				return buffer;
+			if (required > MAX_ARRAY_SIZE)
+				throw new IllegalStateException(
+						"the lists contain too many values for a Java array!");
+
+			long capacity;
+			if (buffer == null)
+				capacity = (long) size * (firstRecord + recordCount - record);
+			else
+				capacity = buffer.size() + (buffer.size() >> 1) + 16;
+			capacity = Math.min(Math.max(capacity, required), MAX_ARRAY_SIZE);
+
+			if (buffer == null) {
+				PropertyDefinition property = definitions.get(elementId)
+						.getProperty(propertyId);
+				buffer = new PlyColumn(((PlyList<?>) property.getDataType())
+						.getDataType(), (int) capacity);
+			} else
+				buffer = buffer.copyOf((int) capacity);
+			listValues[propertyId] = buffer;
+			return buffer;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see io.PlyStructureHandler#plyHeaderFormat(core.Format, int, int)
+		 */
+		@Override
+		public void plyHeaderFormat(Format format, int majorVersion,
+				int minorVersion) {
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see io.PlyStructureHandler#plyHeaderComment(java.lang.String)
+		 */
+		@Override
+		public void plyHeaderComment(String comment) {
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see io.PlyStructureHandler#plyHeaderEnd()
+		 */
+		@Override
+		public void plyHeaderEnd() {
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see io.PlyStructureHandler#plyElementDefinition(core.ElementDefinition)
+		 */
+		@Override
+		public void plyElementDefinition(ElementDefinition element) {
+		}
+	}
+}
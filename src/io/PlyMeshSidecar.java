@@ -0,0 +1,398 @@
+package io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import core.ElementDefinition;
+import core.Format;
+import core.PlyColumn;
+import core.PlyElement;
+import core.PlyListColumn;
+import core.PlyMesh;
+import core.PropertyDefinition;
+import core.datatype.DataType;
+import core.datatype.PlyList;
+import core.datatype.Scalar;
+
+/**
+ * A compiled copy of a {@link PlyMesh}, which is saved next to the PLY File
+ * it was loaded from so the file does not have to be parsed again.
+ *
+ * The sidecar holds the header of the mesh, followed by the values of every
+ * column one after the other in native byte order. It is loaded by mapping
+ * the columns into memory, so no values are parsed or copied. The columns of
+ * a loaded mesh are read-only.
+ *
+ * A sidecar is only used while the size and the modification time of the
+ * PLY File are the ones which were saved with it.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class PlyMeshSidecar {
+	/**
+	 * The extension which is appended to the name of a PLY File to obtain
+	 * the name of its sidecar.
+	 */
+	public static final String EXTENSION = ".plymesh";
+
+	/**
+	 * The number which identifies a sidecar ("PLYM").
+	 */
+	private static final int MAGIC = 0x504c594d;
+
+	/**
+	 * The version of the layout of a sidecar.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * The alignment of the values of every column in the sidecar.
+	 */
+	private static final int ALIGNMENT = 8;
+
+	/**
+	 * Creates a new {@link PlyMeshSidecar}. Private because this class only
+	 * has static methods.
+	 */
+	private PlyMeshSidecar() {
+	}
+
+	/**
+	 * Loads the PLY File at the given path into a {@link PlyMesh} through its
+	 * sidecar. When the sidecar is missing or outdated, the file is parsed
+	 * with the given options, and the sidecar is written when the file is in
+	 * ASCII format, unless its directory cannot be written.
+	 *
+	 * @param path
+	 *            the path of the file to load.
+	 * @param options
+	 *            the options which control how the file is read.
+	 * @return the loaded mesh.
+	 * @throws IOException
+	 *             when an exception occurs during the reading of the file.
+	 * @throws ParseException
+	 *             when an exception occurs during the parsing of the file.
+	 */
+	public static PlyMesh load(Path path, PlyReaderOptions options)
+			throws IOException, ParseException {
+		BasicFileAttributes attributes = Files.readAttributes(path,
+				BasicFileAttributes.class);
+		Path sidecar = getSidecar(path);
+		try {
+			PlyMesh mesh = read(sidecar, attributes);
+			if (mesh != null)
+				return mesh;
+		} catch (NoSuchFileException e) {
+			// there is no sidecar yet
+		} catch (IOException e) {
+			// the sidecar is damaged and is replaced
+		}
+
+		PlyMeshLoader loader = new PlyMeshLoader();
+		PlyReader.parse(path, loader, options);
+		PlyMesh mesh = loader.getMesh();
+		if (mesh.getFormat() == Format.ASCII) {
+			try {
+				write(sidecar, mesh, attributes);
+			} catch (IOException e) {
+				// the mesh can still be used without a sidecar
+			}
+		}
+		return mesh;
+	}
+
+	/**
+	 * Returns the path of the sidecar of the PLY File at the given path.
+	 *
+	 * @param path
+	 *            the path of the PLY File.
+	 * @return the path of the sidecar of the file.
+	 */
+	public static Path getSidecar(Path path) {
+		return path.resolveSibling(path.getFileName() + EXTENSION);
+	}
+
+	/**
+	 * Writes the given mesh, which was loaded from a file with the given
+	 * attributes, to the given sidecar. The mesh is written to a temporary
+	 * file of its own, which is moved over the sidecar when it is complete,
+	 * so readers never see a partially written sidecar and concurrent writers
+	 * do not interfere.
+	 *
+	 * @param sidecar
+	 *            the path of the sidecar.
+	 * @param mesh
+	 *            the mesh to write.
+	 * @param source
+	 *            the attributes of the file the mesh was loaded from.
+	 * @throws IOException
+	 *             when the sidecar could not be written.
+	 */
+	public static void write(Path sidecar, PlyMesh mesh,
+			BasicFileAttributes source) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream header = new DataOutputStream(bytes);
+		header.writeInt(MAGIC);
+		header.writeInt(VERSION);
+		header.writeBoolean(ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN);
+		header.writeLong(source.size());
+		header.writeLong(source.lastModifiedTime().toMillis());
+		header.writeByte(mesh.getFormat().ordinal());
+		header.writeInt(mesh.getComments().size());
+		for (String comment : mesh.getComments())
+			header.writeUTF(comment);
+		header.writeInt(mesh.getElements().size());
+		for (PlyElement element : mesh.getElements()) {
+			ElementDefinition definition = element.getDefinition();
+			header.writeUTF(definition.getName());
+			header.writeInt(definition.getCount());
+			header.writeInt(definition.nbOfProperties());
+			for (PropertyDefinition property : definition) {
+				header.writeUTF(property.getName());
+				header.writeUTF(property.getDataType().toPLY());
+			}
+		}
+		header.close();
+
+		// every writer maps its own file, so a concurrent writer of the same
+		// sidecar can never truncate the file under the mappings
+		Path temporary = sidecar.resolveSibling(sidecar.getFileName() + "."
+				+ Long.toHexString(ThreadLocalRandom.current().nextLong())
+				+ ".tmp");
+		FileChannel channel = FileChannel.open(temporary,
+				StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		boolean written = false;
+		try {
+			try {
+				ByteBuffer length = ByteBuffer.allocate(4);
+				length.putInt(0, bytes.size());
+				channel.write(length);
+				channel.write(ByteBuffer.wrap(bytes.toByteArray()));
+
+				long position = align(channel.position());
+				for (PlyElement element : mesh.getElements()) {
+					ElementDefinition definition = element.getDefinition();
+					for (int p = 0; p < definition.nbOfProperties(); ++p) {
+						if (element.getColumn(p) != null) {
+							position = writeColumn(channel, position,
+									element.getColumn(p));
+							continue;
+						}
+						PlyListColumn list = element.getListColumn(p);
+						int[] offsets = list.getOffsets();
+						ByteBuffer buffer = map(channel, MapMode.READ_WRITE,
+								position, 4L * offsets.length);
+						buffer.asIntBuffer().put(offsets);
+						position = align(position + 4L * offsets.length);
+						position = writeColumn(channel, position,
+								list.getValues());
+					}
+				}
+				channel.force(true);
+			} finally {
+				channel.close();
+			}
+
+			try {
+				Files.move(temporary, sidecar, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporary, sidecar,
+						StandardCopyOption.REPLACE_EXISTING);
+			}
+			written = true;
+		} finally {
+			if (!written)
+				Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * Reads the mesh in the given sidecar, and returns <code>null</code> when
+	 * the sidecar does not belong to a file with the given attributes or was
+	 * written on a platform with another byte order.
+	 *
+	 * @param sidecar
+	 *            the path of the sidecar.
+	 * @param source
+	 *            the attributes of the file the mesh should be loaded from.
+	 * @return the mesh in the sidecar or <code>null</code> when the sidecar
+	 *         is outdated.
+	 * @throws IOException
+	 *             when the sidecar could not be read or is damaged.
+	 */
+	public static PlyMesh read(Path sidecar, BasicFileAttributes source)
+			throws IOException {
+		FileChannel channel = FileChannel.open(sidecar,
+				StandardOpenOption.READ);
+		try {
+			DataInputStream header = new DataInputStream(
+					Channels.newInputStream(channel));
+			int length = header.readInt();
+			if (header.readInt() != MAGIC)
+				throw new IOException("'" + sidecar + "' is not a PLY sidecar!");
+			if (header.readInt() != VERSION
+					|| header.readBoolean() != (ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN)
+					|| header.readLong() != source.size()
+					|| header.readLong() != source.lastModifiedTime()
+							.toMillis())
+				return null;
+
+			Format format = Format.values()[header.readByte()];
+			List<String> comments = new ArrayList<String>();
+			for (int i = header.readInt(); i > 0; --i)
+				comments.add(header.readUTF());
+			int nbOfElements = header.readInt();
+			List<ElementDefinition> definitions = new ArrayList<ElementDefinition>();
+			for (int e = 0; e < nbOfElements; ++e) {
+				ElementDefinition definition = new ElementDefinition(
+						header.readUTF(), header.readInt(), e);
+				for (int p = header.readInt(); p > 0; --p)
+					definition.addProperty(new PropertyDefinition(header
+							.readUTF(), DataType.parseFromString(header
+							.readUTF().split(" "))));
+				definitions.add(definition);
+			}
+
+			// map the columns which follow the header
+			long position = align(4 + length);
+			List<PlyElement> elements = new ArrayList<PlyElement>();
+			for (ElementDefinition definition : definitions) {
+				int size = definition.nbOfProperties();
+				PlyColumn[] columns = new PlyColumn[size];
+				PlyListColumn[] listColumns = new PlyListColumn[size];
+				for (int p = 0; p < size; ++p) {
+					DataType<?> type = definition.getProperty(p).getDataType();
+					if (type instanceof Scalar) {
+						columns[p] = readColumn(channel, position,
+								(Scalar<?>) type, definition.getCount());
+						position = align(position + columns[p].nbOfBytes());
+						continue;
+					}
+					PlyList<?> listType = (PlyList<?>) type;
+					int[] offsets = new int[definition.getCount() + 1];
+					map(channel, MapMode.READ_ONLY, position,
+							4L * offsets.length).asIntBuffer().get(offsets);
+					position = align(position + 4L * offsets.length);
+					PlyColumn values = readColumn(channel, position,
+							listType.getDataType(), offsets[offsets.length - 1]);
+					position = align(position + values.nbOfBytes());
+					listColumns[p] = new PlyListColumn(listType, offsets,
+							values);
+				}
+				elements.add(new PlyElement(definition, columns, listColumns));
+			}
+			return new PlyMesh(format, comments, elements);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("'" + sidecar + "' is damaged!", e);
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("'" + sidecar + "' is damaged!", e);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Writes the values of the given column at the given position of the
+	 * given channel.
+	 *
+	 * @param channel
+	 *            the channel of the sidecar.
+	 * @param position
+	 *            the position of the first value.
+	 * @param column
+	 *            the column to write.
+	 * @return the aligned position after the last value.
+	 * @throws IOException
+	 *             when the values could not be written.
+	 */
+	private static long writeColumn(FileChannel channel, long position,
+			PlyColumn column) throws IOException {
+		Scalar<?> type = column.getType();
+		ByteBuffer buffer = map(channel, MapMode.READ_WRITE, position,
+				column.nbOfBytes());
+		column.copyTo(0, new PlyColumn(type, buffer, 0, type.nbOfBytes(),
+				column.size()), 0, column.size());
+		return align(position + column.nbOfBytes());
+	}
+
+	/**
+	 * Maps the column of the given type and size at the given position of
+	 * the given channel.
+	 *
+	 * @param channel
+	 *            the channel of the sidecar.
+	 * @param position
+	 *            the position of the first value.
+	 * @param type
+	 *            the type of the values.
+	 * @param size
+	 *            the number of values.
+	 * @return the mapped column.
+	 * @throws IOException
+	 *             when the values could not be mapped.
+	 */
+	private static PlyColumn readColumn(FileChannel channel, long position,
+			Scalar<?> type, int size) throws IOException {
+		long length = (long) size * type.nbOfBytes();
+		ByteBuffer buffer = map(channel, MapMode.READ_ONLY, position, length);
+		return new PlyColumn(type, buffer, 0, type.nbOfBytes(), size);
+	}
+
+	/**
+	 * Maps the given region of the given channel in native byte order.
+	 *
+	 * @param channel
+	 *            the channel to map.
+	 * @param mode
+	 *            the mode of the mapping.
+	 * @param position
+	 *            the position of the region.
+	 * @param length
+	 *            the number of bytes of the region.
+	 * @return the mapped region.
+	 * @throws IOException
+	 *             when the region could not be mapped, or when it is larger
+	 *             than a buffer can be.
+	 */
+	private static ByteBuffer map(FileChannel channel, MapMode mode,
+			long position, long length) throws IOException {
+		if (length > Integer.MAX_VALUE)
+			throw new IOException("a column of " + length
+					+ " bytes cannot be mapped!");
+		if (mode != MapMode.READ_WRITE
+				&& position + length > channel.size())
+			throw new IOException("the sidecar is truncated!");
+		return channel.map(mode, position, length).order(
+				ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * Rounds the given position up to the alignment of the columns.
+	 *
+	 * @param position
+	 *            the position to align.
+	 * @return the aligned position.
+	 */
+	private static long align(long position) {
+		return (position + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+	}
+}
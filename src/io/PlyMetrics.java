@@ -0,0 +1,361 @@
+package io;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import core.ElementDefinition;
+
+/**
+ * The counters of a {@link PlyReader} which parses a file with a
+ * {@link PlyMetricsListener}: the number of bytes which were consumed, and
+ * the number of occurrences, bytes and time of every element.
+ *
+ * The reader updates the counters once per batch of occurrences instead of
+ * once per value, so they can be kept for every parse. The counters may be
+ * read from any thread while the file is parsed.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class PlyMetrics {
+	/**
+	 * The path of the parsed file, or <code>null</code> when it is read from
+	 * a channel.
+	 */
+	private final Path path;
+
+	/**
+	 * The size of the parsed file in bytes, or -1 when it is unknown.
+	 */
+	private final long fileSize;
+
+	/**
+	 * The listener which is notified of the progress.
+	 */
+	private final PlyMetricsListener listener;
+
+	/**
+	 * The minimum number of nanoseconds between two progress notifications.
+	 */
+	private final long progressInterval;
+
+	/**
+	 * The time the parse started, in nanoseconds.
+	 */
+	private final long startTime;
+
+	/**
+	 * The time of the last progress notification, in nanoseconds.
+	 */
+	private long progressTime;
+
+	/**
+	 * The time the body was parsed, in nanoseconds, or -1 while it is parsed.
+	 */
+	private long endTime = -1;
+
+	/**
+	 * The elements of the file.
+	 */
+	private List<ElementDefinition> elements = Collections.emptyList();
+
+	/**
+	 * The number of bytes of the header.
+	 */
+	private long headerBytes;
+
+	/**
+	 * The number of nanoseconds it took to parse the header.
+	 */
+	private long headerNanos;
+
+	/**
+	 * The number of bytes of the body which were consumed.
+	 */
+	private long bodyBytes;
+
+	/**
+	 * The number of occurrences of every element which were decoded.
+	 */
+	private long[] records = new long[0];
+
+	/**
+	 * The number of bytes of every element which were consumed.
+	 */
+	private long[] bytes = new long[0];
+
+	/**
+	 * The number of nanoseconds it took to parse every element.
+	 */
+	private long[] nanos = new long[0];
+
+	/**
+	 * Creates new metrics for a parse of the given file which starts now.
+	 *
+	 * @param path
+	 *            the path of the parsed file, or <code>null</code> when it is
+	 *            read from a channel.
+	 * @param fileSize
+	 *            the size of the parsed file in bytes, or -1 when it is
+	 *            unknown.
+	 * @param listener
+	 *            the listener which is notified of the progress.
+	 * @param progressInterval
+	 *            the minimum number of milliseconds between two progress
+	 *            notifications.
+	 */
+	PlyMetrics(Path path, long fileSize, PlyMetricsListener listener,
+			long progressInterval) {
+		this.path = path;
+		this.fileSize = fileSize;
+		this.listener = listener;
+		this.progressInterval = TimeUnit.MILLISECONDS
+				.toNanos(progressInterval);
+		this.startTime = System.nanoTime();
+		this.progressTime = startTime;
+	}
+
+	/**
+	 * Returns the path of the parsed file, or <code>null</code> when it is
+	 * read from a channel.
+	 *
+	 * @return the path of the parsed file or <code>null</code>.
+	 */
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * Returns the size of the parsed file in bytes, or -1 when it is unknown
+	 * because the file is read from a channel or decompressed.
+	 *
+	 * @return the size of the parsed file in bytes or -1.
+	 */
+	public long getFileSize() {
+		return fileSize;
+	}
+
+	/**
+	 * Returns the elements of the file, or an empty list while the header is
+	 * parsed.
+	 *
+	 * @return the elements of the file.
+	 */
+	public synchronized List<ElementDefinition> getElements() {
+		return elements;
+	}
+
+	/**
+	 * Returns the number of bytes of the header.
+	 *
+	 * @return the number of bytes of the header.
+	 */
+	public synchronized long getHeaderBytes() {
+		return headerBytes;
+	}
+
+	/**
+	 * Returns the number of nanoseconds it took to parse the header.
+	 *
+	 * @return the number of nanoseconds it took to parse the header.
+	 */
+	public synchronized long getHeaderNanos() {
+		return headerNanos;
+	}
+
+	/**
+	 * Returns the number of bytes of the file which were consumed, including
+	 * the header and the elements which were skipped.
+	 *
+	 * @return the number of bytes which were consumed.
+	 */
+	public synchronized long getBytesConsumed() {
+		return headerBytes + bodyBytes;
+	}
+
+	/**
+	 * Returns the fraction of the file which was consumed, between zero and
+	 * one. When the size of the file is unknown, the progress is zero until
+	 * the body has been parsed.
+	 *
+	 * @return the fraction of the file which was consumed.
+	 */
+	public synchronized double getProgress() {
+		if (fileSize < 0)
+			return endTime < 0 ? 0 : 1;
+		if (fileSize == 0)
+			return 1;
+		return Math.min(1, (double) (headerBytes + bodyBytes) / fileSize);
+	}
+
+	/**
+	 * Returns the number of nanoseconds since the parse started, or the
+	 * duration of the whole parse when it finished.
+	 *
+	 * @return the number of nanoseconds since the parse started.
+	 */
+	public synchronized long getElapsedNanos() {
+		return (endTime < 0 ? System.nanoTime() : endTime) - startTime;
+	}
+
+	/**
+	 * Returns the number of nanoseconds which were spent parsing the body.
+	 *
+	 * @return the number of nanoseconds which were spent parsing the body.
+	 */
+	public synchronized long getBodyNanos() {
+		return Math.max(0, getElapsedNanos() - headerNanos);
+	}
+
+	/**
+	 * Returns the average number of bytes which were consumed per second.
+	 *
+	 * @return the number of bytes which were consumed per second.
+	 */
+	public synchronized double getThroughput() {
+		long elapsed = getElapsedNanos();
+		if (elapsed <= 0)
+			return 0;
+		return (headerBytes + bodyBytes) * 1e9 / elapsed;
+	}
+
+	/**
+	 * Returns the number of occurrences of the element with the given index
+	 * which were decoded. Skipped elements are not decoded.
+	 *
+	 * @param element
+	 *            the index of the element in the header.
+	 * @return the number of decoded occurrences of the element.
+	 * @throws IndexOutOfBoundsException
+	 *             when there is no element with the given index.
+	 */
+	public synchronized long getRecords(int element)
+			throws IndexOutOfBoundsException {
+		return records[element];
+	}
+
+	/**
+	 * Returns the number of occurrences of all the elements which were
+	 * decoded.
+	 *
+	 * @return the number of decoded occurrences.
+	 */
+	public synchronized long getRecords() {
+		long total = 0;
+		for (long count : records)
+			total += count;
+		return total;
+	}
+
+	/**
+	 * Returns the number of bytes of the element with the given index which
+	 * were consumed.
+	 *
+	 * @param element
+	 *            the index of the element in the header.
+	 * @return the number of consumed bytes of the element.
+	 * @throws IndexOutOfBoundsException
+	 *             when there is no element with the given index.
+	 */
+	public synchronized long getBytes(int element)
+			throws IndexOutOfBoundsException {
+		return bytes[element];
+	}
+
+	/**
+	 * Returns the number of nanoseconds it took to parse the element with the
+	 * given index, or zero when it has not been parsed completely.
+	 *
+	 * @param element
+	 *            the index of the element in the header.
+	 * @return the number of nanoseconds it took to parse the element.
+	 * @throws IndexOutOfBoundsException
+	 *             when there is no element with the given index.
+	 */
+	public synchronized long getNanos(int element)
+			throws IndexOutOfBoundsException {
+		return nanos[element];
+	}
+
+	/**
+	 * Records that the header with the given elements has been parsed and
+	 * notifies the listener.
+	 *
+	 * @param elements
+	 *            the elements of the header.
+	 * @param headerBytes
+	 *            the number of bytes of the header.
+	 */
+	synchronized void headerParsed(List<ElementDefinition> elements,
+			long headerBytes) {
+		this.elements = Collections
+				.unmodifiableList(new ArrayList<ElementDefinition>(elements));
+		this.headerBytes = headerBytes;
+		this.headerNanos = System.nanoTime() - startTime;
+		this.records = new long[elements.size()];
+		this.bytes = new long[elements.size()];
+		this.nanos = new long[elements.size()];
+		listener.plyHeaderParsed(this);
+	}
+
+	/**
+	 * Adds a batch of occurrences of the element with the given index, and
+	 * notifies the listener of the progress when the progress interval has
+	 * passed.
+	 *
+	 * @param element
+	 *            the index of the element in the header.
+	 * @param records
+	 *            the number of decoded occurrences.
+	 * @param bytes
+	 *            the number of consumed bytes.
+	 */
+	synchronized void add(int element, long records, long bytes) {
+		this.records[element] += records;
+		this.bytes[element] += bytes;
+		this.bodyBytes += bytes;
+
+		long now = System.nanoTime();
+		if (now - progressTime >= progressInterval) {
+			progressTime = now;
+			listener.plyProgress(this);
+		}
+	}
+
+	/**
+	 * Records that the element with the given index has been parsed in the
+	 * given number of nanoseconds and notifies the listener.
+	 *
+	 * @param element
+	 *            the index of the element in the header.
+	 * @param nanos
+	 *            the number of nanoseconds it took to parse the element.
+	 */
+	synchronized void elementParsed(int element, long nanos) {
+		this.nanos[element] = nanos;
+		listener.plyElementParsed(this, element);
+	}
+
+	/**
+	 * Records that the body has been parsed and notifies the listener.
+	 */
+	synchronized void bodyParsed() {
+		endTime = System.nanoTime();
+		listener.plyBodyParsed(this);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public synchronized String toString() {
+		return String.format("%s: %d of %d bytes (%.1f%%), %d records, %.1f MB/s",
+				path, getBytesConsumed(), fileSize, 100 * getProgress(),
+				getRecords(), getThroughput() / (1024 * 1024));
+	}
+}
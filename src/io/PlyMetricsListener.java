@@ -0,0 +1,56 @@
+package io;
+
+/**
+ * Listener which is notified of the progress of a {@link PlyReader}. It is
+ * set with {@link PlyReaderOptions#setMetricsListener(PlyMetricsListener)}.
+ *
+ * Every method receives the {@link PlyMetrics} of the parse, which can be
+ * queried for the counters at that moment. The methods are never called
+ * concurrently, but {@link #plyProgress(PlyMetrics)} may be called from the
+ * threads which decode elements in parallel. All the methods do nothing by
+ * default.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public interface PlyMetricsListener {
+	/**
+	 * Called when the header has been parsed.
+	 *
+	 * @param metrics
+	 *            the metrics of the parse.
+	 */
+	public default void plyHeaderParsed(PlyMetrics metrics) {
+	}
+
+	/**
+	 * Called periodically while the body is parsed, at most once per
+	 * {@link PlyReaderOptions#getProgressInterval()} milliseconds.
+	 *
+	 * @param metrics
+	 *            the metrics of the parse.
+	 */
+	public default void plyProgress(PlyMetrics metrics) {
+	}
+
+	/**
+	 * Called when all the occurrences of an element have been parsed or
+	 * skipped.
+	 *
+	 * @param metrics
+	 *            the metrics of the parse.
+	 * @param element
+	 *            the index of the element in the header.
+	 */
+	public default void plyElementParsed(PlyMetrics metrics, int element) {
+	}
+
+	/**
+	 * Called when the whole body has been parsed.
+	 *
+	 * @param metrics
+	 *            the metrics of the parse.
+	 */
+	public default void plyBodyParsed(PlyMetrics metrics) {
+	}
+}
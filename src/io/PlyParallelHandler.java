@@ -0,0 +1,39 @@
+package io;
+
+import core.ElementDefinition;
+
+/**
+ * A handler which allows the {@link PlyReader} to decode the occurrences of an
+ * element in parallel.
+ * 
+ * When the parallelism of the {@link PlyReaderOptions} is larger than one,
+ * the occurrences of every element with a fixed size in a binary file are
+ * split into ranges which are decoded concurrently. Every range is passed to
+ * its own handler, which is requested from this handler before the decoding
+ * of the element starts. The other elements and the header are passed to
+ * this handler as usual.
+ * 
+ * A range handler receives the occurrences of its range in order. It can,
+ * for example, store them in shared arrays starting at the index of the first
+ * occurrence of the range.
+ * 
+ * @author Niels Billen
+ * @version 0.1
+ */
+public interface PlyParallelHandler extends PlyStructureHandler {
+	/**
+	 * Returns the handler which receives the given range of occurrences of the
+	 * given element. This method is called from the thread which called the
+	 * {@link PlyReader}, but the returned handlers are used concurrently.
+	 * 
+	 * @param element
+	 *            the element which is decoded.
+	 * @param firstRecord
+	 *            the index of the first occurrence in the range.
+	 * @param recordCount
+	 *            the number of occurrences in the range.
+	 * @return the handler which receives the given range of occurrences.
+	 */
+	public PlyStructureHandler plyRangeHandler(ElementDefinition element,
+			int firstRecord, int recordCount);
+}
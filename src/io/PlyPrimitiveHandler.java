@@ -0,0 +1,138 @@
+package io;
+
+/**
+ * A {@link PlyHandler} which receives the values of the properties as
+ * primitives instead of boxed objects.
+ * 
+ * When the handler passed to the {@link PlyReader} implements this interface,
+ * the primitive callbacks are called instead of the boxed callbacks of the
+ * {@link PlyHandler}. Integer properties whose values all fit in an
+ * <code>int</code> are passed as an <code>int</code>, the other integer
+ * properties as a <code>long</code>.
+ * 
+ * The arrays passed to the list callbacks are reused by the reader. Only the
+ * first <code>size</code> values are valid and only during the callback.
+ * 
+ * The boxed callbacks of the {@link PlyHandler} forward to the primitive
+ * callbacks by default.
+ * 
+ * @author Niels Billen
+ * @version 0.1
+ */
+public interface PlyPrimitiveHandler extends PlyHandler {
+	/**
+	 * Called when an integer property which fits in an <code>int</code> has
+	 * been parsed.
+	 * 
+	 * @param propertyName
+	 *            the name of the property.
+	 * @param value
+	 *            the parsed value.
+	 */
+	public void plyProperty(String propertyName, int value);
+
+	/**
+	 * Called when an integer property which does not fit in an
+	 * <code>int</code> has been parsed.
+	 * 
+	 * @param propertyName
+	 *            the name of the property.
+	 * @param value
+	 *            the parsed value.
+	 */
+	public void plyProperty(String propertyName, long value);
+
+	/**
+	 * Called when a floating point property has been parsed.
+	 * 
+	 * @param propertyName
+	 *            the name of the property.
+	 * @param value
+	 *            the parsed value.
+	 */
+	public void plyProperty(String propertyName, double value);
+
+	/**
+	 * Called when a list of integers which fit in an <code>int</code> has been
+	 * parsed.
+	 * 
+	 * @param propertyName
+	 *            the name of the property.
+	 * @param values
+	 *            a reusable array holding the values of the list.
+	 * @param size
+	 *            the number of values in the list.
+	 */
+	public void plyListProperty(String propertyName, int[] values, int size);
+
+	/**
+	 * Called when a list of integers which do not fit in an <code>int</code>
+	 * has been parsed.
+	 * 
+	 * @param propertyName
+	 *            the name of the property.
+	 * @param values
+	 *            a reusable array holding the values of the list.
+	 * @param size
+	 *            the number of values in the list.
+	 */
+	public void plyListProperty(String propertyName, long[] values, int size);
+
+	/**
+	 * Called when a list of floating point values has been parsed.
+	 * 
+	 * @param propertyName
+	 *            the name of the property.
+	 * @param values
+	 *            a reusable array holding the values of the list.
+	 * @param size
+	 *            the number of values in the list.
+	 */
+	public void plyListProperty(String propertyName, double[] values, int size);
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.PlyHandler#plyProperty(java.lang.String, java.lang.Double)
+	 */
+	@Override
+	public default void plyProperty(String propertyName, Double value) {
+		plyProperty(propertyName, value.doubleValue());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.PlyHandler#plyProperty(java.lang.String, java.lang.Long)
+	 */
+	@Override
+	public default void plyProperty(String propertyName, Long value) {
+		plyProperty(propertyName, value.longValue());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.PlyHandler#plyProperty(java.lang.String, java.lang.Double[])
+	 */
+	@Override
+	public default void plyProperty(String propertyName, Double... value) {
+		double[] values = new double[value.length];
+		for (int i = 0; i < value.length; ++i)
+			values[i] = value[i];
+		plyListProperty(propertyName, values, values.length);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.PlyHandler#plyProperty(java.lang.String, java.lang.Long[])
+	 */
+	@Override
+	public default void plyProperty(String propertyName, Long... value) {
+		long[] values = new long[value.length];
+		for (int i = 0; i < value.length; ++i)
+			values[i] = value[i];
+		plyListProperty(propertyName, values, values.length);
+	}
+}
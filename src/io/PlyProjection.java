@@ -0,0 +1,145 @@
+package io;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import core.ElementDefinition;
+import core.PropertyDefinition;
+
+/**
+ * A selection of the elements and properties of a PLY File which should be
+ * passed to a handler.
+ *
+ * The handler receives the file as if it only contained the selected
+ * elements and properties, in the order of the file: the element definitions
+ * of the header only contain the selected properties, and the ids of the
+ * elements and properties are their indices among the selected ones. The
+ * other values are skipped without being decoded. Selected elements or
+ * properties which are not present in the file are ignored.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class PlyProjection {
+	/**
+	 * The names of the selected properties of every selected element, or
+	 * <code>null</code> for the elements of which all properties are
+	 * selected.
+	 */
+	private final Map<String, Set<String>> selection = new HashMap<String, Set<String>>();
+
+	/**
+	 * Creates a new {@link PlyProjection} which does not select any element.
+	 */
+	public PlyProjection() {
+	}
+
+	/**
+	 * Selects the given properties of the element with the given name. All
+	 * the properties of the element are selected when no properties are
+	 * given.
+	 *
+	 * @param element
+	 *            the name of the element to select.
+	 * @param properties
+	 *            the names of the properties of the element to select.
+	 * @return this {@link PlyProjection}.
+	 * @throws NullPointerException
+	 *             when the name of the element or one of the properties is
+	 *             null.
+	 */
+	public PlyProjection select(String element, String... properties)
+			throws NullPointerException {
+		if (element == null)
+			throw new NullPointerException("the element cannot be null!");
+		for (String property : properties)
+			if (property == null)
+				throw new NullPointerException(
+						"the properties cannot be null!");
+
+		if (properties.length == 0) {
+			selection.put(element, null);
+		} else if (!selection.containsKey(element)) {
+			selection.put(element, new HashSet<String>());
+		}
+		Set<String> selected = selection.get(element);
+		if (selected != null)
+			for (String property : properties)
+				selected.add(property);
+		return this;
+	}
+
+	/**
+	 * Returns whether the element with the given name is selected.
+	 *
+	 * @param element
+	 *            the name of the element.
+	 * @return whether the element with the given name is selected.
+	 */
+	public boolean isSelected(String element) {
+		return selection.containsKey(element);
+	}
+
+	/**
+	 * Returns whether the given property of the element with the given name
+	 * is selected.
+	 *
+	 * @param element
+	 *            the name of the element.
+	 * @param property
+	 *            the name of the property.
+	 * @return whether the given property of the element is selected.
+	 */
+	public boolean isSelected(String element, String property) {
+		if (!selection.containsKey(element))
+			return false;
+		Set<String> selected = selection.get(element);
+		return selected == null || selected.contains(property);
+	}
+
+	/**
+	 * Returns a new {@link ElementDefinition} with the given id which only
+	 * contains the selected properties of the given element, or
+	 * <code>null</code> when the element is not selected.
+	 *
+	 * @param element
+	 *            the element of the file.
+	 * @param id
+	 *            the id of the projected element.
+	 * @return the projection of the given element or <code>null</code> when
+	 *         the element is not selected.
+	 */
+	public ElementDefinition project(ElementDefinition element, int id) {
+		return project(element, id, element.getCount());
+	}
+
+	/**
+	 * Returns a new {@link ElementDefinition} with the given id and count
+	 * which only contains the selected properties of the given element, or
+	 * <code>null</code> when the element is not selected.
+	 *
+	 * @param element
+	 *            the element of the file.
+	 * @param id
+	 *            the id of the projected element.
+	 * @param count
+	 *            the number of occurrences of the projected element.
+	 * @return the projection of the given element or <code>null</code> when
+	 *         the element is not selected.
+	 */
+	public ElementDefinition project(ElementDefinition element, int id,
+			int count) {
+		String name = element.getName();
+		if (!isSelected(name))
+			return null;
+
+		ElementDefinition result = new ElementDefinition(name, count, id);
+		for (PropertyDefinition property : element)
+			if (isSelected(name, property.getName()))
+				result.addProperty(new PropertyDefinition(property.getName(),
+						property.getDataType()));
+		return result;
+	}
+}
@@ -2,11 +2,24 @@ package io;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
+import util.MappedPlyScanner;
 import util.PlyScanner;
 import core.ElementDefinition;
 import core.Format;
@@ -20,26 +33,125 @@ import core.datatype.DataType;
  * @version 1.0
  */
 public class PlyReader {
+	/**
+	 * The minimum number of bytes in a range of occurrences which is decoded
+	 * in parallel.
+	 */
+	private static final long MIN_RANGE_BYTES = 1024 * 1024;
+
+	/**
+	 * The number of bytes after which a chunk of lines of an ASCII element is
+	 * parsed in parallel.
+	 */
+	private static final long ASCII_CHUNK_BYTES = 4 * 1024 * 1024;
+
+	/**
+	 * The number of occurrences of an element without a fixed size after which
+	 * the metrics are updated.
+	 */
+	private static final int BATCH_RECORDS = 4096;
+
+	/**
+	 * The number of bytes of an element with a fixed size after which the
+	 * metrics are updated.
+	 */
+	private static final int BATCH_BYTES = 4 * 1024 * 1024;
+
 	/**
 	 * The format in which the PLY File is formatted in.
 	 */
 	private Format format;
 
 	/**
-	 * The {@link Path} to the PLY File which we are parsing.
+	 * The {@link Path} to the PLY File which we are parsing, or
+	 * <code>null</code> when the file is read from a channel.
 	 */
 	private Path path;
 
 	/**
-	 * The {@link PlyHandler} to which the parsed information is passed.
+	 * The channel from which the file is read, or <code>null</code> when the
+	 * file is read from its path.
 	 */
-	private PlyHandler handler;
+	private ReadableByteChannel input;
+
+	/**
+	 * The {@link PlyHandler} or {@link PlyIndexedHandler} to which the parsed
+	 * information is passed.
+	 */
+	private PlyStructureHandler handler;
 
 	/**
 	 * List with {@link ElementDefinition} definitions.
 	 */
 	private List<ElementDefinition> elements = new ArrayList<ElementDefinition>();
 
+	/**
+	 * The {@link ElementDefinition} which is passed to the handler for every
+	 * element of the file, or <code>null</code> for the elements which are
+	 * skipped.
+	 */
+	private List<ElementDefinition> projections = new ArrayList<ElementDefinition>();
+
+	/**
+	 * The {@link PropertyDefinition} which is passed to the handler for every
+	 * property of every element, or <code>null</code> for the properties
+	 * which are skipped.
+	 */
+	private PropertyDefinition[][] properties;
+
+	/**
+	 * The options which control how the file is read.
+	 */
+	private PlyReaderOptions options;
+
+	/**
+	 * The pool which decodes elements in parallel, or <code>null</code> when
+	 * the elements are decoded sequentially.
+	 */
+	private ForkJoinPool pool;
+
+	/**
+	 * The channel from which elements are decoded in parallel.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * The {@link FixedStrideDecoder} of every element, or <code>null</code>
+	 * for the elements which do not have a fixed size.
+	 */
+	private FixedStrideDecoder[] decoders;
+
+	/**
+	 * The index which is used to find the occurrences of a range, or
+	 * <code>null</code> when the whole file is parsed.
+	 */
+	private PlyIndex index;
+
+	/**
+	 * The metrics of the parse, or <code>null</code> when no metrics are kept.
+	 */
+	private PlyMetrics metrics;
+
+	/**
+	 * The name of the element of the range which is parsed.
+	 */
+	private String rangeElement;
+
+	/**
+	 * The index of the first occurrence of the range which is parsed.
+	 */
+	private int rangeFirst;
+
+	/**
+	 * The number of occurrences in the range which is parsed.
+	 */
+	private int rangeCount;
+
+	/**
+	 * The index in the header of the element of the range which is parsed.
+	 */
+	private int rangeIndex;
+
 	/**
 	 * The line which is currently parsed.
 	 */
@@ -47,31 +159,137 @@ public class PlyReader {
 
 	/**
 	 * Creates a new {@link PlyReader} which reads the file specified by the
-	 * given path and hands the parsed data over to the given {@link PlyHandler}
-	 * .
+	 * given path and hands the parsed data over to the given handler.
 	 * 
 	 * @param path
 	 *            the path of the file to read.
 	 * @param handler
-	 *            the handler to which the parsed data will be passed.
+	 *            the handler to which the parsed data will be passed, or
+	 *            <code>null</code> when only the layout of the file is read.
+	 * @param options
+	 *            the options which control how the file is read.
 	 * @throws NullPointerException
 	 *             when the given path is null.
+	 * @throws IllegalArgumentException
+	 *             when the handler is neither a {@link PlyHandler} nor a
+	 *             {@link PlyIndexedHandler}.
+	 */
+	private PlyReader(Path path, PlyStructureHandler handler,
+			PlyReaderOptions options) throws NullPointerException,
+			IllegalArgumentException {
+		if (path == null)
+			throw new NullPointerException("the path cannot be null!");
+		checkHandler(handler);
+		this.path = path;
+		this.handler = handler;
+		this.options = options;
+	}
+
+	/**
+	 * Creates a new {@link PlyReader} which reads the file from the given
+	 * channel and hands the parsed data over to the given handler.
+	 * 
+	 * @param input
+	 *            the channel to read the file from.
+	 * @param handler
+	 *            the handler to which the parsed data will be passed.
+	 * @param options
+	 *            the options which control how the file is read.
 	 * @throws NullPointerException
-	 *             when the given {@link PlyHandler} is null.
+	 *             when the given channel is null.
+	 * @throws IllegalArgumentException
+	 *             when the handler is neither a {@link PlyHandler} nor a
+	 *             {@link PlyIndexedHandler}.
+	 */
+	private PlyReader(ReadableByteChannel input, PlyStructureHandler handler,
+			PlyReaderOptions options) throws NullPointerException,
+			IllegalArgumentException {
+		if (input == null)
+			throw new NullPointerException("the channel cannot be null!");
+		checkHandler(handler);
+		this.input = input;
+		this.handler = handler;
+		this.options = options;
+	}
+
+	/**
+	 * Returns the absolute path of the file, or <code>null</code> when the
+	 * file is read from a channel.
+	 * 
+	 * @return the absolute path of the file or <code>null</code>.
+	 */
+	private String filename() {
+		return path == null ? null : path.toFile().getAbsolutePath();
+	}
+
+	/**
+	 * Parses the file and hands the parsed data over to the handler.
+	 * 
 	 * @throws IOException
 	 *             when an exception occurs during the reading of the file.
 	 * @throws ParseException
 	 *             when an exception occurs during the parsing of the file.
 	 */
-	private PlyReader(Path path, PlyHandler handler)
-			throws NullPointerException, IOException, ParseException {
-		this.path = path;
-		this.handler = handler;
+	private void parse() throws IOException, ParseException {
+		PlyFileEvent fileEvent = new PlyFileEvent();
+		fileEvent.begin();
+		// compressed files and channels can only be read as a stream
+		boolean stream = path == null || PlyInput.isGzip(path);
+		if (options.getMetricsListener() != null && handler != null)
+			metrics = new PlyMetrics(path, stream ? -1 : Files.size(path),
+					options.getMetricsListener(), options.getProgressInterval());
 
-		PlyScanner reader = new PlyScanner(path.toFile());
-		parseHeader(reader);
-		parseBody(reader, format, handler);
-		reader.close();
+		PlyScanner reader;
+		if (input != null)
+			reader = PlyInput.scanner(input, false, options);
+		else if (stream)
+			reader = PlyInput.scanner(
+					FileChannel.open(path, StandardOpenOption.READ), true,
+					options);
+		else if (options.isMemoryMapped())
+			reader = new MappedPlyScanner(path);
+		else
+			reader = options.createStreamScanner(FileChannel.open(path,
+					StandardOpenOption.READ));
+
+		if (options.getParallelism() > 1
+				&& handler instanceof PlyParallelHandler && index == null
+				&& !stream)
+			pool = new ForkJoinPool(options.getParallelism());
+
+		try {
+			PlyHeaderEvent headerEvent = new PlyHeaderEvent();
+			headerEvent.begin();
+			parseHeader(reader);
+			if (headerEvent.shouldCommit()) {
+				headerEvent.path = filename();
+				headerEvent.format = format.toString();
+				headerEvent.elements = elements.size();
+				headerEvent.bytes = reader.position();
+				headerEvent.commit();
+			}
+			if (metrics != null)
+				metrics.headerParsed(elements, reader.position());
+			if (index != null)
+				checkRange(reader.position());
+			compileDecoders();
+			parseBody(reader, format, handler);
+			if (metrics != null)
+				metrics.bodyParsed();
+			if (fileEvent.shouldCommit()) {
+				fileEvent.path = filename();
+				fileEvent.format = format.toString();
+				fileEvent.records = nbOfParsedRecords();
+				fileEvent.bytes = reader.position();
+				fileEvent.commit();
+			}
+		} finally {
+			reader.close();
+			if (pool != null)
+				pool.shutdown();
+			if (channel != null)
+				channel.close();
+		}
 	}
 
 	/**
@@ -80,7 +298,7 @@ public class PlyReader {
 	 * @param handler
 	 * @throws IOException
 	 */
-	public static void parse(String filename, PlyHandler handler)
+	public static void parse(String filename, PlyStructureHandler handler)
 			throws NullPointerException, IOException, ParseException {
 		parse(new File(filename), handler);
 	}
@@ -91,8 +309,8 @@ public class PlyReader {
 	 * @param handler
 	 * @throws IOException
 	 */
-	public static void parse(File file, PlyHandler handler) throws IOException,
-			ParseException {
+	public static void parse(File file, PlyStructureHandler handler)
+			throws IOException, ParseException {
 		parse(file.toPath(), handler);
 	}
 
@@ -102,9 +320,240 @@ public class PlyReader {
 	 * @param handler
 	 * @throws IOException
 	 */
-	public static void parse(Path path, PlyHandler handler) throws IOException,
+	public static void parse(Path path, PlyStructureHandler handler)
+			throws IOException, ParseException {
+		parse(path, handler, new PlyReaderOptions());
+	}
+
+	/**
+	 * Parses the PLY File at the given path with the given options and hands
+	 * the parsed data over to the given handler. Files which are
+	 * compressed with gzip are decompressed while they are parsed.
+	 * 
+	 * @param path
+	 *            the path of the file to read.
+	 * @param handler
+	 *            the handler to which the parsed data will be passed.
+	 * @param options
+	 *            the options which control how the file is read.
+	 * @throws IOException
+	 *             when an exception occurs during the reading of the file.
+	 * @throws ParseException
+	 *             when an exception occurs during the parsing of the file.
+	 * @throws IllegalArgumentException
+	 *             when the handler is neither a {@link PlyHandler} nor a
+	 *             {@link PlyIndexedHandler}.
+	 */
+	public static void parse(Path path, PlyStructureHandler handler,
+			PlyReaderOptions options) throws IOException, ParseException {
+		if (handler == null)
+			throw new NullPointerException("the handler cannot be null!");
+		new PlyReader(path, handler, options).parse();
+	}
+
+	/**
+	 * Parses the PLY File which is read from the given stream and hands the
+	 * parsed data over to the given handler. Input which is
+	 * compressed with gzip is decompressed while it is parsed. The stream is
+	 * not closed.
+	 * 
+	 * @param input
+	 *            the stream to read the file from.
+	 * @param handler
+	 *            the handler to which the parsed data will be passed.
+	 * @throws IOException
+	 *             when an exception occurs during the reading of the file.
+	 * @throws ParseException
+	 *             when an exception occurs during the parsing of the file.
+	 * @throws IllegalArgumentException
+	 *             when the handler is neither a {@link PlyHandler} nor a
+	 *             {@link PlyIndexedHandler}.
+	 */
+	public static void parse(InputStream input, PlyStructureHandler handler)
+			throws IOException, ParseException {
+		parse(input, handler, new PlyReaderOptions());
+	}
+
+	/**
+	 * Parses the PLY File which is read from the given stream with the given
+	 * options and hands the parsed data over to the given handler.
+	 * Input which is compressed with gzip is decompressed while it is parsed.
+	 * The stream is not closed.
+	 * 
+	 * The file is read sequentially, so it is neither memory mapped nor
+	 * decoded in parallel.
+	 * 
+	 * @param input
+	 *            the stream to read the file from.
+	 * @param handler
+	 *            the handler to which the parsed data will be passed.
+	 * @param options
+	 *            the options which control how the file is read.
+	 * @throws IOException
+	 *             when an exception occurs during the reading of the file.
+	 * @throws ParseException
+	 *             when an exception occurs during the parsing of the file.
+	 * @throws IllegalArgumentException
+	 *             when the handler is neither a {@link PlyHandler} nor a
+	 *             {@link PlyIndexedHandler}.
+	 */
+	public static void parse(InputStream input, PlyStructureHandler handler,
+			PlyReaderOptions options) throws IOException, ParseException {
+		if (input == null)
+			throw new NullPointerException("the stream cannot be null!");
+		parse(Channels.newChannel(input), handler, options);
+	}
+
+	/**
+	 * Parses the PLY File which is read from the given channel with the given
+	 * options and hands the parsed data over to the given handler.
+	 * The file is read from the current position of the channel. Input which
+	 * is compressed with gzip is decompressed while it is parsed. The channel
+	 * is not closed.
+	 * 
+	 * The file is read sequentially, so it is neither memory mapped nor
+	 * decoded in parallel.
+	 * 
+	 * @param input
+	 *            the channel to read the file from.
+	 * @param handler
+	 *            the handler to which the parsed data will be passed.
+	 * @param options
+	 *            the options which control how the file is read.
+	 * @throws IOException
+	 *             when an exception occurs during the reading of the file.
+	 * @throws ParseException
+	 *             when an exception occurs during the parsing of the file.
+	 * @throws IllegalArgumentException
+	 *             when the handler is neither a {@link PlyHandler} nor a
+	 *             {@link PlyIndexedHandler}.
+	 */
+	public static void parse(ReadableByteChannel input,
+			PlyStructureHandler handler, PlyReaderOptions options) throws IOException, ParseException {
+		if (handler == null)
+			throw new NullPointerException("the handler cannot be null!");
+		new PlyReader(input, handler, options).parse();
+	}
+
+	/**
+	 * Parses the given range of occurrences of the element with the given
+	 * name from the PLY File at the given path, and hands them over to the
+	 * given handler. The given index of the file is used to start
+	 * at the nearest checkpoint before the range instead of at the start of
+	 * the body.
+	 * 
+	 * The handler receives the file as if it only contained the occurrences
+	 * of the range: the header only defines the given element, with the
+	 * number of occurrences in the range as count and zero as id.
+	 * 
+	 * @param path
+	 *            the path of the file to read.
+	 * @param index
+	 *            the index of the file.
+	 * @param element
+	 *            the name of the element to parse.
+	 * @param firstRecord
+	 *            the index of the first occurrence to parse.
+	 * @param recordCount
+	 *            the number of occurrences to parse.
+	 * @param handler
+	 *            the handler to which the parsed data will be passed.
+	 * @throws IOException
+	 *             when an exception occurs during the reading of the file.
+	 * @throws ParseException
+	 *             when an exception occurs during the parsing of the file.
+	 * @throws IllegalArgumentException
+	 *             when the index does not belong to the file, when the file
+	 *             does not contain the given range of the element, or when
+	 *             the handler is neither a {@link PlyHandler} nor a
+	 *             {@link PlyIndexedHandler}.
+	 */
+	public static void parseRange(Path path, PlyIndex index, String element,
+			int firstRecord, int recordCount, PlyStructureHandler handler)
+			throws IOException, ParseException, IllegalArgumentException {
+		parseRange(path, index, element, firstRecord, recordCount, handler,
+				new PlyReaderOptions());
+	}
+
+	/**
+	 * Parses the given range of occurrences of the element with the given
+	 * name from the PLY File at the given path with the given options, and
+	 * hands them over to the given handler. The range is always
+	 * parsed by a single thread. See
+	 * {@link #parseRange(Path, PlyIndex, String, int, int, PlyStructureHandler)}.
+	 * 
+	 * @param path
+	 *            the path of the file to read.
+	 * @param index
+	 *            the index of the file.
+	 * @param element
+	 *            the name of the element to parse.
+	 * @param firstRecord
+	 *            the index of the first occurrence to parse.
+	 * @param recordCount
+	 *            the number of occurrences to parse.
+	 * @param handler
+	 *            the handler to which the parsed data will be passed.
+	 * @param options
+	 *            the options which control how the file is read.
+	 * @throws IOException
+	 *             when an exception occurs during the reading of the file.
+	 * @throws ParseException
+	 *             when an exception occurs during the parsing of the file.
+	 * @throws IllegalArgumentException
+	 *             when the index does not belong to the file, when the file
+	 *             does not contain the given range of the element, or when
+	 *             the handler is neither a {@link PlyHandler} nor a
+	 *             {@link PlyIndexedHandler}.
+	 */
+	public static void parseRange(Path path, PlyIndex index, String element,
+			int firstRecord, int recordCount, PlyStructureHandler handler,
+			PlyReaderOptions options) throws IOException, ParseException,
+			IllegalArgumentException {
+		if (index == null)
+			throw new NullPointerException("the index cannot be null!");
+		if (element == null)
+			throw new NullPointerException("the element cannot be null!");
+		if (handler == null)
+			throw new NullPointerException("the handler cannot be null!");
+		if (firstRecord < 0 || recordCount < 0)
+			throw new IllegalArgumentException(
+					"the range cannot be negative!");
+
+		PlyReader reader = new PlyReader(path, handler, options);
+		reader.index = index;
+		reader.rangeElement = element;
+		reader.rangeFirst = firstRecord;
+		reader.rangeCount = recordCount;
+		reader.parse();
+	}
+
+	/**
+	 * Reads the layout of the body of the PLY File at the given path, and
+	 * returns an index with the offset of every element and a checkpoint
+	 * every given number of occurrences of the elements whose occurrences do
+	 * not have a fixed size.
+	 * 
+	 * @param path
+	 *            the path of the file to read.
+	 * @param interval
+	 *            the number of occurrences between two checkpoints.
+	 * @return the index of the file.
+	 * @throws IOException
+	 *             when an exception occurs during the reading of the file.
+	 * @throws ParseException
+	 *             when an exception occurs during the parsing of the file.
+	 */
+	static PlyIndex index(Path path, int interval) throws IOException,
 			ParseException {
-		new PlyReader(path, handler);
+		PlyReader reader = new PlyReader(path, null, new PlyReaderOptions());
+		PlyScanner scanner = new MappedPlyScanner(path);
+		try {
+			reader.parseHeader(scanner);
+			return reader.indexBody(scanner, interval);
+		} finally {
+			scanner.close();
+		}
 	}
 
 	/**
@@ -116,7 +565,7 @@ public class PlyReader {
 	private void parseHeader(PlyScanner reader) throws IOException,
 			ParseException {
 		String line;
-		String filename = path.toFile().getAbsolutePath();
+		String filename = filename();
 		boolean headerEnd = false;
 		ElementDefinition element = null;
 
@@ -155,7 +604,9 @@ public class PlyReader {
 							dot));
 					int minorVersion = Integer.parseInt(version
 							.substring(dot + 1));
-					handler.plyHeaderFormat(format, majorVersion, minorVersion);
+					if (handler != null)
+						handler.plyHeaderFormat(format, majorVersion,
+								minorVersion);
 
 				} else if (split[0].equals("comment")) {
 					// extract the comment
@@ -166,12 +617,11 @@ public class PlyReader {
 							comment.append(" ");
 					}
 
-					handler.plyHeaderComment(comment.toString());
+					if (handler != null)
+						handler.plyHeaderComment(comment.toString());
 				} else if (split[0].equals("element")) {
-					if (element != null) {
-						elements.add(element);
-						handler.plyElementDefinition(element);
-					}
+					if (element != null)
+						addElement(element);
 					if (split.length < 3)
 						throw new ParseException(
 								"element requires a name and a count!",
@@ -182,14 +632,13 @@ public class PlyReader {
 								filename, lineIndex, 1);
 					String name = split[1];
 					int count = Integer.parseInt(split[2]);
-					element = new ElementDefinition(name, count);
+					int id = element == null ? 0 : element.getId() + 1;
+					element = new ElementDefinition(name, count, id);
 				} else if (split[0].equals("end_header")) {
 					// end of the header found
 					headerEnd = true;
-					if (element != null) {
-						elements.add(element);
-						handler.plyElementDefinition(element);
-					}
+					if (element != null)
+						addElement(element);
 					break;
 				} else if (split[0].equals("property")) {
 					String name = split[split.length - 1];
@@ -225,7 +674,63 @@ public class PlyReader {
 		if (!headerEnd)
 			throw new ParseException("no end_header deliniater specified!",
 					filename, lineIndex, 1);
-		handler.plyHeaderEnd();
+		if (handler != null)
+			handler.plyHeaderEnd();
+	}
+
+	/**
+	 * Adds the given element of the header and passes its projection to the
+	 * handler, unless the element is skipped.
+	 * 
+	 * @param element
+	 *            the element of the header.
+	 */
+	private void addElement(ElementDefinition element) {
+		ElementDefinition projection = element;
+		PlyProjection selection = options.getProjection();
+		if (index != null) {
+			// only the occurrences of the range are passed
+			if (selection == null)
+				selection = new PlyProjection().select(rangeElement);
+			if (!element.getName().equals(rangeElement))
+				projection = null;
+			else
+				projection = selection.project(element, 0, rangeCount);
+		} else if (selection != null) {
+			int id = 0;
+			for (ElementDefinition projected : projections)
+				if (projected != null)
+					++id;
+			projection = selection.project(element, id);
+		}
+
+		elements.add(element);
+		projections.add(projection);
+		if (projection != null && handler != null)
+			handler.plyElementDefinition(projection);
+	}
+
+	/**
+	 * Compiles a {@link FixedStrideDecoder} for every element which has a
+	 * fixed size in a binary file and is not skipped, and looks up the
+	 * projection of every property.
+	 */
+	private void compileDecoders() {
+		decoders = new FixedStrideDecoder[elements.size()];
+		properties = new PropertyDefinition[elements.size()][];
+		for (int i = 0; i < decoders.length; ++i) {
+			ElementDefinition element = elements.get(i);
+			ElementDefinition projection = projections.get(i);
+			if (projection == null)
+				continue;
+
+			decoders[i] = FixedStrideDecoder.compile(element, projection,
+					format);
+			properties[i] = new PropertyDefinition[element.nbOfProperties()];
+			for (int p = 0; p < properties[i].length; ++p)
+				properties[i][p] = projection.getProperty(element
+						.getProperty(p).getName());
+		}
 	}
 
 	/**
@@ -236,34 +741,659 @@ public class PlyReader {
 	 * @throws IOException
 	 * @throws ParseException
 	 */
-	private void parseBody(PlyScanner reader, Format format, PlyHandler handler)
+	private void parseBody(PlyScanner reader, Format format,
+			PlyStructureHandler handler)
 			throws IOException, ParseException {
 		try {
+			if (index != null) {
+				parseRange(reader);
+				return;
+			}
+
 			// iterate over the elements
-			for (ElementDefinition element : elements) {
-				// iterate over the element occurrences
-				for (int i = 0; i < element.getCount(); ++i) {
+			for (int e = 0; e < elements.size(); ++e) {
+				PlyElementEvent event = new PlyElementEvent();
+				event.begin();
+				long start = System.nanoTime();
+				long position = reader.position();
+				parseElement(reader, e, handler);
+				if (metrics != null)
+					metrics.elementParsed(e, System.nanoTime() - start);
+				if (event.shouldCommit())
+					commit(event, e, elements.get(e).getCount(),
+							reader.position() - position);
+			}
+		} catch (ParseException e) {
+			if (e.getRow() < 0)
+				e.setRow(lineIndex);
+			e.setFilename(filename());
+			throw e;
+		} catch (Exception e) {
+			throw new ParseException(e, filename(),
+					lineIndex, 0);
+		}
+	}
+
+	/**
+	 * Parses all the occurrences of the element with the given index from the
+	 * given reader and passes them to the given handler. The metrics are
+	 * updated after every batch of occurrences.
+	 * 
+	 * @param reader
+	 *            the reader which is positioned at the first occurrence.
+	 * @param e
+	 *            the index of the element in the file.
+	 * @param handler
+	 *            the handler to pass the values to.
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	private void parseElement(PlyScanner reader, int e,
+			PlyStructureHandler handler)
+			throws IOException, ParseException {
+		ElementDefinition element = elements.get(e);
+		int count = element.getCount();
+
+		// skip the elements which are not passed to the handler
+		if (projections.get(e) == null) {
+			long position = reader.position();
+			skipElement(reader, element);
+			lineIndex += count;
+			if (metrics != null)
+				metrics.add(e, 0, reader.position() - position);
+			return;
+		}
+
+		// the parallel decoders collect the blocks of every range, elements
+		// without properties may not have a line per occurrence
+		if (pool != null
+				&& (decoders[e] != null || format == Format.ASCII
+						&& options.isOneRecordPerLine()
+						&& element.nbOfProperties() > 0)) {
+			if (decoders[e] != null)
+				decodeParallel(reader, e, (PlyParallelHandler) handler);
+			else
+				parseParallelAscii(reader, e, (PlyParallelHandler) handler);
+			lineIndex += count;
+			return;
+		}
+
+		// collect the occurrences in blocks when the handler accepts them
+		PlyBlockBuilder blocks = blocks(handler, e, 0);
+		if (blocks != null)
+			handler = blocks;
+
+		// decode elements with a fixed size in batches
+		if (decoders[e] != null) {
+			int batch = metrics == null ? count : Math.max(1, BATCH_BYTES
+					/ decoders[e].getStride());
+			for (int i = 0; i < count; i += batch) {
+				int records = Math.min(batch, count - i);
+				long position = reader.position();
+				decoders[e].decode(reader, records, handler);
+				if (metrics != null)
+					metrics.add(e, records, reader.position() - position);
+			}
+			lineIndex += count;
+		} else {
+			// iterate over the element occurrences
+			int batch = metrics == null ? count : BATCH_RECORDS;
+			for (int i = 0; i < count; i += batch) {
+				int records = Math.min(batch, count - i);
+				long position = reader.position();
+				for (int r = 0; r < records; ++r) {
 					++lineIndex;
+					parseOccurrence(reader, e, handler);
+				}
+				if (metrics != null)
+					metrics.add(e, records, reader.position() - position);
+			}
+		}
 
-					// notify that a new element is started
-					handler.plyElementStart(element.getName());
+		if (blocks != null)
+			blocks.flush();
+	}
 
-					// split the line
-					for (PropertyDefinition definition : element) {
-						definition.parse(reader, format, handler);
-					}
+	/**
+	 * Returns a builder which collects the occurrences of the element with
+	 * the given index in blocks for the given handler, or <code>null</code>
+	 * when the handler does not accept the element in blocks.
+	 * 
+	 * @param handler
+	 *            the handler of the occurrences.
+	 * @param e
+	 *            the index of the element in the file.
+	 * @param first
+	 *            the index of the first occurrence which is passed to the
+	 *            handler.
+	 * @return a builder of the blocks of the element or <code>null</code>.
+	 */
+	private PlyBlockBuilder blocks(PlyStructureHandler handler, int e,
+			int first) {
+		if (!(handler instanceof PlyBlockHandler))
+			return null;
+		PlyBlockHandler blockHandler = (PlyBlockHandler) handler;
+		ElementDefinition projection = projections.get(e);
+		if (!blockHandler.plyAcceptsBlocks(projection))
+			return null;
+		return new PlyBlockBuilder(projection, options.getBlockSize(), first,
+				blockHandler);
+	}
+
+	/**
+	 * Parses the next occurrence of the element with the given index from the
+	 * given reader and passes the selected properties to the given handler.
+	 * The other properties are skipped.
+	 * 
+	 * @param reader
+	 *            the reader which is positioned at the occurrence.
+	 * @param index
+	 *            the index of the element in the file.
+	 * @param handler
+	 *            the handler to pass the values to.
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	private void parseOccurrence(PlyScanner reader, int index,
+			PlyStructureHandler handler) throws IOException, ParseException {
+		ElementDefinition element = elements.get(index);
+		PropertyDefinition[] projected = properties[index];
+
+		// notify that a new element is started
+		startElement(handler, projections.get(index));
+
+		for (int p = 0; p < projected.length; ++p) {
+			if (projected[p] != null)
+				projected[p].parse(reader, format, handler);
+			else
+				element.getProperty(p).getDataType().skip(reader, format);
+		}
+
+		// notify that a new element ends
+		handler.plyElementEnd();
+	}
+
+	/**
+	 * Checks whether the index and the range which were given to
+	 * {@link #parseRange(Path, PlyIndex, String, int, int, PlyStructureHandler, PlyReaderOptions)}
+	 * match the header of the file.
+	 * 
+	 * @param bodyOffset
+	 *            the offset of the first byte of the body.
+	 * @throws IllegalArgumentException
+	 *             when the index does not belong to the file, or when the
+	 *             file does not contain the range.
+	 */
+	private void checkRange(long bodyOffset) throws IllegalArgumentException {
+		if (!index.matches(elements, format, bodyOffset))
+			throw new IllegalArgumentException(
+					"the index does not belong to this file!");
+
+		rangeIndex = 0;
+		while (rangeIndex < elements.size()
+				&& !elements.get(rangeIndex).getName().equals(rangeElement))
+			++rangeIndex;
+		if (rangeIndex == elements.size())
+			throw new IllegalArgumentException("the file has no element '"
+					+ rangeElement + "'!");
+		ElementDefinition element = elements.get(rangeIndex);
+		if ((long) rangeFirst + rangeCount > element.getCount())
+			throw new IllegalArgumentException("the element '"
+					+ rangeElement + "' only has " + element.getCount()
+					+ " occurrences!");
+	}
+
+	/**
+	 * Parses the range of occurrences of the element which was given to
+	 * {@link #parseRange(Path, PlyIndex, String, int, int, PlyStructureHandler, PlyReaderOptions)}
+	 * . The reader is moved to the checkpoint of the index before the range,
+	 * and the occurrences between the checkpoint and the range are skipped.
+	 * 
+	 * @param reader
+	 *            the reader which is positioned at the start of the body.
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	private void parseRange(PlyScanner reader) throws IOException,
+			ParseException {
+		int e = rangeIndex;
+		ElementDefinition element = elements.get(e);
+		if (projections.get(e) == null || rangeCount == 0)
+			return;
+		PlyElementEvent event = new PlyElementEvent();
+		event.begin();
+		long start = System.nanoTime();
+
+		// start at the checkpoint before the range
+		int record = index.getCheckpoint(e, rangeFirst);
+		reader.seek(index.getOffset(e, record));
+		long position = reader.position();
+		for (; record < rangeFirst; ++record)
+			skipOccurrence(reader, element);
+
+		PlyBlockBuilder blocks = blocks(handler, e, 0);
+		PlyStructureHandler target = blocks == null ? handler : blocks;
+		if (decoders[e] != null)
+			decoders[e].decode(reader, rangeCount, target);
+		else
+			for (int i = 0; i < rangeCount; ++i)
+				parseOccurrence(reader, e, target);
+		if (blocks != null)
+			blocks.flush();
+
+		if (metrics != null) {
+			metrics.add(e, rangeCount, reader.position() - position);
+			metrics.elementParsed(e, System.nanoTime() - start);
+		}
+		if (event.shouldCommit())
+			commit(event, e, rangeCount, reader.position() - position);
+	}
+
+	/**
+	 * Fills in the given event of the element with the given index and
+	 * commits it.
+	 * 
+	 * @param event
+	 *            the event to commit.
+	 * @param e
+	 *            the index of the element in the file.
+	 * @param records
+	 *            the number of occurrences which were parsed or skipped.
+	 * @param bytes
+	 *            the number of bytes which were read.
+	 */
+	private void commit(PlyElementEvent event, int e, long records, long bytes) {
+		event.path = filename();
+		event.format = format.toString();
+		event.element = elements.get(e).getName();
+		event.records = records;
+		event.skipped = projections.get(e) == null;
+		event.bytes = bytes;
+		event.commit();
+	}
+
+	/**
+	 * Returns the number of occurrences which are passed to the handler: the
+	 * occurrences of the range, or of all the elements which are not skipped.
+	 * 
+	 * @return the number of occurrences which are passed to the handler.
+	 */
+	private long nbOfParsedRecords() {
+		if (index != null)
+			return rangeCount;
+		long records = 0;
+		for (ElementDefinition projection : projections)
+			if (projection != null)
+				records += projection.getCount();
+		return records;
+	}
+
+	/**
+	 * Reads the layout of the body and returns an index with the offset of
+	 * every element and a checkpoint every given number of occurrences of the
+	 * elements whose occurrences do not have a fixed size.
+	 * 
+	 * @param reader
+	 *            the reader which is positioned at the start of the body.
+	 * @param interval
+	 *            the number of occurrences between two checkpoints.
+	 * @return the index of the file.
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	private PlyIndex indexBody(PlyScanner reader, int interval)
+			throws IOException, ParseException {
+		long bodyOffset = reader.position();
+		long[] offsets = new long[elements.size()];
+		long[][] checkpoints = new long[elements.size()][];
+		try {
+			for (int e = 0; e < elements.size(); ++e) {
+				ElementDefinition element = elements.get(e);
+				offsets[e] = reader.position();
+				if (format != Format.ASCII && element.nbOfBytes() >= 0) {
+					skipElement(reader, element);
+					checkpoints[e] = new long[0];
+					continue;
+				}
 
-					// notify that a new element ends
-					handler.plyElementEnd();
+				int count = element.getCount();
+				checkpoints[e] = new long[(int) ((count + (long) interval - 1)
+						/ interval)];
+				for (int i = 0; i < count; ++i) {
+					if (i % interval == 0)
+						checkpoints[e][i / interval] = reader.position();
+					skipOccurrence(reader, element);
 				}
 			}
 		} catch (ParseException e) {
-			e.setRow(lineIndex);
-			e.setFilename(path.toFile().getAbsolutePath());
+			e.setFilename(filename());
 			throw e;
 		} catch (Exception e) {
-			throw new ParseException(e, path.toFile().getAbsolutePath(),
-					lineIndex, 0);
+			throw new ParseException(e, filename(), -1,
+					0);
 		}
+		return new PlyIndex(elements, format, bodyOffset, offsets, interval,
+				checkpoints);
+	}
+
+	/**
+	 * Moves the given reader past all the occurrences of the given element
+	 * without parsing them. The occurrences of an element with a fixed size
+	 * in a binary file are skipped at once.
+	 * 
+	 * @param reader
+	 *            the reader which is positioned at the first occurrence.
+	 * @param element
+	 *            the element to skip.
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	private void skipElement(PlyScanner reader, ElementDefinition element)
+			throws IOException, ParseException {
+		int stride = element.nbOfBytes();
+		if (format != Format.ASCII && stride >= 0) {
+			reader.skipBytes((long) element.getCount() * stride);
+			return;
+		}
+		for (int i = 0; i < element.getCount(); ++i)
+			skipOccurrence(reader, element);
+	}
+
+	/**
+	 * Moves the given reader past the next occurrence of the given element
+	 * without parsing it.
+	 * 
+	 * @param reader
+	 *            the reader which is positioned at the occurrence.
+	 * @param element
+	 *            the element to skip.
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	private void skipOccurrence(PlyScanner reader, ElementDefinition element)
+			throws IOException, ParseException {
+		for (PropertyDefinition property : element)
+			property.getDataType().skip(reader, format);
+	}
+
+	/**
+	 * Notifies the given handler that a new occurrence of the given element
+	 * is started.
+	 * 
+	 * @param handler
+	 *            the handler to notify.
+	 * @param element
+	 *            the element which is started.
+	 */
+	private static void startElement(PlyStructureHandler handler,
+			ElementDefinition element) {
+		if (handler instanceof PlyIndexedHandler)
+			((PlyIndexedHandler) handler).plyElementStart(element.getId());
+		else
+			((PlyHandler) handler).plyElementStart(element.getName());
+	}
+
+	/**
+	 * Checks whether the given handler can receive the elements and
+	 * properties of the body.
+	 * 
+	 * @param handler
+	 *            the handler to check, or <code>null</code>.
+	 * @throws IllegalArgumentException
+	 *             when the handler is neither a {@link PlyHandler} nor a
+	 *             {@link PlyIndexedHandler}.
+	 */
+	private static void checkHandler(PlyStructureHandler handler)
+			throws IllegalArgumentException {
+		if (handler != null && !(handler instanceof PlyHandler)
+				&& !(handler instanceof PlyIndexedHandler))
+			throw new IllegalArgumentException(
+					"the handler must be a PlyHandler or a PlyIndexedHandler!");
+	}
+
+	/**
+	 * Decodes the occurrences of the element of the given decoder in parallel.
+	 * The occurrences are split into ranges which are decoded concurrently
+	 * from the file, each into the handler returned by
+	 * {@link PlyParallelHandler#plyRangeHandler(ElementDefinition, int, int)}.
+	 * The given reader is moved past the element.
+	 * 
+	 * @param reader
+	 *            the reader which is positioned at the first occurrence.
+	 * @param index
+	 *            the index of the element in the file.
+	 * @param handler
+	 *            the handler which provides the range handlers.
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	private void decodeParallel(PlyScanner reader, final int index,
+			PlyParallelHandler handler) throws IOException, ParseException {
+		final FixedStrideDecoder decoder = decoders[index];
+		ElementDefinition element = decoder.getElement();
+		final int stride = decoder.getStride();
+		int count = element.getCount();
+		long start = reader.position();
+		long length = (long) count * stride;
+		if (reader.skip(length) != length)
+			throw new ParseException("no more data in this file!");
+
+		if (channel == null)
+			channel = FileChannel.open(path, StandardOpenOption.READ);
+		final FileChannel channel = this.channel;
+
+		// split the occurrences into a few ranges per thread
+		int ranges = 4 * options.getParallelism();
+		long rangeSize = Math.max((count + ranges - 1) / ranges,
+				(MIN_RANGE_BYTES + stride - 1) / stride);
+		rangeSize = Math.min(rangeSize, MappedPlyScanner.WINDOW_SIZE / stride);
+
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for (int first = 0; first < count; first += rangeSize) {
+			final int records = (int) Math.min(rangeSize, count - first);
+			final long from = start + (long) first * stride;
+			final PlyStructureHandler rangeHandler = handler.plyRangeHandler(
+					element, first, records);
+			final PlyBlockBuilder blocks = blocks(rangeHandler, index, first);
+			tasks.add(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					PlyScanner scanner = new MappedPlyScanner(channel, from,
+							from + (long) records * stride);
+					try {
+						if (blocks == null) {
+							decoder.decode(scanner, records, rangeHandler);
+						} else {
+							decoder.decode(scanner, records, blocks);
+							blocks.flush();
+						}
+					} finally {
+						scanner.close();
+					}
+					if (metrics != null)
+						metrics.add(index, records, (long) records * stride);
+					return null;
+				}
+			});
+		}
+
+		await(element, pool.invokeAll(tasks));
+	}
+
+	/**
+	 * Parses the occurrences of the given element in an ASCII file in
+	 * parallel. Every occurrence must be on a line of its own.
+	 * 
+	 * The lines of the element are split into chunks at newlines. The index
+	 * of the first occurrence in a chunk is known from the number of newlines
+	 * before it, so the chunks can be parsed concurrently, each into the
+	 * handler returned by
+	 * {@link PlyParallelHandler#plyRangeHandler(ElementDefinition, int, int)}.
+	 * The given reader is moved past the element.
+	 * 
+	 * @param reader
+	 *            the reader which is positioned at the first occurrence.
+	 * @param index
+	 *            the index of the element in the file.
+	 * @param handler
+	 *            the handler which provides the range handlers.
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	private void parseParallelAscii(PlyScanner reader, int index,
+			PlyParallelHandler handler) throws IOException, ParseException {
+		ElementDefinition element = projections.get(index);
+		if (channel == null)
+			channel = FileChannel.open(path, StandardOpenOption.READ);
+		long end = channel.size();
+		int count = element.getCount();
+
+		List<Future<Void>> futures = new ArrayList<Future<Void>>();
+		PlyScanner scanner = new MappedPlyScanner(channel, reader.position(),
+				end);
+		try {
+			// find the chunk boundaries by counting the newlines
+			long chunkStart = scanner.position();
+			int firstRecord = 0;
+			int record = 0;
+			while (record < count) {
+				if (scanner.position() >= end) {
+					// the last line does not end with a newline
+					if (record == count - 1 && scanner.position() > chunkStart) {
+						++record;
+						futures.add(submitAsciiChunk(index, chunkStart, end,
+								firstRecord, record - firstRecord, handler));
+						break;
+					}
+					throw new ParseException("no more data in this file!");
+				}
+
+				ByteBuffer buffer = scanner.buffer(1);
+				long base = scanner.position() - buffer.position();
+				int i = buffer.position();
+				int limit = buffer.limit();
+				while (i < limit && record < count) {
+					if (buffer.get(i++) != '\n')
+						continue;
+					++record;
+					if (base + i - chunkStart >= ASCII_CHUNK_BYTES
+							|| record == count) {
+						futures.add(submitAsciiChunk(index, chunkStart, base
+								+ i, firstRecord, record - firstRecord, handler));
+						chunkStart = base + i;
+						firstRecord = record;
+					}
+				}
+				buffer.position(i);
+			}
+			reader.seek(scanner.position());
+		} finally {
+			scanner.close();
+			// let the submitted chunks finish, also when the scan failed
+			await(element, futures);
+		}
+	}
+
+	/**
+	 * Submits the parsing of a chunk of lines of an element in an ASCII file
+	 * to the pool.
+	 * 
+	 * @param index
+	 *            the index of the element in the file.
+	 * @param from
+	 *            the position of the first byte of the chunk.
+	 * @param to
+	 *            the position after the last byte of the chunk.
+	 * @param firstRecord
+	 *            the index of the first occurrence in the chunk.
+	 * @param records
+	 *            the number of occurrences in the chunk.
+	 * @param handler
+	 *            the handler which provides the range handler.
+	 * @return the future of the parsing.
+	 */
+	private Future<Void> submitAsciiChunk(final int index, final long from,
+			final long to, final int firstRecord, final int records,
+			PlyParallelHandler handler) {
+		final ElementDefinition element = projections.get(index);
+		final PlyStructureHandler rangeHandler = handler.plyRangeHandler(
+				element, firstRecord, records);
+		final PlyBlockBuilder blocks = blocks(rangeHandler, index, firstRecord);
+		final FileChannel channel = this.channel;
+		final int firstLine = lineIndex + firstRecord + 1;
+		final String filename = filename();
+
+		return pool.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				int line = firstLine;
+				PlyScanner scanner = new MappedPlyScanner(channel, from, to);
+				try {
+					PlyStructureHandler target = blocks == null ? rangeHandler
+							: blocks;
+					for (int i = 0; i < records; ++i, ++line)
+						parseOccurrence(scanner, index, target);
+					--line;
+					if (scanner.next() != null)
+						throw new ParseException(
+								"the occurrence of element '"
+										+ element.getName()
+										+ "' does not end at the end of the line!");
+					if (blocks != null)
+						blocks.flush();
+					if (metrics != null)
+						metrics.add(index, records, to - from);
+				} catch (ParseException e) {
+					e.setRow(line);
+					e.setFilename(filename);
+					throw e;
+				} catch (Exception e) {
+					throw new ParseException(e, filename, line, 0);
+				} finally {
+					scanner.close();
+				}
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Waits until all the given futures of the given element are done, and
+	 * rethrows the first exception which occurred.
+	 * 
+	 * @param element
+	 *            the element which is parsed.
+	 * @param futures
+	 *            the futures to wait for.
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	private static void await(ElementDefinition element,
+			List<Future<Void>> futures) throws IOException, ParseException {
+		Exception exception = null;
+		for (Future<Void> future : futures) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				for (Future<Void> f : futures)
+					f.cancel(true);
+				throw new InterruptedIOException(
+						"interrupted while parsing element '"
+								+ element.getName() + "'");
+			} catch (ExecutionException e) {
+				if (exception == null)
+					exception = e;
+			}
+		}
+		if (exception == null)
+			return;
+
+		Throwable cause = exception.getCause();
+		if (cause instanceof IOException)
+			throw (IOException) cause;
+		if (cause instanceof RuntimeException)
+			throw (RuntimeException) cause;
+		throw new ParseException(exception);
 	}
 }
@@ -0,0 +1,354 @@
+package io;
+
+import java.nio.channels.ReadableByteChannel;
+
+import util.PlyScanner;
+import util.ReadAheadPlyScanner;
+
+/**
+ * Options which control how a {@link PlyReader} reads a PLY File.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class PlyReaderOptions {
+	/**
+	 * Whether files are read through a memory mapping.
+	 */
+	private boolean memoryMapped = true;
+
+	/**
+	 * The number of threads used to decode elements in parallel.
+	 */
+	private int parallelism = 1;
+
+	/**
+	 * Whether every element occurrence of an ASCII file is on its own line.
+	 */
+	private boolean oneRecordPerLine = false;
+
+	/**
+	 * The selection of the elements and properties which are passed to the
+	 * handler, or <code>null</code> when everything is passed.
+	 */
+	private PlyProjection projection = null;
+
+	/**
+	 * Whether loaded meshes are saved to and loaded from a sidecar.
+	 */
+	private boolean compiledSidecar = false;
+
+	/**
+	 * The listener which is notified of the progress of the parse, or
+	 * <code>null</code> when no metrics are kept.
+	 */
+	private PlyMetricsListener metricsListener = null;
+
+	/**
+	 * The minimum number of milliseconds between two progress notifications.
+	 */
+	private long progressInterval = 1000;
+
+	/**
+	 * The maximum number of occurrences in a block of a
+	 * {@link PlyBlockHandler}.
+	 */
+	private int blockSize = 65536;
+
+	/**
+	 * The number of buffers which are read ahead when files are streamed, or
+	 * zero when the buffers are read on demand.
+	 */
+	private int readAheadBuffers = 0;
+
+	/**
+	 * The size in bytes of a buffer which is read ahead.
+	 */
+	private int readAheadBufferSize = PlyScanner.BUFFER_SIZE;
+
+	/**
+	 * Creates a new {@link PlyReaderOptions} object with the default options.
+	 */
+	public PlyReaderOptions() {
+	}
+
+	/**
+	 * Returns whether files are read through a memory mapping instead of
+	 * being copied through a stream. The default is true.
+	 *
+	 * @return whether files are read through a memory mapping.
+	 */
+	public boolean isMemoryMapped() {
+		return memoryMapped;
+	}
+
+	/**
+	 * Sets whether files are read through a memory mapping instead of being
+	 * copied through a stream.
+	 *
+	 * @param memoryMapped
+	 *            whether files are read through a memory mapping.
+	 */
+	public void setMemoryMapped(boolean memoryMapped) {
+		this.memoryMapped = memoryMapped;
+	}
+
+	/**
+	 * Returns the number of threads used to decode the elements of a file in
+	 * parallel. The default is one, which disables parallel decoding.
+	 *
+	 * Parallel decoding is only used for handlers which implement
+	 * {@link PlyParallelHandler}.
+	 *
+	 * @return the number of threads used to decode elements in parallel.
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets the number of threads used to decode the elements of a file in
+	 * parallel.
+	 *
+	 * @param parallelism
+	 *            the number of threads used to decode elements in parallel.
+	 * @throws IllegalArgumentException
+	 *             when the given parallelism is smaller than one.
+	 */
+	public void setParallelism(int parallelism)
+			throws IllegalArgumentException {
+		if (parallelism < 1)
+			throw new IllegalArgumentException(
+					"the parallelism must be at least one!");
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Returns whether every element occurrence of an ASCII file is on a line
+	 * of its own. The default is false.
+	 *
+	 * When true and the parallelism is larger than one, the elements of ASCII
+	 * files are split into chunks of lines which are parsed in parallel.
+	 *
+	 * @return whether every element occurrence of an ASCII file is on a line
+	 *         of its own.
+	 */
+	public boolean isOneRecordPerLine() {
+		return oneRecordPerLine;
+	}
+
+	/**
+	 * Sets whether every element occurrence of an ASCII file is on a line of
+	 * its own.
+	 *
+	 * @param oneRecordPerLine
+	 *            whether every element occurrence of an ASCII file is on a
+	 *            line of its own.
+	 */
+	public void setOneRecordPerLine(boolean oneRecordPerLine) {
+		this.oneRecordPerLine = oneRecordPerLine;
+	}
+
+	/**
+	 * Returns the selection of the elements and properties which are passed
+	 * to the handler. The default is <code>null</code>, which passes all the
+	 * elements and properties of the file.
+	 *
+	 * @return the selection of the elements and properties which are passed
+	 *         to the handler, or <code>null</code> when everything is passed.
+	 */
+	public PlyProjection getProjection() {
+		return projection;
+	}
+
+	/**
+	 * Sets the selection of the elements and properties which are passed to
+	 * the handler. The values of the other elements and properties are
+	 * skipped without being decoded.
+	 *
+	 * @param projection
+	 *            the selection of the elements and properties to pass, or
+	 *            <code>null</code> to pass everything.
+	 */
+	public void setProjection(PlyProjection projection) {
+		this.projection = projection;
+	}
+
+	/**
+	 * Returns whether {@link PlyMeshLoader} saves the meshes it loads from
+	 * ASCII files to a sidecar next to the file, and loads them from the
+	 * sidecar as long as the file does not change. The default is false.
+	 *
+	 * The sidecar is not used when a projection is set or when the mesh is
+	 * stored in an arena.
+	 *
+	 * @return whether loaded meshes are saved to and loaded from a sidecar.
+	 * @see PlyMeshSidecar
+	 */
+	public boolean isCompiledSidecar() {
+		return compiledSidecar;
+	}
+
+	/**
+	 * Sets whether {@link PlyMeshLoader} saves the meshes it loads from ASCII
+	 * files to a sidecar next to the file, and loads them from the sidecar as
+	 * long as the file does not change.
+	 *
+	 * @param compiledSidecar
+	 *            whether loaded meshes are saved to and loaded from a
+	 *            sidecar.
+	 */
+	public void setCompiledSidecar(boolean compiledSidecar) {
+		this.compiledSidecar = compiledSidecar;
+	}
+
+	/**
+	 * Returns the listener which is notified of the progress of the parse,
+	 * or <code>null</code> when no metrics are kept. The default is
+	 * <code>null</code>.
+	 *
+	 * @return the listener which is notified of the progress of the parse.
+	 */
+	public PlyMetricsListener getMetricsListener() {
+		return metricsListener;
+	}
+
+	/**
+	 * Sets the listener which is notified of the progress of the parse, or
+	 * <code>null</code> to keep no metrics.
+	 *
+	 * @param metricsListener
+	 *            the listener which is notified of the progress of the parse.
+	 */
+	public void setMetricsListener(PlyMetricsListener metricsListener) {
+		this.metricsListener = metricsListener;
+	}
+
+	/**
+	 * Returns the minimum number of milliseconds between two progress
+	 * notifications of the metrics listener. The default is one second.
+	 *
+	 * @return the minimum number of milliseconds between two progress
+	 *         notifications.
+	 */
+	public long getProgressInterval() {
+		return progressInterval;
+	}
+
+	/**
+	 * Sets the minimum number of milliseconds between two progress
+	 * notifications of the metrics listener.
+	 *
+	 * @param progressInterval
+	 *            the minimum number of milliseconds between two progress
+	 *            notifications.
+	 * @throws IllegalArgumentException
+	 *             when the interval is negative.
+	 */
+	public void setProgressInterval(long progressInterval)
+			throws IllegalArgumentException {
+		if (progressInterval < 0)
+			throw new IllegalArgumentException(
+					"the progress interval cannot be smaller than zero!");
+		this.progressInterval = progressInterval;
+	}
+
+	/**
+	 * Returns the maximum number of occurrences in a block which is passed to
+	 * a {@link PlyBlockHandler}. The default is 65536.
+	 *
+	 * @return the maximum number of occurrences in a block.
+	 */
+	public int getBlockSize() {
+		return blockSize;
+	}
+
+	/**
+	 * Sets the maximum number of occurrences in a block which is passed to a
+	 * {@link PlyBlockHandler}.
+	 *
+	 * @param blockSize
+	 *            the maximum number of occurrences in a block.
+	 * @throws IllegalArgumentException
+	 *             when the block size is smaller than one.
+	 */
+	public void setBlockSize(int blockSize) throws IllegalArgumentException {
+		if (blockSize < 1)
+			throw new IllegalArgumentException(
+					"the block size cannot be smaller than one!");
+		this.blockSize = blockSize;
+	}
+
+	/**
+	 * Returns the number of buffers which are read ahead on a background
+	 * thread when files are not memory mapped. The default is zero, which
+	 * reads the buffers on demand.
+	 *
+	 * With two buffers, the next buffer is read while the current one is
+	 * decoded. With more buffers the thread can read further ahead, which
+	 * smooths out the latency of slow or networked storage.
+	 *
+	 * @return the number of buffers which are read ahead.
+	 */
+	public int getReadAheadBuffers() {
+		return readAheadBuffers;
+	}
+
+	/**
+	 * Sets the number of buffers which are read ahead on a background thread
+	 * when files are not memory mapped.
+	 *
+	 * @param readAheadBuffers
+	 *            the number of buffers, or zero to read the buffers on
+	 *            demand.
+	 * @throws IllegalArgumentException
+	 *             when the number of buffers is negative or one.
+	 */
+	public void setReadAheadBuffers(int readAheadBuffers)
+			throws IllegalArgumentException {
+		if (readAheadBuffers < 0 || readAheadBuffers == 1)
+			throw new IllegalArgumentException(
+					"the number of read-ahead buffers must be zero or at least two!");
+		this.readAheadBuffers = readAheadBuffers;
+	}
+
+	/**
+	 * Returns the size in bytes of a buffer which is read ahead. The default
+	 * is {@link PlyScanner#BUFFER_SIZE}.
+	 *
+	 * @return the size of a buffer which is read ahead.
+	 */
+	public int getReadAheadBufferSize() {
+		return readAheadBufferSize;
+	}
+
+	/**
+	 * Sets the size in bytes of a buffer which is read ahead.
+	 *
+	 * @param readAheadBufferSize
+	 *            the size of a buffer which is read ahead.
+	 * @throws IllegalArgumentException
+	 *             when the size is smaller than one.
+	 */
+	public void setReadAheadBufferSize(int readAheadBufferSize)
+			throws IllegalArgumentException {
+		if (readAheadBufferSize < 1)
+			throw new IllegalArgumentException(
+					"the read-ahead buffer size cannot be smaller than one!");
+		this.readAheadBufferSize = readAheadBufferSize;
+	}
+
+	/**
+	 * Returns a scanner which streams the given channel with these options.
+	 *
+	 * @param channel
+	 *            the channel of the file.
+	 * @return a scanner which reads the channel.
+	 */
+	PlyScanner createStreamScanner(ReadableByteChannel channel) {
+		if (readAheadBuffers == 0)
+			return new PlyScanner(channel);
+		return new ReadAheadPlyScanner(channel, readAheadBuffers,
+				readAheadBufferSize);
+	}
+}
@@ -0,0 +1,61 @@
+package io;
+
+import core.ElementDefinition;
+import core.Format;
+
+/**
+ * The callbacks of the {@link PlyReader} which do not depend on how the
+ * values of the properties are passed: the header of the file and the end of
+ * every occurrence of an element.
+ *
+ * A handler passed to the {@link PlyReader} implements one of the two
+ * extensions of this interface: a {@link PlyHandler} receives the elements
+ * and properties by name, a {@link PlyIndexedHandler} receives them by id.
+ * When a handler implements both, it receives the ids.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public interface PlyStructureHandler {
+	/**
+	 * Called when the format line is parsed in the header.
+	 *
+	 * @param format
+	 *            the encoding format of the PLY File.
+	 * @param majorVersion
+	 *            the major version number of the PLY File Format used to encode
+	 *            the mesh.
+	 * @param minorVersion
+	 *            the minor version number of the PLY File Format used to encode
+	 *            the mesh.
+	 */
+	public void plyHeaderFormat(Format format, int majorVersion,
+			int minorVersion);
+
+	/**
+	 * Called when a comment is encountered in the header.
+	 *
+	 * @param comment
+	 *            the parsed comment.
+	 */
+	public void plyHeaderComment(String comment);
+
+	/**
+	 *
+	 */
+	public void plyHeaderEnd();
+
+	/**
+	 * Called when a new {@link ElementDefinition} has been parsed from the
+	 * header.
+	 *
+	 * @param element
+	 *            the {@link ElementDefinition} which has been parsed.
+	 */
+	public void plyElementDefinition(ElementDefinition element);
+
+	/**
+	 * Called when the parsing of an element is finished.
+	 */
+	public void plyElementEnd();
+}
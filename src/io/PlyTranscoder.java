@@ -0,0 +1,348 @@
+package io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import core.ElementDefinition;
+import core.Format;
+
+/**
+ * A {@link PlyIndexedHandler} which writes the PLY File it receives to a
+ * {@link PlyWriter} in another {@link Format} while it is parsed.
+ *
+ * The values are passed on as soon as they are parsed, so the memory use
+ * only depends on the buffers of the reader and the writer and not on the
+ * size of the file. When both files are binary, the occurrences of the
+ * elements without list properties are not decoded at all: their bytes are
+ * copied in bulk, and the bytes of every value are swapped when the byte
+ * orders differ.
+ *
+ * The exceptions of the writer are thrown from the callbacks as an
+ * {@link UncheckedIOException}.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class PlyTranscoder implements PlyIndexedHandler, PlyBulkHandler {
+	/**
+	 * The channel to which the file is written.
+	 */
+	private final WritableByteChannel output;
+
+	/**
+	 * The format of the written file.
+	 */
+	private final Format format;
+
+	/**
+	 * The comments of the header.
+	 */
+	private final List<String> comments = new ArrayList<String>();
+
+	/**
+	 * The elements of the header.
+	 */
+	private final List<ElementDefinition> elements = new ArrayList<ElementDefinition>();
+
+	/**
+	 * The writer of the file, which is created at the end of the header.
+	 */
+	private PlyWriter writer;
+
+	/**
+	 * Creates a new {@link PlyTranscoder} which writes the file it receives to
+	 * the given channel in the given format.
+	 *
+	 * @param output
+	 *            the channel to write the file to.
+	 * @param format
+	 *            the format of the written file.
+	 * @throws NullPointerException
+	 *             when one of the arguments is null.
+	 */
+	public PlyTranscoder(WritableByteChannel output, Format format)
+			throws NullPointerException {
+		if (output == null)
+			throw new NullPointerException("the output cannot be null!");
+		if (format == null)
+			throw new NullPointerException("the format cannot be null!");
+		this.output = output;
+		this.format = format;
+	}
+
+	/**
+	 * Writes the PLY File at the given input path to the given output path in
+	 * the given format. The output file is removed when the input could not
+	 * be parsed.
+	 *
+	 * @param input
+	 *            the path of the file to read.
+	 * @param output
+	 *            the path of the file to write.
+	 * @param format
+	 *            the format of the written file.
+	 * @throws IllegalArgumentException
+	 *             when the input and the output are the same file.
+	 * @throws IOException
+	 *             when an exception occurs during the reading or the writing
+	 *             of the files.
+	 * @throws ParseException
+	 *             when an exception occurs during the parsing of the input.
+	 */
+	public static void transcode(Path input, Path output, Format format)
+			throws IllegalArgumentException, IOException, ParseException {
+		transcode(input, output, format, new PlyReaderOptions());
+	}
+
+	/**
+	 * Writes the PLY File at the given input path to the given output path in
+	 * the given format, reading the input with the given options. The output
+	 * file is removed when the input could not be parsed.
+	 *
+	 * @param input
+	 *            the path of the file to read.
+	 * @param output
+	 *            the path of the file to write.
+	 * @param format
+	 *            the format of the written file.
+	 * @param options
+	 *            the options which control how the input is read.
+	 * @throws IllegalArgumentException
+	 *             when the input and the output are the same file.
+	 * @throws IOException
+	 *             when an exception occurs during the reading or the writing
+	 *             of the files.
+	 * @throws ParseException
+	 *             when an exception occurs during the parsing of the input.
+	 */
+	public static void transcode(Path input, Path output, Format format,
+			PlyReaderOptions options) throws IllegalArgumentException,
+			IOException, ParseException {
+		if (Files.exists(output) && Files.isSameFile(input, output))
+			throw new IllegalArgumentException(
+					"cannot transcode a file onto itself!");
+
+		FileChannel channel = FileChannel.open(output,
+				StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		boolean done = false;
+		try {
+			PlyTranscoder transcoder = new PlyTranscoder(channel, format);
+			PlyReader.parse(input, transcoder, options);
+			transcoder.close();
+			done = true;
+		} catch (ParseException e) {
+			// report the failures of the output as such
+			if (e.getCause() instanceof UncheckedIOException)
+				throw ((UncheckedIOException) e.getCause()).getCause();
+			throw e;
+		} finally {
+			if (!done) {
+				channel.close();
+				Files.deleteIfExists(output);
+			}
+		}
+	}
+
+	/**
+	 * Writes the buffered output and closes the output channel. Must be called
+	 * after the file has been parsed.
+	 *
+	 * @throws IOException
+	 *             when the output could not be written.
+	 * @throws IllegalStateException
+	 *             when the whole file has not been received.
+	 */
+	public void close() throws IOException, IllegalStateException {
+		if (writer == null) {
+			output.close();
+			throw new IllegalStateException("no header has been received!");
+		}
+		writer.close();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyStructureHandler#plyHeaderFormat(core.Format, int, int)
+	 */
+	@Override
+	public void plyHeaderFormat(Format format, int majorVersion,
+			int minorVersion) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyStructureHandler#plyHeaderComment(java.lang.String)
+	 */
+	@Override
+	public void plyHeaderComment(String comment) {
+		comments.add(comment);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyStructureHandler#plyElementDefinition(core.ElementDefinition)
+	 */
+	@Override
+	public void plyElementDefinition(ElementDefinition element) {
+		elements.add(element);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyStructureHandler#plyHeaderEnd()
+	 */
+	@Override
+	public void plyHeaderEnd() {
+		try {
+			writer = new PlyWriter(output, format, comments, elements);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyBulkHandler#plyAcceptsBytes(core.ElementDefinition,
+	 * java.nio.ByteOrder)
+	 */
+	@Override
+	public boolean plyAcceptsBytes(ElementDefinition element, ByteOrder order) {
+		return format != Format.ASCII;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyBulkHandler#plyElementBytes(core.ElementDefinition,
+	 * java.nio.ByteBuffer, int)
+	 */
+	@Override
+	public void plyElementBytes(ElementDefinition element, ByteBuffer bytes,
+			int records) {
+		try {
+			writer.writeRecords(bytes, bytes.order(), records);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyElementStart(int)
+	 */
+	@Override
+	public void plyElementStart(int elementId) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyStructureHandler#plyElementEnd()
+	 */
+	@Override
+	public void plyElementEnd() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyProperty(int, int, int)
+	 */
+	@Override
+	public void plyProperty(int elementId, int propertyId, int value) {
+		try {
+			writer.writeLong(value);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyProperty(int, int, long)
+	 */
+	@Override
+	public void plyProperty(int elementId, int propertyId, long value) {
+		try {
+			writer.writeLong(value);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyProperty(int, int, double)
+	 */
+	@Override
+	public void plyProperty(int elementId, int propertyId, double value) {
+		try {
+			writer.writeDouble(value);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyListProperty(int, int, int[], int)
+	 */
+	@Override
+	public void plyListProperty(int elementId, int propertyId, int[] values,
+			int size) {
+		try {
+			writer.writeList(values, 0, size);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyListProperty(int, int, long[], int)
+	 */
+	@Override
+	public void plyListProperty(int elementId, int propertyId, long[] values,
+			int size) {
+		try {
+			writer.writeList(values, 0, size);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see io.PlyIndexedHandler#plyListProperty(int, int, double[], int)
+	 */
+	@Override
+	public void plyListProperty(int elementId, int propertyId,
+			double[] values, int size) {
+		try {
+			writer.writeList(values, 0, size);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,1041 @@
+package io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import core.ElementDefinition;
+import core.Format;
+import core.PlyColumn;
+import core.PlyElement;
+import core.PlyListColumn;
+import core.PlyMesh;
+import core.PropertyDefinition;
+import core.datatype.DataType;
+import core.datatype.PlyList;
+
+/**
+ * Writes a PLY File in any {@link Format}.
+ *
+ * The header is written when the writer is created, from the given
+ * {@link ElementDefinition}s. The values of the body are then written in the
+ * order of the file: all the occurrences of the first element, property by
+ * property, followed by the occurrences of the next element. The writer
+ * keeps track of the property which is written next, converts every value to
+ * the type of that property and checks that it is within the range of the
+ * type.
+ *
+ * The values can be written one by one, in batches from primitive arrays, or
+ * a whole {@link PlyElement} at once. The output is collected in a large
+ * buffer which is written to the channel when it is full.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class PlyWriter implements Closeable {
+	/**
+	 * The size of the output buffer (one megabyte).
+	 */
+	public static final int BUFFER_SIZE = 1024 * 1024;
+
+	/**
+	 * The type code of the properties which are lists.
+	 */
+	private static final int LIST = -1;
+
+	/**
+	 * The channel to which the file is written.
+	 */
+	private final WritableByteChannel channel;
+
+	/**
+	 * The buffer in which the output is collected.
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * The format of the body.
+	 */
+	private final Format format;
+
+	/**
+	 * The elements of the file.
+	 */
+	private final List<ElementDefinition> elements;
+
+	/**
+	 * The builder which formats floating point values in ASCII.
+	 */
+	private final StringBuilder builder = new StringBuilder(32);
+
+	/**
+	 * The digits of an integer which is formatted in ASCII.
+	 */
+	private final byte[] digits = new byte[20];
+
+	/**
+	 * The index of the element which is written.
+	 */
+	private int element = -1;
+
+	/**
+	 * The number of occurrences of the element which is written.
+	 */
+	private int count;
+
+	/**
+	 * The index of the occurrence which is written.
+	 */
+	private int record;
+
+	/**
+	 * The index of the property which is written next.
+	 */
+	private int property;
+
+	/**
+	 * The name of every property of the element which is written.
+	 */
+	private String[] names;
+
+	/**
+	 * The type code of every property of the element which is written, or
+	 * {@link #LIST} for the list properties.
+	 */
+	private int[] types;
+
+	/**
+	 * The type code of the size of every list property of the element which
+	 * is written.
+	 */
+	private int[] sizeTypes;
+
+	/**
+	 * The type code of the values of every list property of the element which
+	 * is written.
+	 */
+	private int[] valueTypes;
+
+	/**
+	 * Creates a new {@link PlyWriter} which writes a file with the given
+	 * format, comments and elements to the given path, and writes the header.
+	 * The elements are written in the order of the list, regardless of their
+	 * ids.
+	 *
+	 * @param path
+	 *            the path of the file to write.
+	 * @param format
+	 *            the format of the body.
+	 * @param comments
+	 *            the comments of the header.
+	 * @param elements
+	 *            the elements of the file.
+	 * @throws NullPointerException
+	 *             when one of the arguments is null.
+	 * @throws IOException
+	 *             when the file could not be written.
+	 */
+	public PlyWriter(Path path, Format format, List<String> comments,
+			List<ElementDefinition> elements) throws NullPointerException,
+			IOException {
+		this(FileChannel.open(path, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE),
+				format, comments, elements);
+	}
+
+	/**
+	 * Creates a new {@link PlyWriter} which writes a file with the given
+	 * format, comments and elements to the given channel, and writes the
+	 * header. The elements are written in the order of the list, regardless
+	 * of their ids.
+	 *
+	 * @param channel
+	 *            the channel to write the file to.
+	 * @param format
+	 *            the format of the body.
+	 * @param comments
+	 *            the comments of the header.
+	 * @param elements
+	 *            the elements of the file.
+	 * @throws NullPointerException
+	 *             when one of the arguments is null.
+	 * @throws IOException
+	 *             when the header could not be written.
+	 */
+	public PlyWriter(WritableByteChannel channel, Format format,
+			List<String> comments, List<ElementDefinition> elements)
+			throws NullPointerException, IOException {
+		if (channel == null)
+			throw new NullPointerException("the channel cannot be null!");
+		if (format == null)
+			throw new NullPointerException("the format cannot be null!");
+		this.channel = channel;
+		this.format = format;
+		this.elements = new ArrayList<ElementDefinition>(elements);
+		this.buffer = ByteBuffer.allocate(BUFFER_SIZE).order(
+				format == Format.BINARY_BIG_ENDIAN ? ByteOrder.BIG_ENDIAN
+						: ByteOrder.LITTLE_ENDIAN);
+
+		StringBuilder header = new StringBuilder("ply\nformat ");
+		header.append(format.toString().toLowerCase()).append(" 1.0\n");
+		for (String comment : comments)
+			header.append("comment ").append(comment).append('\n');
+		for (ElementDefinition element : this.elements)
+			header.append(element.toPLY()).append('\n');
+		header.append("end_header\n");
+		put(header);
+
+		nextElement();
+	}
+
+	/**
+	 * Writes the given mesh to the given path in the given format.
+	 *
+	 * @param path
+	 *            the path of the file to write.
+	 * @param mesh
+	 *            the mesh to write.
+	 * @param format
+	 *            the format of the body.
+	 * @throws IOException
+	 *             when the file could not be written.
+	 */
+	public static void write(Path path, PlyMesh mesh, Format format)
+			throws IOException {
+		List<ElementDefinition> definitions = new ArrayList<ElementDefinition>();
+		for (PlyElement element : mesh.getElements())
+			definitions.add(element.getDefinition());
+
+		try (PlyWriter writer = new PlyWriter(path, format,
+				mesh.getComments(), definitions)) {
+			for (PlyElement element : mesh.getElements())
+				writer.writeElement(element);
+		}
+	}
+
+	/**
+	 * Returns the format of the body.
+	 *
+	 * @return the format of the body.
+	 */
+	public Format getFormat() {
+		return format;
+	}
+
+	/**
+	 * Returns whether all the occurrences of all the elements have been
+	 * written.
+	 *
+	 * @return whether the whole body has been written.
+	 */
+	public boolean isComplete() {
+		return element >= elements.size();
+	}
+
+	/**
+	 * Writes the given integer as the value of the next property, which must
+	 * be a scalar.
+	 *
+	 * @param value
+	 *            the value to write.
+	 * @throws IllegalStateException
+	 *             when the next property is a list or when the whole body has
+	 *             been written.
+	 * @throws IllegalArgumentException
+	 *             when the value is not within the range of the property.
+	 * @throws IOException
+	 *             when the output could not be written.
+	 */
+	public void writeLong(long value) throws IllegalStateException,
+			IllegalArgumentException, IOException {
+		putScalar(value);
+	}
+
+	/**
+	 * Writes the given floating point value as the value of the next
+	 * property, which must be a scalar. The value must be an integer when the
+	 * property is an integer.
+	 *
+	 * @param value
+	 *            the value to write.
+	 * @throws IllegalStateException
+	 *             when the next property is a list or when the whole body has
+	 *             been written.
+	 * @throws IllegalArgumentException
+	 *             when the value is not within the range of the property.
+	 * @throws IOException
+	 *             when the output could not be written.
+	 */
+	public void writeDouble(double value) throws IllegalStateException,
+			IllegalArgumentException, IOException {
+		putScalar(value);
+	}
+
+	/**
+	 * Writes the given values as the values of the next properties, which must
+	 * be scalars. The values may span several occurrences.
+	 *
+	 * @param values
+	 *            the array which holds the values.
+	 * @param offset
+	 *            the index of the first value to write.
+	 * @param length
+	 *            the number of values to write.
+	 * @throws IllegalStateException
+	 *             when one of the properties is a list or when the whole body
+	 *             has been written.
+	 * @throws IllegalArgumentException
+	 *             when a value is not within the range of its property.
+	 * @throws IOException
+	 *             when the output could not be written.
+	 */
+	public void writeValues(int[] values, int offset, int length)
+			throws IllegalStateException, IllegalArgumentException,
+			IOException {
+		for (int i = offset; i < offset + length; ++i)
+			putScalar(values[i]);
+	}
+
+	/**
+	 * Writes the given values as the values of the next properties, which must
+	 * be scalars. The values may span several occurrences.
+	 *
+	 * @param values
+	 *            the array which holds the values.
+	 * @param offset
+	 *            the index of the first value to write.
+	 * @param length
+	 *            the number of values to write.
+	 * @throws IllegalStateException
+	 *             when one of the properties is a list or when the whole body
+	 *             has been written.
+	 * @throws IllegalArgumentException
+	 *             when a value is not within the range of its property.
+	 * @throws IOException
+	 *             when the output could not be written.
+	 */
+	public void writeValues(long[] values, int offset, int length)
+			throws IllegalStateException, IllegalArgumentException,
+			IOException {
+		for (int i = offset; i < offset + length; ++i)
+			putScalar(values[i]);
+	}
+
+	/**
+	 * Writes the given values as the values of the next properties, which must
+	 * be scalars. The values may span several occurrences.
+	 *
+	 * @param values
+	 *            the array which holds the values.
+	 * @param offset
+	 *            the index of the first value to write.
+	 * @param length
+	 *            the number of values to write.
+	 * @throws IllegalStateException
+	 *             when one of the properties is a list or when the whole body
+	 *             has been written.
+	 * @throws IllegalArgumentException
+	 *             when a value is not within the range of its property.
+	 * @throws IOException
+	 *             when the output could not be written.
+	 */
+	public void writeValues(float[] values, int offset, int length)
+			throws IllegalStateException, IllegalArgumentException,
+			IOException {
+		for (int i = offset; i < offset + length; ++i)
+			putScalar(values[i]);
+	}
+
+	/**
+	 * Writes the given values as the values of the next properties, which must
+	 * be scalars. The values may span several occurrences.
+	 *
+	 * @param values
+	 *            the array which holds the values.
+	 * @param offset
+	 *            the index of the first value to write.
+	 * @param length
+	 *            the number of values to write.
+	 * @throws IllegalStateException
+	 *             when one of the properties is a list or when the whole body
+	 *             has been written.
+	 * @throws IllegalArgumentException
+	 *             when a value is not within the range of its property.
+	 * @throws IOException
+	 *             when the output could not be written.
+	 */
+	public void writeValues(double[] values, int offset, int length)
+			throws IllegalStateException, IllegalArgumentException,
+			IOException {
+		for (int i = offset; i < offset + length; ++i)
+			putScalar(values[i]);
+	}
+
+	/**
+	 * Writes the given values as the list of the next property, which must be
+	 * a list.
+	 *
+	 * @param values
+	 *            the array which holds the values of the list.
+	 * @param offset
+	 *            the index of the first value of the list.
+	 * @param length
+	 *            the number of values in the list.
+	 * @throws IllegalStateException
+	 *             when the next property is a scalar or when the whole body
+	 *             has been written.
+	 * @throws IllegalArgumentException
+	 *             when the length or a value is not within the range of the
+	 *             list.
+	 * @throws IOException
+	 *             when the output could not be written.
+	 */
+	public void writeList(int[] values, int offset, int length)
+			throws IllegalStateException, IllegalArgumentException,
+			IOException {
+		int valueType = startList(length);
+		for (int i = offset; i < offset + length; ++i)
+			putLong(values[i], valueType, true);
+		endProperty();
+	}
+
+	/**
+	 * Writes the given values as the list of the next property, which must be
+	 * a list.
+	 *
+	 * @param values
+	 *            the array which holds the values of the list.
+	 * @param offset
+	 *            the index of the first value of the list.
+	 * @param length
+	 *            the number of values in the list.
+	 * @throws IllegalStateException
+	 *             when the next property is a scalar or when the whole body
+	 *             has been written.
+	 * @throws IllegalArgumentException
+	 *             when the length or a value is not within the range of the
+	 *             list.
+	 * @throws IOException
+	 *             when the output could not be written.
+	 */
+	public void writeList(long[] values, int offset, int length)
+			throws IllegalStateException, IllegalArgumentException,
+			IOException {
+		int valueType = startList(length);
+		for (int i = offset; i < offset + length; ++i)
+			putLong(values[i], valueType, true);
+		endProperty();
+	}
+
+	/**
+	 * Writes the given values as the list of the next property, which must be
+	 * a list.
+	 *
+	 * @param values
+	 *            the array which holds the values of the list.
+	 * @param offset
+	 *            the index of the first value of the list.
+	 * @param length
+	 *            the number of values in the list.
+	 * @throws IllegalStateException
+	 *             when the next property is a scalar or when the whole body
+	 *             has been written.
+	 * @throws IllegalArgumentException
+	 *             when the length or a value is not within the range of the
+	 *             list.
+	 * @throws IOException
+	 *             when the output could not be written.
+	 */
+	public void writeList(double[] values, int offset, int length)
+			throws IllegalStateException, IllegalArgumentException,
+			IOException {
+		int valueType = startList(length);
+		for (int i = offset; i < offset + length; ++i)
+			putDouble(values[i], valueType, true);
+		endProperty();
+	}
+
+	/**
+	 * Writes all the occurrences of the given element, which must be the next
+	 * element of the file. No occurrence of the element may have been written
+	 * yet. Nothing happens for an element without occurrences or for an
+	 * element without properties whose occurrences have already been written.
+	 *
+	 * @param element
+	 *            the element to write.
+	 * @throws IllegalStateException
+	 *             when the element is not the next element of the file.
+	 * @throws IllegalArgumentException
+	 *             when a value is not within the range of its property.
+	 * @throws IOException
+	 *             when the output could not be written.
+	 */
+	public void writeElement(PlyElement element) throws IllegalStateException,
+			IllegalArgumentException, IOException {
+		ElementDefinition definition = element.getDefinition();
+		if (definition.getCount() == 0)
+			return;
+		if (definition.nbOfProperties() == 0 && isWritten(definition))
+			return;
+		if (isComplete()
+				|| record != 0
+				|| property != 0
+				|| !elements.get(this.element).getName()
+						.equals(definition.getName())
+				|| count != definition.getCount())
+			throw new IllegalStateException("element '" + definition.getName()
+					+ "' is not the next element of the file!");
+
+		int size = definition.nbOfProperties();
+		PlyColumn[] columns = new PlyColumn[size];
+		PlyListColumn[] listColumns = new PlyListColumn[size];
+		for (int p = 0; p < size; ++p) {
+			columns[p] = element.getColumn(p);
+			listColumns[p] = element.getListColumn(p);
+			if ((types[p] == LIST) != (listColumns[p] != null))
+				throw new IllegalStateException("property '" + names[p]
+						+ "' of element '" + definition.getName()
+						+ "' does not match the header!");
+		}
+
+		for (int r = 0; r < count; ++r) {
+			for (int p = 0; p < size; ++p) {
+				property = p;
+				if (listColumns[p] == null) {
+					if (isFloat(types[p]))
+						putDouble(columns[p].getDouble(r), types[p], p > 0);
+					else
+						putLong(columns[p].getLong(r), types[p], p > 0);
+					continue;
+				}
+
+				PlyListColumn list = listColumns[p];
+				PlyColumn values = list.getValues();
+				int start = list.getStart(r);
+				int end = list.getStart(r + 1);
+				putLong(end - start, sizeTypes[p], p > 0);
+				if (isFloat(valueTypes[p]))
+					for (int i = start; i < end; ++i)
+						putDouble(values.getDouble(i), valueTypes[p], true);
+				else
+					for (int i = start; i < end; ++i)
+						putLong(values.getLong(i), valueTypes[p], true);
+			}
+			endRecord();
+		}
+		nextElement();
+	}
+
+	/**
+	 * Writes the given raw occurrences of the next element, whose properties
+	 * must all be scalars, to a binary file. The bytes from the position up to
+	 * the limit of the given buffer must hold exactly the given number of
+	 * occurrences in the layout of a binary PLY file with the given byte
+	 * order. The occurrences are copied in bulk when the byte order is the
+	 * byte order of this file, and the bytes of every value are swapped
+	 * otherwise.
+	 *
+	 * @param bytes
+	 *            the buffer with the bytes of the occurrences.
+	 * @param order
+	 *            the byte order of the values in the buffer.
+	 * @param records
+	 *            the number of occurrences in the buffer.
+	 * @throws IllegalStateException
+	 *             when the file is ASCII, when the next property is not the
+	 *             first property of an element without lists or when the
+	 *             element has less than the given number of occurrences left.
+	 * @throws IllegalArgumentException
+	 *             when the buffer does not hold the given number of
+	 *             occurrences.
+	 * @throws IOException
+	 *             when the output could not be written.
+	 */
+	public void writeRecords(ByteBuffer bytes, ByteOrder order, int records)
+			throws IllegalStateException, IllegalArgumentException,
+			IOException {
+		if (format == Format.ASCII)
+			throw new IllegalStateException(
+					"raw occurrences can only be written to a binary file!");
+		if (records == 0)
+			return;
+		if (isComplete())
+			throw new IllegalStateException("the whole body has been written!");
+		if (property != 0 || records > count - record)
+			throw new IllegalStateException("cannot write " + records
+					+ " occurrences of element '"
+					+ elements.get(element).getName() + "' at occurrence "
+					+ record + "!");
+
+		// all the values have the same width when the width is not -1
+		int stride = 0;
+		int width = FixedStrideDecoder.nbOfBytes(types[0]);
+		for (int type : types) {
+			if (type == LIST)
+				throw new IllegalStateException("element '"
+						+ elements.get(element).getName()
+						+ "' has a list property!");
+			stride += FixedStrideDecoder.nbOfBytes(type);
+			if (FixedStrideDecoder.nbOfBytes(type) != width)
+				width = -1;
+		}
+		if (bytes.remaining() != (long) records * stride)
+			throw new IllegalArgumentException("the buffer does not hold "
+					+ records + " occurrences of " + stride + " bytes!");
+
+		ByteBuffer source = bytes.duplicate().order(order);
+		if (order == buffer.order() || width == 1)
+			copy(source, 1);
+		else if (width > 0)
+			copy(source, width);
+		else {
+			while (source.hasRemaining()) {
+				ensure(stride);
+				for (int type : types) {
+					switch (FixedStrideDecoder.nbOfBytes(type)) {
+					case 1:
+						buffer.put(source.get());
+						break;
+					case 2:
+						buffer.putShort(source.getShort());
+						break;
+					case 4:
+						buffer.putInt(source.getInt());
+						break;
+					default:
+						buffer.putLong(source.getLong());
+					}
+				}
+			}
+		}
+
+		record += records;
+		if (record == count)
+			nextElement();
+	}
+
+	/**
+	 * Copies the values of the given width from the given buffer to the
+	 * output, from the byte order of the given buffer to the byte order of
+	 * this file.
+	 *
+	 * @param source
+	 *            the buffer with the values.
+	 * @param width
+	 *            the number of bytes of every value.
+	 * @throws IOException
+	 */
+	private void copy(ByteBuffer source, int width) throws IOException {
+		while (source.hasRemaining()) {
+			if (buffer.remaining() < width)
+				flush();
+			int length = Math.min(source.remaining(), buffer.remaining())
+					/ width * width;
+
+			ByteBuffer from = source.slice().order(source.order());
+			from.limit(length);
+			ByteBuffer to = buffer.slice().order(buffer.order());
+			switch (width) {
+			case 1:
+				to.put(from);
+				break;
+			case 2:
+				to.asShortBuffer().put(from.asShortBuffer());
+				break;
+			case 4:
+				to.asIntBuffer().put(from.asIntBuffer());
+				break;
+			default:
+				to.asLongBuffer().put(from.asLongBuffer());
+			}
+			source.position(source.position() + length);
+			buffer.position(buffer.position() + length);
+		}
+	}
+
+	/**
+	 * Writes the buffered output to the channel.
+	 *
+	 * @throws IOException
+	 *             when the output could not be written.
+	 */
+	public void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * Writes the buffered output and closes the channel.
+	 *
+	 * @throws IOException
+	 *             when the output could not be written.
+	 * @throws IllegalStateException
+	 *             when not all the occurrences of the elements have been
+	 *             written.
+	 */
+	@Override
+	public void close() throws IOException, IllegalStateException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+		if (!isComplete())
+			throw new IllegalStateException("the file was closed after "
+					+ record + " of the " + count + " occurrences of element '"
+					+ elements.get(element).getName() + "'!");
+	}
+
+	/**
+	 * Writes the given integer as the value of the next property and moves to
+	 * the property after it.
+	 *
+	 * @param value
+	 *            the value to write.
+	 * @throws IOException
+	 */
+	private void putScalar(long value) throws IOException {
+		putLong(value, scalarType(), property > 0);
+		endProperty();
+	}
+
+	/**
+	 * Writes the given floating point value as the value of the next property
+	 * and moves to the property after it.
+	 *
+	 * @param value
+	 *            the value to write.
+	 * @throws IOException
+	 */
+	private void putScalar(double value) throws IOException {
+		putDouble(value, scalarType(), property > 0);
+		endProperty();
+	}
+
+	/**
+	 * Returns the type code of the next property, which must be a scalar.
+	 *
+	 * @return the type code of the next property.
+	 * @throws IllegalStateException
+	 *             when the next property is a list or when the whole body has
+	 *             been written.
+	 */
+	private int scalarType() throws IllegalStateException {
+		if (isComplete())
+			throw new IllegalStateException("the whole body has been written!");
+		if (types[property] == LIST)
+			throw new IllegalStateException("property '" + names[property]
+					+ "' is a list!");
+		return types[property];
+	}
+
+	/**
+	 * Writes the given length as the size of the list of the next property,
+	 * which must be a list, and returns the type code of its values.
+	 *
+	 * @param length
+	 *            the length of the list.
+	 * @return the type code of the values of the list.
+	 * @throws IllegalStateException
+	 *             when the next property is a scalar or when the whole body
+	 *             has been written.
+	 * @throws IOException
+	 */
+	private int startList(int length) throws IllegalStateException,
+			IOException {
+		if (isComplete())
+			throw new IllegalStateException("the whole body has been written!");
+		if (types[property] != LIST)
+			throw new IllegalStateException("property '" + names[property]
+					+ "' is not a list!");
+		putLong(length, sizeTypes[property], property > 0);
+		return valueTypes[property];
+	}
+
+	/**
+	 * Moves to the property after the one which has been written.
+	 */
+	private void endProperty() throws IOException {
+		if (++property < types.length)
+			return;
+		endRecord();
+		if (record == count)
+			nextElement();
+	}
+
+	/**
+	 * Ends the occurrence which has been written.
+	 *
+	 * @throws IOException
+	 */
+	private void endRecord() throws IOException {
+		if (format == Format.ASCII) {
+			ensure(1);
+			buffer.put((byte) '\n');
+		}
+		property = 0;
+		++record;
+	}
+
+	/**
+	 * Returns whether the element of the header with the name of the given
+	 * element lies before the element which is being written, so all its
+	 * occurrences have been written.
+	 *
+	 * @param definition
+	 *            the definition of the element.
+	 * @return whether all the occurrences of the element have been written.
+	 */
+	private boolean isWritten(ElementDefinition definition) {
+		for (int e = 0; e < element && e < elements.size(); ++e)
+			if (elements.get(e).getName().equals(definition.getName()))
+				return true;
+		return false;
+	}
+
+	/**
+	 * Moves to the next element with at least one occurrence and compiles the
+	 * type codes of its properties.
+	 *
+	 * @throws IOException
+	 */
+	private void nextElement() throws IOException {
+		while (++element < elements.size()) {
+			ElementDefinition definition = elements.get(element);
+			count = definition.getCount();
+			record = 0;
+			property = 0;
+			if (count == 0)
+				continue;
+
+			int size = definition.nbOfProperties();
+			if (size == 0) {
+				// occurrences without properties are empty lines
+				for (int r = 0; r < count; ++r)
+					endRecord();
+				continue;
+			}
+
+			names = new String[size];
+			types = new int[size];
+			sizeTypes = new int[size];
+			valueTypes = new int[size];
+			for (int p = 0; p < size; ++p) {
+				PropertyDefinition property = definition.getProperty(p);
+				DataType<?> type = property.getDataType();
+				names[p] = property.getName();
+				if (type instanceof PlyList) {
+					types[p] = LIST;
+					sizeTypes[p] = FixedStrideDecoder.typeOf(((PlyList<?>) type)
+							.getSizeType());
+					valueTypes[p] = FixedStrideDecoder.typeOf(((PlyList<?>) type)
+							.getDataType());
+				} else
+					types[p] = FixedStrideDecoder.typeOf(type);
+			}
+			return;
+		}
+	}
+
+	/**
+	 * Writes the given integer as a value of the given type.
+	 *
+	 * @param value
+	 *            the value to write.
+	 * @param type
+	 *            the type code of the value.
+	 * @param separate
+	 *            whether the value is separated from the previous value by a
+	 *            space in ASCII.
+	 * @throws IllegalArgumentException
+	 *             when the value is not within the range of the type.
+	 * @throws IOException
+	 */
+	private void putLong(long value, int type, boolean separate)
+			throws IllegalArgumentException, IOException {
+		if (isFloat(type)) {
+			putDouble(value, type, separate);
+			return;
+		}
+		if (value < minimum(type) || value > maximum(type))
+			throw new IllegalArgumentException("the value " + value
+					+ " of property '" + names[property]
+					+ "' is not within the range of its type!");
+
+		if (format == Format.ASCII) {
+			ensure(digits.length + 2);
+			if (separate)
+				buffer.put((byte) ' ');
+			if (value < 0) {
+				buffer.put((byte) '-');
+				value = -value;
+			}
+			int i = digits.length;
+			do {
+				digits[--i] = (byte) ('0' + value % 10);
+				value /= 10;
+			} while (value != 0);
+			buffer.put(digits, i, digits.length - i);
+			return;
+		}
+
+		ensure(4);
+		switch (type) {
+		case FixedStrideDecoder.INT8:
+		case FixedStrideDecoder.UINT8:
+			buffer.put((byte) value);
+			break;
+		case FixedStrideDecoder.INT16:
+		case FixedStrideDecoder.UINT16:
+			buffer.putShort((short) value);
+			break;
+		default:
+			buffer.putInt((int) value);
+		}
+	}
+
+	/**
+	 * Writes the given floating point value as a value of the given type.
+	 *
+	 * @param value
+	 *            the value to write.
+	 * @param type
+	 *            the type code of the value.
+	 * @param separate
+	 *            whether the value is separated from the previous value by a
+	 *            space in ASCII.
+	 * @throws IllegalArgumentException
+	 *             when the type is an integer and the value is not an integer
+	 *             within its range.
+	 * @throws IOException
+	 */
+	private void putDouble(double value, int type, boolean separate)
+			throws IllegalArgumentException, IOException {
+		if (!isFloat(type)) {
+			long integer = (long) value;
+			if (integer != value)
+				throw new IllegalArgumentException("the value " + value
+						+ " of property '" + names[property]
+						+ "' is not an integer!");
+			putLong(integer, type, separate);
+			return;
+		}
+
+		if (format == Format.ASCII) {
+			builder.setLength(0);
+			if (separate)
+				builder.append(' ');
+			if (type == FixedStrideDecoder.FLOAT32)
+				builder.append((float) value);
+			else
+				builder.append(value);
+			put(builder);
+		} else if (type == FixedStrideDecoder.FLOAT32) {
+			ensure(4);
+			buffer.putFloat((float) value);
+		} else {
+			ensure(8);
+			buffer.putDouble(value);
+		}
+	}
+
+	/**
+	 * Writes the characters of the given ASCII text.
+	 *
+	 * @param text
+	 *            the text to write.
+	 * @throws IOException
+	 */
+	private void put(CharSequence text) throws IOException {
+		int length = text.length();
+		if (length > buffer.capacity()) {
+			flush();
+			ByteBuffer bytes = StandardCharsets.US_ASCII.encode(text
+					.toString());
+			while (bytes.hasRemaining())
+				channel.write(bytes);
+			return;
+		}
+		ensure(length);
+		for (int i = 0; i < length; ++i)
+			buffer.put((byte) text.charAt(i));
+	}
+
+	/**
+	 * Makes sure there is room for the given number of bytes in the buffer.
+	 *
+	 * @param bytes
+	 *            the number of bytes.
+	 * @throws IOException
+	 */
+	private void ensure(int bytes) throws IOException {
+		if (buffer.remaining() < bytes)
+			flush();
+	}
+
+	/**
+	 * Returns whether the given type code is a floating point type.
+	 *
+	 * @param type
+	 *            the type code.
+	 * @return whether the given type code is a floating point type.
+	 */
+	private static boolean isFloat(int type) {
+		return type == FixedStrideDecoder.FLOAT32
+				|| type == FixedStrideDecoder.FLOAT64;
+	}
+
+	/**
+	 * Returns the minimum value of the given integer type code.
+	 *
+	 * @param type
+	 *            the type code.
+	 * @return the minimum value of the type.
+	 */
+	private static long minimum(int type) {
+		switch (type) {
+		case FixedStrideDecoder.INT8:
+			return Byte.MIN_VALUE;
+		case FixedStrideDecoder.INT16:
+			return Short.MIN_VALUE;
+		case FixedStrideDecoder.INT32:
+			return Integer.MIN_VALUE;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * Returns the maximum value of the given integer type code.
+	 *
+	 * @param type
+	 *            the type code.
+	 * @return the maximum value of the type.
+	 */
+	private static long maximum(int type) {
+		switch (type) {
+		case FixedStrideDecoder.INT8:
+			return Byte.MAX_VALUE;
+		case FixedStrideDecoder.UINT8:
+			return 0xff;
+		case FixedStrideDecoder.INT16:
+			return Short.MAX_VALUE;
+		case FixedStrideDecoder.UINT16:
+			return 0xffff;
+		case FixedStrideDecoder.INT32:
+			return Integer.MAX_VALUE;
+		default:
+			return 0xffffffffL;
+		}
+	}
+}
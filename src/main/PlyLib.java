@@ -1,11 +1,23 @@
 package main;
 
 import io.ParseException;
+import io.PlyBatchLoader;
+import io.PlyBatchResult;
 import io.PlyEchoHandler;
+import io.PlyGenerator;
 import io.PlyHandler;
 import io.PlyReader;
+import io.PlyTranscoder;
 
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 
 import core.ElementDefinition;
 import core.Format;
@@ -25,6 +37,24 @@ public class PlyLib {
 	public static void main(String[] args) throws ParseException, IOException {
 		if (args.length == 0) {
 			System.out.println("usage: java -jar PlyLib.jar <filename>");
+			System.out.println("       java -jar PlyLib.jar transcode <input> <output> "
+					+ "<ascii|binary_little_endian|binary_big_endian>");
+			System.out.println("       java -jar PlyLib.jar generate <output> "
+					+ "<ascii|binary_little_endian|binary_big_endian> "
+					+ "<vertices> <faces> [<min face size> <max face size>]");
+			System.out.println("       java -jar PlyLib.jar load <file or directory>...");
+		}
+		if (args.length > 0 && args[0].equals("transcode")) {
+			transcode(args);
+			return;
+		}
+		if (args.length > 0 && args[0].equals("generate")) {
+			generate(args);
+			return;
+		}
+		if (args.length > 0 && args[0].equals("load")) {
+			load(args);
+			return;
 		}
 		for (int i = 0; i < args.length; ++i)
 			PlyReader.parse(args[i], new PlyHandler() {
@@ -91,4 +121,93 @@ public class PlyLib {
 				}
 			});
 	}
+
+	/**
+	 * Writes the input file of the given transcode command to the output file
+	 * in the given format.
+	 * 
+	 * @param args
+	 *            the command: <code>transcode input output format</code>.
+	 * @throws ParseException
+	 * @throws IOException
+	 */
+	private static void transcode(String[] args) throws ParseException,
+			IOException {
+		if (args.length != 4) {
+			System.out.println("usage: java -jar PlyLib.jar transcode <input> <output> "
+					+ "<ascii|binary_little_endian|binary_big_endian>");
+			return;
+		}
+		PlyTranscoder.transcode(Paths.get(args[1]), Paths.get(args[2]),
+				Format.parseFromString(args[3]));
+	}
+
+	/**
+	 * Writes a synthetic triangle mesh with the number of vertices and faces
+	 * of the given generate command. The faces have a random size between the
+	 * given minimum and maximum, or three when no sizes are given.
+	 * 
+	 * @param args
+	 *            the command:
+	 *            <code>generate output format vertices faces [min max]</code>.
+	 * @throws IOException
+	 */
+	private static void generate(String[] args) throws IOException {
+		if (args.length != 5 && args.length != 7) {
+			System.out.println("usage: java -jar PlyLib.jar generate <output> "
+					+ "<ascii|binary_little_endian|binary_big_endian> "
+					+ "<vertices> <faces> [<min face size> <max face size>]");
+			return;
+		}
+		PlyGenerator generator = PlyGenerator.mesh(Integer.parseInt(args[3]),
+				Integer.parseInt(args[4]));
+		if (args.length == 7)
+			generator.setListSizes(PlyGenerator.uniform(
+					Integer.parseInt(args[5]), Integer.parseInt(args[6])));
+		generator.write(Paths.get(args[1]), Format.parseFromString(args[2]));
+	}
+
+	/**
+	 * Loads the files of the given load command concurrently and prints the
+	 * result of every file as it completes. Directories are replaced by the
+	 * PLY Files they contain.
+	 * 
+	 * @param args
+	 *            the command: <code>load file-or-directory...</code>.
+	 * @throws IOException
+	 *             when a directory could not be listed.
+	 */
+	private static void load(String[] args) throws IOException {
+		List<Path> paths = new ArrayList<Path>();
+		for (int i = 1; i < args.length; ++i) {
+			Path path = Paths.get(args[i]);
+			if (Files.isDirectory(path)) {
+				List<Path> files = new ArrayList<Path>();
+				try (DirectoryStream<Path> directory = Files.newDirectoryStream(
+						path, "*.ply")) {
+					for (Path file : directory)
+						files.add(file);
+				}
+				Collections.sort(files);
+				paths.addAll(files);
+			} else
+				paths.add(path);
+		}
+
+		int processors = Runtime.getRuntime().availableProcessors();
+		int failed = 0;
+		long start = System.nanoTime();
+		try (PlyBatchLoader loader = new PlyBatchLoader(2 * processors,
+				1L << 30)) {
+			Iterator<PlyBatchResult> results = loader.loadAll(paths);
+			while (results.hasNext()) {
+				PlyBatchResult result = results.next();
+				if (!result.isSuccessful())
+					++failed;
+				System.out.println(result);
+			}
+		}
+		System.out.printf("loaded %d of %d files in %.1f ms%n", paths.size()
+				- failed, paths.size(), (System.nanoTime() - start) / 1e6);
+	}
 }
@@ -0,0 +1,318 @@
+package util;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts ASCII decimal numbers to correctly rounded doubles without
+ * creating intermediate objects.
+ *
+ * Numbers with at most 19 significant digits and a small exponent are
+ * converted exactly with a single floating point operation. The other numbers
+ * are converted with the algorithm of Eisel and Lemire, which multiplies the
+ * significand with a 128-bit approximation of the power of ten. Numbers with
+ * more than 19 significant digits whose rounding cannot be decided from the
+ * first 19 digits fall back to {@link Double#parseDouble(String)}.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class DoubleParser {
+	/**
+	 * The smallest power of ten which does not always round to zero.
+	 */
+	private static final int SMALLEST_POWER = -342;
+
+	/**
+	 * The largest power of ten which does not always round to infinity.
+	 */
+	private static final int LARGEST_POWER = 308;
+
+	/**
+	 * The 128-bit approximations of the powers of five, normalized so the most
+	 * significant bit is set. Every power takes two entries: the high and the
+	 * low 64 bits.
+	 */
+	private static final long[] POWERS_OF_FIVE = new long[2 * (LARGEST_POWER
+			- SMALLEST_POWER + 1)];
+
+	/**
+	 * The powers of ten which can be represented exactly by a double.
+	 */
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4,
+			1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+			1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	static {
+		BigInteger five = BigInteger.valueOf(5);
+		for (int q = SMALLEST_POWER; q <= LARGEST_POWER; ++q) {
+			BigInteger c;
+			if (q < 0) {
+				// round the reciprocal up, so the product is never too small
+				BigInteger power = five.pow(-q);
+				int z = power.bitLength();
+				int b = q >= -27 ? z + 127 : 2 * z + 128;
+				c = BigInteger.ONE.shiftLeft(b).divide(power)
+						.add(BigInteger.ONE);
+			} else
+				c = five.pow(q);
+
+			// normalize to 128 bits, truncating the lower bits
+			int excess = c.bitLength() - 128;
+			c = excess > 0 ? c.shiftRight(excess) : c.shiftLeft(-excess);
+
+			int index = 2 * (q - SMALLEST_POWER);
+			POWERS_OF_FIVE[index] = c.shiftRight(64).longValue();
+			POWERS_OF_FIVE[index + 1] = c.longValue();
+		}
+	}
+
+	/**
+	 * This class only contains static methods.
+	 */
+	private DoubleParser() {
+	}
+
+	/**
+	 * Parses the ASCII number in the given range of the given array. The
+	 * number consists of an optional sign, digits with an optional decimal
+	 * point and an optional exponent. The values <code>nan</code>,
+	 * <code>inf</code> and <code>infinity</code> are accepted in any case.
+	 *
+	 * @param ascii
+	 *            the array which holds the number.
+	 * @param offset
+	 *            the index of the first character of the number.
+	 * @param length
+	 *            the number of characters of the number.
+	 * @return the correctly rounded double closest to the number.
+	 * @throws NumberFormatException
+	 *             when the characters are not a valid number.
+	 */
+	public static double parse(byte[] ascii, int offset, int length)
+			throws NumberFormatException {
+		int i = offset;
+		int end = offset + length;
+		if (i == end)
+			throw invalid(ascii, offset, length);
+
+		boolean negative = false;
+		if (ascii[i] == '-' || ascii[i] == '+') {
+			negative = ascii[i] == '-';
+			if (++i == end)
+				throw invalid(ascii, offset, length);
+		}
+
+		// special values
+		int c = ascii[i] | 0x20;
+		if (c == 'n' || c == 'i') {
+			if (equalsIgnoreCase(ascii, i, end, "nan"))
+				return Double.NaN;
+			if (equalsIgnoreCase(ascii, i, end, "inf")
+					|| equalsIgnoreCase(ascii, i, end, "infinity"))
+				return negative ? Double.NEGATIVE_INFINITY
+						: Double.POSITIVE_INFINITY;
+			throw invalid(ascii, offset, length);
+		}
+
+		// significand: the first 19 significant digits are kept exactly
+		long significand = 0;
+		int digits = 0;
+		long exponent = 0;
+		boolean truncated = false;
+		boolean valid = false;
+		while (i < end && (c = ascii[i] - '0') >= 0 && c <= 9) {
+			valid = true;
+			if (digits < 19) {
+				significand = 10 * significand + c;
+				if (significand != 0)
+					++digits;
+			} else {
+				++exponent;
+				truncated |= c != 0;
+			}
+			++i;
+		}
+		if (i < end && ascii[i] == '.') {
+			++i;
+			while (i < end && (c = ascii[i] - '0') >= 0 && c <= 9) {
+				valid = true;
+				if (digits < 19) {
+					significand = 10 * significand + c;
+					if (significand != 0)
+						++digits;
+					--exponent;
+				} else
+					truncated |= c != 0;
+				++i;
+			}
+		}
+		if (!valid)
+			throw invalid(ascii, offset, length);
+
+		// exponent
+		if (i < end && (ascii[i] | 0x20) == 'e') {
+			boolean negativeExponent = false;
+			if (++i < end && (ascii[i] == '-' || ascii[i] == '+'))
+				negativeExponent = ascii[i++] == '-';
+			if (i == end)
+				throw invalid(ascii, offset, length);
+			long value = 0;
+			while (i < end && (c = ascii[i] - '0') >= 0 && c <= 9) {
+				if (value < 100000)
+					value = 10 * value + c;
+				++i;
+			}
+			exponent += negativeExponent ? -value : value;
+		}
+		if (i != end)
+			throw invalid(ascii, offset, length);
+
+		if (significand == 0)
+			return negative ? -0.0 : 0.0;
+		if (exponent < SMALLEST_POWER - 19)
+			return negative ? -0.0 : 0.0;
+		if (exponent > LARGEST_POWER + 19)
+			return negative ? Double.NEGATIVE_INFINITY
+					: Double.POSITIVE_INFINITY;
+
+		int q = (int) exponent;
+		double result = toDouble(significand, q, negative);
+		if (truncated && result != toDouble(significand + 1, q, negative))
+			return Double.parseDouble(new String(ascii, offset, length,
+					StandardCharsets.ISO_8859_1));
+		return result;
+	}
+
+	/**
+	 * Returns the double closest to <code>w * 10^q</code>, where the
+	 * significand w is an unsigned 64-bit integer different from zero.
+	 *
+	 * @param w
+	 *            the significand as an unsigned integer.
+	 * @param q
+	 *            the power of ten.
+	 * @param negative
+	 *            whether the result is negative.
+	 * @return the double closest to <code>w * 10^q</code>.
+	 */
+	static double toDouble(long w, int q, boolean negative) {
+		// exact when both the significand and the power of ten are exact
+		if (q >= -22 && q <= 22 && w >= 0 && w <= (1L << 53)) {
+			double d = w;
+			d = q < 0 ? d / POWERS_OF_TEN[-q] : d * POWERS_OF_TEN[q];
+			return negative ? -d : d;
+		}
+		if (q < SMALLEST_POWER)
+			return negative ? -0.0 : 0.0;
+		if (q > LARGEST_POWER)
+			return negative ? Double.NEGATIVE_INFINITY
+					: Double.POSITIVE_INFINITY;
+
+		int lz = Long.numberOfLeadingZeros(w);
+		w <<= lz;
+
+		// 128-bit product of the significand and the power of five
+		int index = 2 * (q - SMALLEST_POWER);
+		long high = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index]);
+		long low = w * POWERS_OF_FIVE[index];
+		if ((high & 0x1FF) == 0x1FF) {
+			long second = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index + 1]);
+			low += second;
+			if (Long.compareUnsigned(second, low) > 0)
+				++high;
+		}
+
+		int upperBit = (int) (high >>> 63);
+		int shift = upperBit + 9;
+		long mantissa = high >>> shift;
+		int power2 = ((217706 * q) >> 16) + 63 + upperBit - lz + 1023;
+
+		long bits;
+		if (power2 <= 0) {
+			// subnormal
+			if (-power2 + 1 >= 64)
+				return negative ? -0.0 : 0.0;
+			mantissa >>>= -power2 + 1;
+			mantissa += mantissa & 1;
+			mantissa >>>= 1;
+			power2 = mantissa < (1L << 52) ? 0 : 1;
+			bits = mantissa | ((long) power2 << 52);
+		} else {
+			// round to even when the value lies exactly between two doubles
+			if (Long.compareUnsigned(low, 1) <= 0 && q >= -4 && q <= 23
+					&& (mantissa & 3) == 1 && (mantissa << shift) == high)
+				mantissa &= ~1L;
+			mantissa += mantissa & 1;
+			mantissa >>>= 1;
+			if (mantissa >= (2L << 52)) {
+				mantissa = 1L << 52;
+				++power2;
+			}
+			mantissa &= ~(1L << 52);
+			if (power2 >= 0x7FF)
+				return negative ? Double.NEGATIVE_INFINITY
+						: Double.POSITIVE_INFINITY;
+			bits = mantissa | ((long) power2 << 52);
+		}
+		if (negative)
+			bits |= 1L << 63;
+		return Double.longBitsToDouble(bits);
+	}
+
+	/**
+	 * Returns the upper 64 bits of the unsigned 128-bit product of the given
+	 * unsigned integers.
+	 *
+	 * @param a
+	 *            the first unsigned integer.
+	 * @param b
+	 *            the second unsigned integer.
+	 * @return the upper 64 bits of the unsigned product.
+	 */
+	private static long unsignedMultiplyHigh(long a, long b) {
+		return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+	}
+
+	/**
+	 * Returns whether the given range of the given array equals the given
+	 * lower case string, ignoring the case of the array.
+	 *
+	 * @param ascii
+	 *            the array.
+	 * @param start
+	 *            the start of the range.
+	 * @param end
+	 *            the end of the range.
+	 * @param lowerCase
+	 *            the lower case string.
+	 * @return whether the range equals the given string.
+	 */
+	private static boolean equalsIgnoreCase(byte[] ascii, int start, int end,
+			String lowerCase) {
+		if (end - start != lowerCase.length())
+			return false;
+		for (int i = 0; i < lowerCase.length(); ++i)
+			if ((ascii[start + i] | 0x20) != lowerCase.charAt(i))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Returns the exception for an invalid number.
+	 *
+	 * @param ascii
+	 *            the array which holds the number.
+	 * @param offset
+	 *            the index of the first character of the number.
+	 * @param length
+	 *            the number of characters of the number.
+	 * @return the exception for an invalid number.
+	 */
+	private static NumberFormatException invalid(byte[] ascii, int offset,
+			int length) {
+		return new NumberFormatException("For input string: \""
+				+ new String(ascii, offset, length, StandardCharsets.ISO_8859_1)
+				+ "\"");
+	}
+}
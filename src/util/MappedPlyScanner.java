@@ -0,0 +1,204 @@
+package util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Implementation of a {@link PlyScanner} which reads the data directly from a
+ * memory mapped file.
+ *
+ * Files which are larger than the size of a single window are mapped in
+ * several consecutive windows. A new window is mapped from the current
+ * position whenever the data in the current window runs out, so values which
+ * cross the border of a window are never split.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class MappedPlyScanner extends PlyScanner {
+	/**
+	 * The default size of a mapped window (one gigabyte).
+	 */
+	public static final long WINDOW_SIZE = 1L << 30;
+
+	/**
+	 * The channel of the mapped file.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * The position in the file after the last byte which can be read.
+	 */
+	private final long end;
+
+	/**
+	 * The maximum size of a single mapped window.
+	 */
+	private final long windowSize;
+
+	/**
+	 * Whether the channel is closed when this scanner is closed.
+	 */
+	private final boolean ownsChannel;
+
+	/**
+	 * Creates a new {@link MappedPlyScanner} which maps the file at the given
+	 * path in windows of {@link #WINDOW_SIZE} bytes.
+	 *
+	 * @param path
+	 *            the path of the file to map.
+	 * @throws IOException
+	 *             when the file could not be opened.
+	 */
+	public MappedPlyScanner(Path path) throws IOException {
+		this(path, WINDOW_SIZE);
+	}
+
+	/**
+	 * Creates a new {@link MappedPlyScanner} which maps the file at the given
+	 * path in windows of the given size.
+	 *
+	 * @param path
+	 *            the path of the file to map.
+	 * @param windowSize
+	 *            the maximum size of a mapped window in bytes.
+	 * @throws IllegalArgumentException
+	 *             when the window size is smaller than 8 bytes or larger than
+	 *             {@link Integer#MAX_VALUE}.
+	 * @throws IOException
+	 *             when the file could not be opened.
+	 */
+	public MappedPlyScanner(Path path, long windowSize)
+			throws IllegalArgumentException, IOException {
+		this(FileChannel.open(path, StandardOpenOption.READ), windowSize, true);
+	}
+
+	/**
+	 * Creates a new {@link MappedPlyScanner} which maps the given range of the
+	 * given channel. The channel is shared: it is not closed when the scanner
+	 * is closed, so several scanners can read different ranges of the same
+	 * file concurrently.
+	 *
+	 * @param channel
+	 *            the channel of the file to map.
+	 * @param start
+	 *            the position of the first byte to read.
+	 * @param end
+	 *            the position after the last byte to read.
+	 * @throws IllegalArgumentException
+	 *             when the range is invalid.
+	 * @throws IOException
+	 *             when the size of the file could not be determined.
+	 */
+	public MappedPlyScanner(FileChannel channel, long start, long end)
+			throws IllegalArgumentException, IOException {
+		super(ByteBuffer.allocate(0));
+		if (start < 0 || end < start || end > channel.size())
+			throw new IllegalArgumentException("invalid range [" + start
+					+ ", " + end + "]!");
+		this.channel = channel;
+		this.end = end;
+		this.windowSize = WINDOW_SIZE;
+		this.ownsChannel = false;
+		this.bufferOffset = start;
+	}
+
+	/**
+	 * Creates a new {@link MappedPlyScanner} which maps the whole file of the
+	 * given channel.
+	 *
+	 * @param channel
+	 *            the channel of the file to map.
+	 * @param windowSize
+	 *            the maximum size of a mapped window in bytes.
+	 * @param ownsChannel
+	 *            whether the channel is closed when this scanner is closed.
+	 * @throws IllegalArgumentException
+	 *             when the window size is smaller than 8 bytes or larger than
+	 *             {@link Integer#MAX_VALUE}.
+	 * @throws IOException
+	 *             when the size of the file could not be determined.
+	 */
+	private MappedPlyScanner(FileChannel channel, long windowSize,
+			boolean ownsChannel) throws IllegalArgumentException, IOException {
+		super(ByteBuffer.allocate(0));
+		if (windowSize < 8 || windowSize > Integer.MAX_VALUE) {
+			if (ownsChannel)
+				channel.close();
+			throw new IllegalArgumentException(
+					"the window size must be in the range [8, "
+							+ Integer.MAX_VALUE + "]!");
+		}
+		this.channel = channel;
+		this.end = channel.size();
+		this.windowSize = windowSize;
+		this.ownsChannel = ownsChannel;
+	}
+
+	/**
+	 * Returns the position in the file after the last byte which can be read
+	 * by this scanner.
+	 *
+	 * @return the position after the last byte which can be read.
+	 */
+	public long end() {
+		return end;
+	}
+
+	/**
+	 * Returns the channel of the mapped file.
+	 *
+	 * @return the channel of the mapped file.
+	 */
+	public FileChannel getChannel() {
+		return channel;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see util.PlyScanner#fill(int)
+	 */
+	@Override
+	protected boolean fill(int minimum) throws IOException {
+		long position = position();
+		long length = Math.min(windowSize, end - position);
+		if (length <= 0)
+			return false;
+
+		buffer = channel.map(MapMode.READ_ONLY, position, length);
+		bufferOffset = position;
+		return buffer.remaining() >= minimum;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see util.PlyScanner#seek(long)
+	 */
+	@Override
+	public void seek(long position) throws IOException {
+		if (position >= bufferOffset
+				&& position <= bufferOffset + buffer.limit())
+			super.seek(position);
+		else {
+			bufferOffset = Math.min(Math.max(position, 0), end);
+			buffer = ByteBuffer.allocate(0);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see util.PlyScanner#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		if (ownsChannel)
+			channel.close();
+	}
+}
@@ -0,0 +1,159 @@
+package util;
+
+import java.io.Closeable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Allocates direct {@link ByteBuffer}s which live outside the Java heap and
+ * releases them all at once when the arena is closed.
+ *
+ * The buffers are in native byte order, so they can be passed to native code
+ * or uploaded to a GPU without another copy. The memory of a direct buffer is
+ * normally only released when the buffer is garbage collected. Closing the
+ * arena releases it immediately, so the buffers allocated by an arena must
+ * not be used anymore after the arena is closed. The columns of a
+ * {@link core.PlyColumn} which are stored in the buffers of an arena throw an
+ * {@link IllegalStateException} instead. An arena must not be closed while
+ * its buffers are being read. When the memory cannot be released explicitly
+ * on the running JVM, it is left to the garbage collector.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class PlyArena implements Closeable {
+	/**
+	 * The <code>sun.misc.Unsafe</code> instance which releases direct
+	 * buffers, or <code>null</code> when it is not available.
+	 */
+	private static final Object UNSAFE;
+
+	/**
+	 * The <code>invokeCleaner</code> method of <code>sun.misc.Unsafe</code>,
+	 * or <code>null</code> when it is not available.
+	 */
+	private static final Method INVOKE_CLEANER;
+
+	static {
+		Object unsafe = null;
+		Method invokeCleaner = null;
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field field = unsafeClass.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			unsafe = field.get(null);
+			invokeCleaner = unsafeClass.getMethod("invokeCleaner",
+					ByteBuffer.class);
+		} catch (Exception e) {
+			unsafe = null;
+			invokeCleaner = null;
+		}
+		UNSAFE = unsafe;
+		INVOKE_CLEANER = invokeCleaner;
+	}
+
+	/**
+	 * The buffers which have been allocated.
+	 */
+	private final List<ByteBuffer> buffers = new ArrayList<ByteBuffer>();
+
+	/**
+	 * The number of bytes which have been allocated.
+	 */
+	private long nbOfBytes = 0;
+
+	/**
+	 * Whether this arena has been closed. The flag is read without a lock by
+	 * every access to a column of the arena.
+	 */
+	private volatile boolean closed = false;
+
+	/**
+	 * Creates a new, empty {@link PlyArena}.
+	 */
+	public PlyArena() {
+	}
+
+	/**
+	 * Allocates a direct buffer of the given size in native byte order. The
+	 * content of the buffer is zero.
+	 *
+	 * @param size
+	 *            the size of the buffer in bytes.
+	 * @return a direct buffer of the given size.
+	 * @throws IllegalArgumentException
+	 *             when the size is smaller than zero or larger than
+	 *             {@link Integer#MAX_VALUE}.
+	 * @throws IllegalStateException
+	 *             when this arena has been closed.
+	 */
+	public synchronized ByteBuffer allocate(long size)
+			throws IllegalArgumentException, IllegalStateException {
+		if (closed)
+			throw new IllegalStateException("the arena has been closed!");
+		if (size < 0 || size > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("cannot allocate a buffer of "
+					+ size + " bytes!");
+		ByteBuffer buffer = ByteBuffer.allocateDirect((int) size).order(
+				ByteOrder.nativeOrder());
+		buffers.add(buffer);
+		nbOfBytes += size;
+		return buffer;
+	}
+
+	/**
+	 * Returns the number of bytes which have been allocated by this arena and
+	 * which are not released yet.
+	 *
+	 * @return the number of bytes allocated by this arena.
+	 */
+	public synchronized long nbOfBytes() {
+		return nbOfBytes;
+	}
+
+	/**
+	 * Returns whether this arena has been closed.
+	 *
+	 * @return whether this arena has been closed.
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Releases all the buffers which have been allocated by this arena. The
+	 * buffers must not be used anymore afterwards. Closing an arena which has
+	 * already been closed has no effect.
+	 */
+	@Override
+	public synchronized void close() {
+		if (closed)
+			return;
+		closed = true;
+		for (ByteBuffer buffer : buffers)
+			release(buffer);
+		buffers.clear();
+		nbOfBytes = 0;
+	}
+
+	/**
+	 * Releases the memory of the given direct buffer, or leaves it to the
+	 * garbage collector when that is not possible.
+	 *
+	 * @param buffer
+	 *            the buffer to release.
+	 */
+	private static void release(ByteBuffer buffer) {
+		if (INVOKE_CLEANER == null)
+			return;
+		try {
+			INVOKE_CLEANER.invoke(UNSAFE, buffer);
+		} catch (Exception e) {
+			// the garbage collector releases the memory instead
+		}
+	}
+}
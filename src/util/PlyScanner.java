@@ -3,7 +3,6 @@ package util;
 import io.ParseException;
 
 import java.io.Closeable;
-import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -11,19 +10,55 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 /**
  * Implementation of a scanner which can read both binary and regular
  * characters.
  * 
+ * The scanner keeps its data in a {@link ByteBuffer}. Subclasses can change
+ * where the data comes from by overriding {@link #fill(int)}.
+ * 
  * @author Niels Billen
  * @version 0.1
  */
 public class PlyScanner extends InputStream implements Closeable, AutoCloseable {
-	private DataInputStream stream;
-	private byte[] buffer = new byte[1024 * 1024]; // buffer of one megabyte
-	private int bufferIndex = 0;
-	private int bufferLength = 0;
+	/**
+	 * The size of the buffer used by the scanner (one megabyte).
+	 */
+	public static final int BUFFER_SIZE = 1024 * 1024;
+
+	/**
+	 * The channel the data is read from, or <code>null</code> when a subclass
+	 * provides the data.
+	 */
+	private ReadableByteChannel channel;
+
+	/**
+	 * The buffer which holds the data which is currently being scanned.
+	 */
+	protected ByteBuffer buffer;
+
+	/**
+	 * The offset in the input of the first byte in the buffer.
+	 */
+	protected long bufferOffset = 0;
+
+	/**
+	 * Reusable arrays in which list properties can be decoded.
+	 */
+	private int[] intArray = new int[16];
+	private long[] longArray = new long[16];
+	private double[] doubleArray = new double[16];
+
+	/**
+	 * Reusable array which holds the characters of the last ASCII token.
+	 */
+	private byte[] token = new byte[64];
 
 	/**
 	 * 
@@ -31,8 +66,138 @@ public class PlyScanner extends InputStream implements Closeable, AutoCloseable
 	 * @throws FileNotFoundException
 	 */
 	public PlyScanner(File file) throws FileNotFoundException {
-		FileInputStream fin = new FileInputStream(file);
-		stream = new DataInputStream(fin);
+		this(new FileInputStream(file).getChannel());
+	}
+
+	/**
+	 * Creates a new {@link PlyScanner} which reads its data from the given
+	 * stream. The stream is closed when the scanner is closed.
+	 * 
+	 * @param stream
+	 *            the stream to read the data from.
+	 * @throws NullPointerException
+	 *             when the given stream is null.
+	 */
+	public PlyScanner(InputStream stream) throws NullPointerException {
+		this(Channels.newChannel(stream));
+	}
+
+	/**
+	 * Creates a new {@link PlyScanner} which reads its data from the given
+	 * channel.
+	 * 
+	 * @param channel
+	 *            the channel to read the data from.
+	 * @throws NullPointerException
+	 *             when the given channel is null.
+	 */
+	public PlyScanner(ReadableByteChannel channel) throws NullPointerException {
+		if (channel == null)
+			throw new NullPointerException("the channel cannot be null!");
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		this.buffer.limit(0);
+	}
+
+	/**
+	 * Creates a new {@link PlyScanner} without a channel. The subclass is
+	 * responsible for providing the data through {@link #fill(int)}.
+	 * 
+	 * @param buffer
+	 *            the initial buffer of the scanner.
+	 */
+	protected PlyScanner(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Makes sure that at least the given number of bytes is available in the
+	 * buffer. The bytes which have not been read yet are moved to the front of
+	 * the buffer and the remainder of the buffer is filled with new data.
+	 * 
+	 * @param minimum
+	 *            the minimum number of bytes which should be available.
+	 * @throws IOException
+	 *             when an I/O exception occurs during the reading.
+	 * @return true when at least the given number of bytes is available.
+	 */
+	protected boolean fill(int minimum) throws IOException {
+		bufferOffset += buffer.position();
+		if (minimum > buffer.capacity()) {
+			ByteBuffer larger = ByteBuffer.allocate(minimum);
+			larger.put(buffer);
+			buffer = larger;
+		} else
+			buffer.compact();
+		while (buffer.position() < minimum) {
+			if (channel.read(buffer) == -1)
+				break;
+		}
+		buffer.flip();
+		return buffer.remaining() >= minimum;
+	}
+
+	/**
+	 * Returns the offset in the input of the next byte which will be read.
+	 * 
+	 * @return the offset in the input of the next byte which will be read.
+	 */
+	public long position() {
+		return bufferOffset + buffer.position();
+	}
+
+	/**
+	 * Moves this scanner to the given position in the input. Scanners whose
+	 * input is not seekable can only move forward, by reading and discarding
+	 * the data in between. The scanner stops at the end of the input when the
+	 * given position lies beyond it.
+	 * 
+	 * @param position
+	 *            the position in the input to move to.
+	 * @throws IOException
+	 *             when an I/O exception occurs.
+	 * @throws IllegalArgumentException
+	 *             when the input is not seekable and the given position lies
+	 *             before the current position.
+	 */
+	public void seek(long position) throws IOException,
+			IllegalArgumentException {
+		if (position >= bufferOffset
+				&& position <= bufferOffset + buffer.limit()) {
+			buffer.position((int) (position - bufferOffset));
+		} else if (channel instanceof SeekableByteChannel) {
+			SeekableByteChannel seekable = (SeekableByteChannel) channel;
+			position = Math.min(position, seekable.size());
+			seekable.position(position);
+			bufferOffset = position;
+			buffer.clear().limit(0);
+		} else if (position < position()) {
+			throw new IllegalArgumentException(
+					"cannot move backwards in an input which is not seekable!");
+		} else {
+			while (position() < position) {
+				buffer.position(buffer.limit());
+				if (!fill(1))
+					return;
+				long remaining = position - bufferOffset;
+				if (remaining <= buffer.limit())
+					buffer.position((int) remaining);
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.io.InputStream#skip(long)
+	 */
+	@Override
+	public long skip(long n) throws IOException {
+		if (n <= 0)
+			return 0;
+		long start = position();
+		seek(start + n);
+		return position() - start;
 	}
 
 	/*
@@ -42,17 +207,9 @@ public class PlyScanner extends InputStream implements Closeable, AutoCloseable
 	 */
 	@Override
 	public int read() throws IOException {
-		if (bufferIndex == bufferLength) {
-			bufferLength = stream.read(buffer);
-			if (bufferLength == -1)
-				return -1;
-			bufferIndex = 0;
-		}
-
-		int result = buffer[bufferIndex++];
-		if (result < 0)
-			result += 255;
-		return result;
+		if (!buffer.hasRemaining() && !fill(1))
+			return -1;
+		return buffer.get() & 0xff;
 	}
 
 	/*
@@ -62,7 +219,7 @@ public class PlyScanner extends InputStream implements Closeable, AutoCloseable
 	 */
 	@Override
 	protected void finalize() throws Throwable {
-		stream.close();
+		close();
 	}
 
 	/*
@@ -72,7 +229,8 @@ public class PlyScanner extends InputStream implements Closeable, AutoCloseable
 	 */
 	@Override
 	public void close() throws IOException {
-		stream.close();
+		if (channel != null)
+			channel.close();
 	}
 
 	/**
@@ -135,109 +293,363 @@ public class PlyScanner extends InputStream implements Closeable, AutoCloseable
 	}
 
 	/**
-	 * Returns the next byte seen by this scanner.
+	 * Makes sure that at least the given number of bytes can be read from the
+	 * buffer. The buffer is only refilled when it holds less than the given
+	 * number of bytes.
+	 * 
+	 * @param bytes
+	 *            the number of bytes which should be available.
+	 * @throws IOException
+	 *             when an I/O exception occurs.
+	 * @throws ParseException
+	 *             when the end of the file is reached before the given number
+	 *             of bytes is available.
+	 */
+	protected final void require(int bytes) throws IOException,
+			ParseException {
+		if (buffer.remaining() < bytes && !fill(bytes))
+			throw new ParseException("no more data in this file!");
+	}
+
+	/**
+	 * Makes sure that at least the given number of bytes is available and
+	 * returns the internal buffer of this scanner. The next byte of the
+	 * scanner is at the position of the buffer. Bytes are consumed from the
+	 * scanner by advancing the position of the buffer.
+	 * 
+	 * The returned buffer is only valid until the next call of a method of
+	 * this scanner, and its byte order can be changed freely.
+	 * 
+	 * @param minimum
+	 *            the minimum number of bytes which should be available.
+	 * @return the internal buffer of this scanner.
+	 * @throws IOException
+	 *             when an I/O exception occurs.
+	 * @throws ParseException
+	 *             when the end of the file is reached before the given number
+	 *             of bytes is available.
+	 */
+	public ByteBuffer buffer(int minimum) throws IOException, ParseException {
+		require(minimum);
+		return buffer;
+	}
+
+	/**
+	 * Moves this scanner forward over exactly the given number of bytes.
+	 *
+	 * @param bytes
+	 *            the number of bytes to skip.
+	 * @throws IOException
+	 *             when an I/O exception occurs.
+	 * @throws ParseException
+	 *             when the end of the file is reached before the given number
+	 *             of bytes is skipped.
+	 */
+	public void skipBytes(long bytes) throws IOException, ParseException {
+		if (bytes > 0 && skip(bytes) != bytes)
+			throw new ParseException("no more data in this file!");
+	}
+
+	/**
+	 * Moves this scanner forward over the given number of ASCII tokens and the
+	 * separator after the last one, without copying them. Tokens are
+	 * separated by spaces, tabs, carriage returns and newlines.
+	 *
+	 * @param tokens
+	 *            the number of tokens to skip.
+	 * @throws IOException
+	 *             when an I/O exception occurs.
+	 * @throws ParseException
+	 *             when there are less tokens left than the given number.
+	 */
+	public void skipTokens(long tokens) throws IOException, ParseException {
+		boolean inToken = false;
+		while (tokens > 0) {
+			if (!buffer.hasRemaining() && !fill(1)) {
+				if (inToken && tokens == 1)
+					return;
+				throw new ParseException(
+						"unexpected end of file, expected a number!");
+			}
+			int i = buffer.position();
+			int limit = buffer.limit();
+			while (i < limit) {
+				byte b = buffer.get(i);
+				boolean separator = b == ' ' || b == '\n' || b == '\r'
+						|| b == '\t';
+				++i;
+				// consume the separator after the last token, like nextToken
+				if (inToken && separator && --tokens == 0)
+					break;
+				inToken = !separator;
+			}
+			buffer.position(i);
+		}
+	}
+
+	/**
+	 * Reads the next ASCII token into the reusable token array. Tokens are
+	 * separated by spaces, tabs, carriage returns and newlines.
+	 * 
+	 * @return the length of the token.
+	 * @throws IOException
+	 *             when an I/O exception occurs.
+	 * @throws ParseException
+	 *             when there are no more tokens.
+	 */
+	private int nextToken() throws IOException, ParseException {
+		int b;
+		do {
+			b = read();
+		} while (b == ' ' || b == '\n' || b == '\r' || b == '\t');
+		if (b == -1)
+			throw new ParseException("unexpected end of file, expected a number!");
+
+		int length = 0;
+		do {
+			if (length == token.length)
+				token = Arrays.copyOf(token, 2 * length);
+			token[length++] = (byte) b;
+			b = read();
+		} while (b != -1 && b != ' ' && b != '\n' && b != '\r' && b != '\t');
+		return length;
+	}
+
+	/**
+	 * Parses the next ASCII token as a decimal integer without creating any
+	 * intermediate objects.
+	 * 
+	 * @return the parsed integer.
+	 * @throws IOException
+	 *             when an I/O exception occurs.
+	 * @throws NumberFormatException
+	 *             when the token is not a valid integer.
+	 * @throws ParseException
+	 *             when there are no more tokens.
+	 */
+	public long nextAsciiLong() throws IOException, NumberFormatException,
+			ParseException {
+		int length = nextToken();
+		int i = 0;
+		boolean negative = token[0] == '-';
+		if (negative || token[0] == '+')
+			++i;
+		if (i == length)
+			throw invalidToken(length);
+
+		// accumulate negatively, so Long.MIN_VALUE can be represented
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long multiplyLimit = limit / 10;
+		long result = 0;
+		for (; i < length; ++i) {
+			int digit = token[i] - '0';
+			if (digit < 0 || digit > 9 || result < multiplyLimit)
+				throw invalidToken(length);
+			result *= 10;
+			if (result < limit + digit)
+				throw invalidToken(length);
+			result -= digit;
+		}
+		return negative ? result : -result;
+	}
+
+	/**
+	 * Parses the next ASCII token as a correctly rounded double without
+	 * creating any intermediate objects. Besides decimal numbers with an
+	 * optional exponent, <code>nan</code>, <code>inf</code> and
+	 * <code>infinity</code> are accepted.
+	 * 
+	 * @return the parsed double.
+	 * @throws IOException
+	 *             when an I/O exception occurs.
+	 * @throws NumberFormatException
+	 *             when the token is not a valid number.
+	 * @throws ParseException
+	 *             when there are no more tokens.
+	 */
+	public double nextAsciiDouble() throws IOException, NumberFormatException,
+			ParseException {
+		return DoubleParser.parse(token, 0, nextToken());
+	}
+
+	/**
+	 * Returns the exception for an invalid integer token.
+	 * 
+	 * @param length
+	 *            the length of the token.
+	 * @return the exception for an invalid integer token.
+	 */
+	private NumberFormatException invalidToken(int length) {
+		return new NumberFormatException("For input string: \""
+				+ new String(token, 0, length, StandardCharsets.ISO_8859_1)
+				+ "\"");
+	}
+
+	/**
+	 * Returns the next byte seen by this scanner as a signed value.
 	 * 
 	 * @throws IOException
 	 *             when an I/O exception occurs.
 	 * @return the next byte seen by this scanner.
 	 */
 	public int nextByte() throws IOException {
-		int result = read();
-		if (result == -1)
-			throw new ParseException("no more data in this file!");
-		return result;
+		require(1);
+		return buffer.get();
 	}
 
 	/**
+	 * Returns the next byte seen by this scanner as an unsigned value.
 	 * 
-	 * @return
+	 * @return the next byte seen by this scanner as an unsigned value.
 	 * @throws IOException
+	 *             when an I/O exception occurs.
 	 */
 	public int nextUnsignedByte() throws IOException {
-		int result = read() & 0xff;
-		if (result == -1)
-			throw new ParseException("no more data in this file!");
-		return result;
+		require(1);
+		return buffer.get() & 0xff;
 	}
 
 	/**
+	 * Returns the next single precision float in the given byte order.
 	 * 
-	 * @return
+	 * @param order
+	 *            the byte order of the value.
+	 * @return the next single precision float in the given byte order.
 	 * @throws IOException
+	 *             when an I/O exception occurs.
 	 */
 	public float nextFloat(ByteOrder order) throws IOException {
-		byte[] bytes = new byte[4];
-		for (int i = 0; i < 4; ++i)
-			bytes[i] = (byte) nextByte();
-		return ByteBuffer.wrap(bytes).order(order).getFloat();
+		require(4);
+		return buffer.order(order).getFloat();
 	}
 
 	/**
+	 * Returns the next double precision float in the given byte order.
 	 * 
-	 * @return
+	 * @param order
+	 *            the byte order of the value.
+	 * @return the next double precision float in the given byte order.
 	 * @throws IOException
+	 *             when an I/O exception occurs.
 	 */
 	public double nextDouble(ByteOrder order) throws IOException {
-		byte[] bytes = new byte[8];
-		for (int i = 0; i < 8; ++i)
-			bytes[i] = (byte) nextByte();
-		return ByteBuffer.wrap(bytes).order(order).getDouble();
+		require(8);
+		return buffer.order(order).getDouble();
 	}
 
 	/**
+	 * Returns the next signed four byte integer in the given byte order.
 	 * 
-	 * @return
+	 * @param order
+	 *            the byte order of the value.
+	 * @return the next signed four byte integer in the given byte order.
 	 * @throws IOException
+	 *             when an I/O exception occurs.
 	 */
 	public int nextInteger(ByteOrder order) throws IOException {
-		byte[] bytes = new byte[4];
-		for (int i = 0; i < 4; ++i)
-			bytes[i] = (byte) nextByte();
-		return ByteBuffer.wrap(bytes).order(order).getInt();
+		require(4);
+		return buffer.order(order).getInt();
 	}
 
 	/**
+	 * Returns the next unsigned four byte integer in the given byte order.
 	 * 
-	 * @return
+	 * @param order
+	 *            the byte order of the value.
+	 * @return the next unsigned four byte integer in the given byte order.
 	 * @throws IOException
+	 *             when an I/O exception occurs.
 	 */
 	public long nextUnsignedInteger(ByteOrder order) throws IOException {
 		return ((long) nextInteger(order)) & 0xffffffffL;
 	}
 
 	/**
+	 * Returns the next signed two byte integer in the given byte order.
 	 * 
-	 * @return
+	 * @param order
+	 *            the byte order of the value.
+	 * @return the next signed two byte integer in the given byte order.
 	 * @throws IOException
+	 *             when an I/O exception occurs.
 	 */
 	public short nextShort(ByteOrder order) throws IOException {
-		byte[] bytes = new byte[2];
-		for (int i = 0; i < 2; ++i)
-			bytes[i] = (byte) nextByte();
-		return ByteBuffer.wrap(bytes).order(order).getShort();
+		require(2);
+		return buffer.order(order).getShort();
 	}
 
 	/**
+	 * Returns the next unsigned two byte integer in the given byte order.
 	 * 
-	 * @return
+	 * @param order
+	 *            the byte order of the value.
+	 * @return the next unsigned two byte integer in the given byte order.
 	 * @throws IOException
+	 *             when an I/O exception occurs.
 	 */
 	public int nextUnsignedShort(ByteOrder order) throws IOException {
-		byte[] bytes = new byte[4];
-		for (int i = 0; i < 4; ++i)
-			bytes[i] = (byte) nextByte();
 		return ((int) nextShort(order)) & 0xffff;
 	}
 
 	/**
+	 * Returns the next signed eight byte integer in the given byte order.
 	 * 
-	 * @return
+	 * @param order
+	 *            the byte order of the value.
+	 * @return the next signed eight byte integer in the given byte order.
 	 * @throws IOException
+	 *             when an I/O exception occurs.
 	 */
 	public long nextLong(ByteOrder order) throws IOException {
-		byte[] bytes = new byte[8];
-		for (int i = 0; i < 8; ++i)
-			bytes[i] = (byte) nextByte();
-		return ByteBuffer.wrap(bytes).order(order).get();
+		require(8);
+		return buffer.order(order).getLong();
+	}
+
+	/**
+	 * Returns a reusable array which can hold at least the given number of
+	 * integers. The content of the array is only valid until the next call of
+	 * this method.
+	 * 
+	 * @param size
+	 *            the minimum length of the array.
+	 * @return a reusable array which can hold at least the given number of
+	 *         integers.
+	 */
+	public int[] intArray(int size) {
+		if (intArray.length < size)
+			intArray = new int[Math.max(size, 2 * intArray.length)];
+		return intArray;
+	}
+
+	/**
+	 * Returns a reusable array which can hold at least the given number of
+	 * longs. The content of the array is only valid until the next call of
+	 * this method.
+	 * 
+	 * @param size
+	 *            the minimum length of the array.
+	 * @return a reusable array which can hold at least the given number of
+	 *         longs.
+	 */
+	public long[] longArray(int size) {
+		if (longArray.length < size)
+			longArray = new long[Math.max(size, 2 * longArray.length)];
+		return longArray;
+	}
+
+	/**
+	 * Returns a reusable array which can hold at least the given number of
+	 * doubles. The content of the array is only valid until the next call of
+	 * this method.
+	 * 
+	 * @param size
+	 *            the minimum length of the array.
+	 * @return a reusable array which can hold at least the given number of
+	 *         doubles.
+	 */
+	public double[] doubleArray(int size) {
+		if (doubleArray.length < size)
+			doubleArray = new double[Math.max(size, 2 * doubleArray.length)];
+		return doubleArray;
 	}
 }
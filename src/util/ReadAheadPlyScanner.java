@@ -0,0 +1,267 @@
+package util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Implementation of a {@link PlyScanner} which reads its data ahead on a
+ * background thread, so the reading of the input overlaps with the decoding
+ * of the data which has already been read.
+ *
+ * The scanner owns a fixed number of buffers. The background thread fills
+ * the free buffers in order while the scanner decodes the current one: with
+ * two buffers the next buffer is read while the current one is decoded, with
+ * three buffers the thread can run two buffers ahead. A value which crosses
+ * the border of two buffers is joined in a separate buffer, so values are
+ * never split.
+ *
+ * The input is read sequentially: the scanner can only move forward, by
+ * discarding the data in between.
+ *
+ * @author Niels Billen
+ * @version 0.1
+ */
+public class ReadAheadPlyScanner extends PlyScanner {
+	/**
+	 * The default number of buffers.
+	 */
+	public static final int BUFFERS = 3;
+
+	/**
+	 * Marks the end of the input in the queue of filled buffers.
+	 */
+	private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+	/**
+	 * The channel the data is read from.
+	 */
+	private final ReadableByteChannel channel;
+
+	/**
+	 * The buffers which can be filled by the background thread.
+	 */
+	private final BlockingQueue<ByteBuffer> free;
+
+	/**
+	 * The buffers which have been filled, in the order of the input.
+	 */
+	private final BlockingQueue<ByteBuffer> filled;
+
+	/**
+	 * The thread which fills the buffers.
+	 */
+	private final Thread thread;
+
+	/**
+	 * The exception or error which stopped the background thread, or
+	 * <code>null</code>.
+	 */
+	private Throwable failure;
+
+	/**
+	 * Whether the end of the input has been taken from the queue.
+	 */
+	private boolean ended = false;
+
+	/**
+	 * Whether this scanner has been closed.
+	 */
+	private volatile boolean closed = false;
+
+	/**
+	 * The buffer in which values which cross the border of two buffers are
+	 * joined.
+	 */
+	private ByteBuffer carry = ByteBuffer.allocate(0);
+
+	/**
+	 * Creates a new {@link ReadAheadPlyScanner} which reads the given channel
+	 * ahead in {@link #BUFFERS} buffers of {@link PlyScanner#BUFFER_SIZE}
+	 * bytes.
+	 *
+	 * @param channel
+	 *            the channel to read the data from.
+	 * @throws NullPointerException
+	 *             when the given channel is null.
+	 */
+	public ReadAheadPlyScanner(ReadableByteChannel channel)
+			throws NullPointerException {
+		this(channel, BUFFERS, BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a new {@link ReadAheadPlyScanner} which reads the given channel
+	 * ahead in the given number of buffers of the given size.
+	 *
+	 * @param channel
+	 *            the channel to read the data from.
+	 * @param buffers
+	 *            the number of buffers.
+	 * @param bufferSize
+	 *            the size of a buffer in bytes.
+	 * @throws NullPointerException
+	 *             when the given channel is null.
+	 * @throws IllegalArgumentException
+	 *             when there are less than two buffers or when the buffer
+	 *             size is smaller than one.
+	 */
+	public ReadAheadPlyScanner(ReadableByteChannel channel, int buffers,
+			int bufferSize) throws NullPointerException,
+			IllegalArgumentException {
+		super(ByteBuffer.allocate(0));
+		if (channel == null)
+			throw new NullPointerException("the channel cannot be null!");
+		if (buffers < 2)
+			throw new IllegalArgumentException(
+					"there must be at least two buffers!");
+		if (bufferSize < 1)
+			throw new IllegalArgumentException(
+					"the buffer size cannot be smaller than one!");
+		this.channel = channel;
+		this.free = new ArrayBlockingQueue<ByteBuffer>(buffers);
+		this.filled = new ArrayBlockingQueue<ByteBuffer>(buffers + 1);
+		for (int i = 0; i < buffers; ++i)
+			free.add(ByteBuffer.allocate(bufferSize));
+
+		thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				readAhead();
+			}
+		}, "PlyScanner read-ahead");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Fills the free buffers with the data of the channel until the end of
+	 * the input is reached or this scanner is closed. Runs on the background
+	 * thread. The end of the input is always queued, also when the channel
+	 * fails, so the scanner never waits for a thread which has stopped.
+	 */
+	private void readAhead() {
+		try {
+			while (!closed) {
+				ByteBuffer next = free.take();
+				if (closed)
+					break;
+				next.clear();
+				boolean end = false;
+				while (next.hasRemaining() && !end)
+					end = channel.read(next) == -1;
+				next.flip();
+				if (next.hasRemaining())
+					filled.put(next);
+				if (end)
+					break;
+			}
+		} catch (InterruptedException e) {
+			// the thread is stopped
+		} catch (Throwable e) {
+			if (!closed)
+				failure = e;
+		} finally {
+			filled.offer(END);
+		}
+	}
+
+	/**
+	 * Returns the next filled buffer, waiting for the background thread when
+	 * necessary, or <code>null</code> at the end of the input.
+	 *
+	 * @return the next filled buffer or <code>null</code>.
+	 * @throws IOException
+	 *             when the background thread failed to read the input, with
+	 *             the exception or error of the thread as its cause.
+	 */
+	private ByteBuffer take() throws IOException {
+		if (ended)
+			return null;
+		ByteBuffer next;
+		try {
+			next = filled.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(
+					"interrupted while waiting for the input");
+		}
+		if (next != END)
+			return next;
+		ended = true;
+		if (failure instanceof IOException)
+			throw new IOException(failure.getMessage(), failure);
+		if (failure != null)
+			throw new IOException(failure.toString(), failure);
+		return null;
+	}
+
+	/**
+	 * Hands the given buffer back to the background thread, unless it is
+	 * the buffer in which values are joined.
+	 *
+	 * @param used
+	 *            the buffer which has been read.
+	 */
+	private void release(ByteBuffer used) {
+		if (used != carry && used.capacity() > 0)
+			free.offer(used);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see util.PlyScanner#fill(int)
+	 */
+	@Override
+	protected boolean fill(int minimum) throws IOException {
+		bufferOffset += buffer.position();
+		while (buffer.remaining() < minimum) {
+			ByteBuffer next = take();
+			if (next == null)
+				break;
+			if (!buffer.hasRemaining()) {
+				release(buffer);
+				buffer = next;
+				continue;
+			}
+
+			// join the remainder of the current buffer with the next one
+			int size = buffer.remaining() + next.remaining();
+			if (buffer == carry)
+				carry.compact().flip();
+			if (carry.capacity() < size || buffer != carry) {
+				ByteBuffer joined = carry.capacity() < size ? ByteBuffer
+						.allocate(Math.max(size, 2 * carry.capacity()))
+						: carry;
+				joined.clear();
+				joined.put(buffer).flip();
+				release(buffer);
+				carry = joined;
+			}
+			carry.position(carry.limit()).limit(carry.capacity());
+			carry.put(next).flip();
+			release(next);
+			buffer = carry;
+		}
+		return buffer.remaining() >= minimum;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see util.PlyScanner#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed)
+			return;
+		closed = true;
+		// wake the thread when it waits for a free buffer
+		free.offer(END);
+		channel.close();
+	}
+}